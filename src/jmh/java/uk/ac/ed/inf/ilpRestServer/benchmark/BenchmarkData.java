@@ -0,0 +1,53 @@
+package uk.ac.ed.inf.ilpRestServer.benchmark;
+
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataLoader;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * reproducible datasets for the benchmarks, generated with the sample data generator
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param days the number of days (each has the default number of orders)
+     * @return the orders of the days starting at the generator's start date
+     */
+    static List<Order> orders(int days) {
+        var restaurants = IlpDataLoader.loadRestaurants();
+        var orders = new ArrayList<Order>();
+        for (int day = 0; day < days; day++) {
+            orders.addAll(IlpOrdersSampleDataGenerator.ordersForDay(IlpOrdersSampleDataGenerator.START_DATE.plusDays(day),
+                    SEED, IlpOrdersSampleDataGenerator.MAX_VALID_ORDERS_PER_DAY, restaurants));
+        }
+        return orders;
+    }
+
+    /**
+     * write a data directory with an orders.json for the given number of days
+     * (the reference data comes from the classpath)
+     * @param days the number of days
+     * @return the directory
+     * @throws IOException if the directory cannot be written
+     */
+    static Path dataDirectory(int days) throws IOException {
+        var directory = Files.createTempDirectory("ilp-benchmark");
+        Files.writeString(directory.resolve(IlpDataLoader.ORDERS_FILE), IlpJson.GSON.toJson(orders(days)), StandardCharsets.UTF_8);
+        directory.toFile().deleteOnExit();
+        directory.resolve(IlpDataLoader.ORDERS_FILE).toFile().deleteOnExit();
+        return directory;
+    }
+}
@@ -0,0 +1,124 @@
+package uk.ac.ed.inf.ilpRestServer.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.TestItem;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+import uk.ac.ed.inf.ilpRestServer.controller.IlpRestService;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.OrderResponseCache;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the endpoint methods of IlpRestService called directly (without the HTTP stack).
+ * Streamed responses are written to a null stream, so the serialization is part of the measurement
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IlpRestServiceBenchmark {
+
+    @Param({"1", "30", "150"})
+    public int days;
+
+    private IlpRestService service;
+    private LocalDate orderDate;
+    private String existingOrderNo;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dataDirectory = BenchmarkData.dataDirectory(days);
+        var metrics = new IlpMetrics(new SimpleMeterRegistry());
+        var dataProvider = new IlpDataProvider(dataDirectory, null, null, metrics);
+        service = new IlpRestService(dataProvider, new OrderResponseCache(dataProvider, 64L * 1024 * 1024, metrics), metrics);
+
+        orderDate = IlpOrdersSampleDataGenerator.START_DATE.plusDays(days / 2);
+        existingOrderNo = dataProvider.current().orders().all(false).get(dataProvider.current().orders().size() / 2).getOrderNo();
+    }
+
+    private static long write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        response.getBody().writeTo(OutputStream.nullOutputStream());
+        return response.getHeaders().size();
+    }
+
+    @Benchmark
+    public long allOrders() throws IOException {
+        return write(service.orders(null, null, null, null));
+    }
+
+    @Benchmark
+    public long ordersOfDate() throws IOException {
+        return write(service.orders(orderDate, null, null, null));
+    }
+
+    /**
+     * the orders of a date without the response cache (a single page covering all orders bypasses it)
+     */
+    @Benchmark
+    public long ordersOfDateUncached() throws IOException {
+        return write(service.orders(orderDate, null, Integer.MAX_VALUE, null));
+    }
+
+    @Benchmark
+    public long allOrdersWithOutcome() throws IOException {
+        return write(service.ordersWithOutcome(null, null, null, null));
+    }
+
+    @Benchmark
+    public long ordersWithOutcomeOfDate() throws IOException {
+        return write(service.ordersWithOutcome(orderDate, null, null, null));
+    }
+
+    @Benchmark
+    public Order orderDetails() {
+        return service.orderDetails(existingOrderNo);
+    }
+
+    @Benchmark
+    public Boolean isOrderOutcomeValid() {
+        return service.isOrderOutcomeValid(existingOrderNo, OrderStatus.DELIVERED);
+    }
+
+    @Benchmark
+    public OrderStatus orderOutcome() {
+        return service.orderOutcome(existingOrderNo);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> restaurants() {
+        return service.restaurants(null, "gzip");
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> centralArea() {
+        return service.centralArea(null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> noFlyZones() {
+        return service.noFlyZones(null, null);
+    }
+
+    @Benchmark
+    public TestItem test() {
+        return service.test("benchmark");
+    }
+
+    @Benchmark
+    public boolean isAlive() {
+        return service.isAlive();
+    }
+}
@@ -0,0 +1,40 @@
+package uk.ac.ed.inf.ilpRestServer.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+import uk.ac.ed.inf.ilpRestServer.data.OrderRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * parsing orders.json (what getOrders() did on every request) and building the indexed repository
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderLoadingBenchmark {
+
+    @Param({"1", "30", "150"})
+    public int days;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        json = IlpJson.GSON.toJson(BenchmarkData.orders(days));
+    }
+
+    @Benchmark
+    public Order[] deserializeOrders() {
+        return IlpJson.GSON.fromJson(json, Order[].class);
+    }
+
+    @Benchmark
+    public OrderRepository loadOrderRepository() {
+        return OrderRepository.of(IlpJson.GSON.fromJson(json, Order[].class));
+    }
+}
@@ -0,0 +1,55 @@
+package uk.ac.ed.inf.ilpRestServer.benchmark;
+
+import net.andreinc.mockneat.MockNeat;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataLoader;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the sample data generator: single orders and whole days
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SampleOrderBenchmark {
+
+    /**
+     * only the whole-day benchmark depends on the number of orders
+     */
+    @State(Scope.Benchmark)
+    public static class DaySize {
+        @Param({"10", "50", "500"})
+        public int validOrdersPerDay;
+    }
+
+    private Restaurant[] restaurants;
+    private MockNeat mock;
+
+    @Setup
+    public void setUp() {
+        restaurants = IlpDataLoader.loadRestaurants();
+        mock = MockNeat.threadLocal();
+    }
+
+    @Benchmark
+    public Order createSampleOrder() {
+        return IlpOrdersSampleDataGenerator.CreateSampleOrder(IlpOrdersSampleDataGenerator.START_DATE,
+                OrderStatus.DELIVERED, InvalidOrderReasonCode.NO_ERROR, mock, restaurants);
+    }
+
+    @Benchmark
+    public List<Order> ordersForDay(DaySize size) {
+        return IlpOrdersSampleDataGenerator.ordersForDay(IlpOrdersSampleDataGenerator.START_DATE,
+                BenchmarkData.SEED, size.validOrdersPerDay, restaurants);
+    }
+}
@@ -0,0 +1,82 @@
+package uk.ac.ed.inf.ilpRestServer.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilp.gsonUtils.LocalDateDeserializer;
+import uk.ac.ed.inf.ilp.gsonUtils.LocalDateSerializer;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataLoader;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson serialization of the data objects (with the streaming adapters of IlpJson and, as baseline, by reflection)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "30", "150"})
+    public int days;
+
+    /**
+     * the reflective serialization with the tree-model LocalDate handling
+     */
+    private static final Gson REFLECTIVE_GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateSerializer())
+            .registerTypeAdapter(LocalDate.class, new LocalDateDeserializer())
+            .create();
+
+    private Order[] orders;
+    private String ordersJson;
+    private Restaurant[] restaurants;
+    private NamedRegion[] noFlyZones;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkData.orders(days).toArray(new Order[0]);
+        ordersJson = IlpJson.GSON.toJson(orders);
+        var referenceData = IlpDataLoader.loadReferenceData(null);
+        restaurants = referenceData.restaurants();
+        noFlyZones = referenceData.noFlyZones();
+    }
+
+    @Benchmark
+    public String serializeOrders() {
+        return IlpJson.GSON.toJson(orders);
+    }
+
+    @Benchmark
+    public String serializeOrdersReflective() {
+        return REFLECTIVE_GSON.toJson(orders);
+    }
+
+    @Benchmark
+    public Order[] deserializeOrders() {
+        return IlpJson.GSON.fromJson(ordersJson, Order[].class);
+    }
+
+    @Benchmark
+    public Order[] deserializeOrdersReflective() {
+        return REFLECTIVE_GSON.fromJson(ordersJson, Order[].class);
+    }
+
+    @Benchmark
+    public String serializeRestaurants() {
+        return IlpJson.GSON.toJson(restaurants);
+    }
+
+    @Benchmark
+    public String serializeNoFlyZones() {
+        return IlpJson.GSON.toJson(noFlyZones);
+    }
+}
@@ -1,28 +1,47 @@
 package uk.ac.ed.inf.ilpRestServer;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import net.andreinc.mockneat.MockNeat;
+import net.andreinc.mockneat.types.enums.RandomType;
 import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
 import uk.ac.ed.inf.ilp.constant.OrderStatus;
 import uk.ac.ed.inf.ilp.constant.SystemConstants;
 import uk.ac.ed.inf.ilp.data.Order;
 import uk.ac.ed.inf.ilp.data.Pizza;
 import uk.ac.ed.inf.ilp.data.Restaurant;
-import uk.ac.ed.inf.ilp.gsonUtils.LocalDateDeserializer;
-import uk.ac.ed.inf.ilp.gsonUtils.LocalDateSerializer;
-import uk.ac.ed.inf.ilpRestServer.controller.IlpRestService;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataLoader;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+import uk.ac.ed.inf.ilpRestServer.data.OrderNumbers;
+import uk.ac.ed.inf.ilpRestServer.data.OrderSnapshotWriter;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
 
 import static net.andreinc.mockneat.types.enums.CreditCardType.*;
 
 /**
- * a sample order data generator (JSON-format)
+ * a sample order data generator (JSON-format).
+ * <p>
+ * The date range is split by day and generated in parallel on a fork-join pool. Every day has its own random
+ * generator seeded from (seed, date), so the same seed always produces the same file no matter how many threads are used.
+ * The order numbers are derived from the position of the order in the dataset (see {@link OrderNumbers}), so they are
+ * unique within a dataset.
+ * Orders are streamed to the output file day by day, so the dataset size is not limited by the heap.
+ * <p>
+ * Usage: <code>IlpOrdersSampleDataGenerator [startDate] [--start=YYYY-MM-DD] [--days=N | --months=N] [--orders-per-day=N]
+ * [--seed=N] [--threads=N] [--output=file] [--gzip] [--pretty] [--snapshot=file]</code>
+ * <p>
+ * With --snapshot a binary order snapshot is written in addition to the JSON file, which the server can memory-map
+ * (property ilp.data.orders-snapshot) instead of parsing the JSON
  */
 public class IlpOrdersSampleDataGenerator {
 
@@ -41,27 +60,119 @@ public class IlpOrdersSampleDataGenerator {
      */
     public static final int DURATION_IN_MONTHS = 5;
 
+    /**
+     * the default output file
+     */
+    public static final String DEFAULT_OUTPUT_FILE = "orders.json";
+
+    /**
+     * how many days are generated in parallel before they are written (bounds the memory used)
+     */
+    private static final int DAYS_PER_THREAD_IN_BATCH = 4;
+
     private static int restaurantIndex = 0;
 
+    /**
+     * the generator settings taken from the command line
+     * @param startDate the first day to generate
+     * @param days the number of days to generate
+     * @param validOrdersPerDay the number of valid orders per day
+     * @param seed the seed from which every day's random generator is derived
+     * @param threads the parallelism of the fork-join pool
+     * @param outputFile the file to write
+     * @param gzip if true the output is gzipped
+     * @param prettyPrint if true the JSON is indented (default is compact)
+     * @param snapshotFile the binary snapshot to write in addition (null if none)
+     */
+    record GeneratorOptions(LocalDate startDate, int days, int validOrdersPerDay, long seed, int threads,
+                            String outputFile, boolean gzip, boolean prettyPrint, String snapshotFile) {
+
+        static GeneratorOptions parse(String[] args) {
+            var startDate = START_DATE;
+            int days = DURATION_IN_MONTHS * 30;
+            int validOrdersPerDay = MAX_VALID_ORDERS_PER_DAY;
+            long seed = ThreadLocalRandom.current().nextLong();
+            int threads = Runtime.getRuntime().availableProcessors();
+            var outputFile = DEFAULT_OUTPUT_FILE;
+            boolean gzip = false;
+            boolean prettyPrint = false;
+            String snapshotFile = null;
+
+            for (var arg : args) {
+                var separator = arg.indexOf('=');
+                var name = separator < 0 ? arg : arg.substring(0, separator);
+                var value = separator < 0 ? null : arg.substring(separator + 1);
+
+                switch (name) {
+                    case "--start" -> startDate = LocalDate.parse(value);
+                    case "--days" -> days = Integer.parseInt(value);
+                    case "--months" -> days = Integer.parseInt(value) * 30;
+                    case "--orders-per-day" -> validOrdersPerDay = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--output" -> outputFile = value;
+                    case "--gzip" -> gzip = true;
+                    case "--pretty" -> prettyPrint = true;
+                    // compact output is the default, the option is still accepted
+                    case "--compact" -> prettyPrint = false;
+                    case "--snapshot" -> snapshotFile = value;
+                    default -> {
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("unknown option: " + arg);
+                        }
+                        // the original single argument: the start date
+                        startDate = LocalDate.parse(arg);
+                    }
+                }
+            }
+
+            if (days <= 0 || validOrdersPerDay < 0 || threads <= 0) {
+                throw new IllegalArgumentException("days and threads must be positive and orders per day must not be negative");
+            }
+            // fails if the first or the last order of the range has no order number
+            int ordersPerDay = ordersPerDay(validOrdersPerDay);
+            OrderNumbers.position(startDate.toEpochDay(), ordersPerDay, 0);
+            OrderNumbers.position(startDate.plusDays(days - 1).toEpochDay(), ordersPerDay, ordersPerDay - 1);
+            return new GeneratorOptions(startDate, days, validOrdersPerDay, seed, threads,
+                    outputFile, gzip || outputFile.endsWith(".gz"), prettyPrint, snapshotFile);
+        }
+    }
+
     public static Order CreateSampleOrder(LocalDate currentDate, OrderStatus orderStatus, InvalidOrderReasonCode reasonCodeForFailure, MockNeat mock, Restaurant[] restaurants){
+        // get the next restaurant which is open on the day
+        var openRestaurants = openRestaurants(restaurants, currentDate);
+        var currentRestaurant = openRestaurants[restaurantIndex++ % openRestaurants.length];
+        if (restaurantIndex >= restaurants.length){
+            restaurantIndex = 0;
+        }
+
+        return createSampleOrder(currentDate, orderStatus, reasonCodeForFailure, mock, ThreadLocalRandom.current(), currentRestaurant);
+    }
+
+    /**
+     * create a valid order for a restaurant using only the passed sources of randomness (so the result is reproducible)
+     * @param currentDate the order date
+     * @param orderStatus the status to set
+     * @param reasonCodeForFailure the reason code to set
+     * @param mock the mock data generator
+     * @param random the random generator
+     * @param currentRestaurant the restaurant the whole menu is ordered from
+     * @return the order
+     */
+    public static Order createSampleOrder(LocalDate currentDate, OrderStatus orderStatus, InvalidOrderReasonCode reasonCodeForFailure, MockNeat mock, Random random, Restaurant currentRestaurant){
         var order = new Order();
-        order.setOrderNo(String.format("%08X", ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE)));
+        order.setOrderNo(String.format("%08X", random.nextInt(1, Integer.MAX_VALUE)));
         order.setOrderDate(currentDate);
         order.setCvv(mock.cvvs().get());
         order.setCreditCardNumber(mock.creditCards().types(VISA_16, MASTERCARD).get());
         order.setCustomer(mock.names().get());
-        order.setCreditCardExpiry(String.format("%02d/%02d", ThreadLocalRandom.current().nextInt(1, 12), ThreadLocalRandom.current().nextInt(24, 29)));
+        // always after the order date
+        order.setCreditCardExpiry(String.format("%02d/%02d", random.nextInt(1, 12), (currentDate.getYear() + random.nextInt(1, 6)) % 100));
 
         // every order has the defined outcome
         order.setOrderStatus(orderStatus);
         order.setInvalidOrderReasonCode(reasonCodeForFailure);
 
-        // get a random restaurant
-        var currentRestaurant = restaurants[restaurantIndex++];
-        if (restaurantIndex >= restaurants.length){
-            restaurantIndex = 0;
-        }
-
         // and load the order items plus the price
         order.setPizzasInOrder(currentRestaurant.menu());
         order.setPriceTotalInPence(Arrays.stream(currentRestaurant.menu()).map(m -> m.priceInPence()).reduce(0, Integer::sum) + SystemConstants.ORDER_CHARGE_IN_PENCE);
@@ -69,187 +180,252 @@ public class IlpOrdersSampleDataGenerator {
         return order;
     }
 
-    // private Map<OrderStatus, InvalidOrderReasonCode>
+    /**
+     * derive the seed of a single day from the dataset seed
+     * @param seed the dataset seed
+     * @param date the day
+     * @return the seed for the day
+     */
+    public static long daySeed(long seed, LocalDate date) {
+        // SplitMix64 finalizer, so neighbouring days get unrelated seeds
+        long z = seed + date.toEpochDay() * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 
-    public static void main(String[] args) throws IOException {
-        System.out.println("ILP sample order data generator");
+    /**
+     * @param validOrdersPerDay the number of valid orders per day
+     * @return the number of all orders per day (one invalid order per reason code plus the valid orders)
+     */
+    public static int ordersPerDay(int validOrdersPerDay) {
+        return InvalidOrderReasonCode.values().length - 1 + validOrdersPerDay;
+    }
 
-        // needed for the Pizzas and prices
-        var restaurants = new IlpRestService().restaurants();
+    /**
+     * generate all orders for one day: one invalid order for each reason code, followed by the valid orders.
+     * The result only depends on the parameters, not on any shared state. The order numbers are unique for all
+     * days generated with the same seed and number of valid orders per day.
+     * <p>
+     * Orders are only taken from restaurants which are open on the day (except the RESTAURANT_CLOSED ones), so every
+     * order breaks exactly the rule of its reason code
+     * @param date the day
+     * @param seed the dataset seed
+     * @param validOrdersPerDay the number of valid orders
+     * @param restaurants the restaurants to order from
+     * @return the orders of the day
+     */
+    public static List<Order> ordersForDay(LocalDate date, long seed, int validOrdersPerDay, Restaurant[] restaurants) {
+        long daySeed = daySeed(seed, date);
+        var random = new Random(daySeed);
+        var mock = new MockNeat(RandomType.OLD, daySeed);
+        var orders = new ArrayList<Order>(InvalidOrderReasonCode.values().length + validOrdersPerDay);
+
+        var openRestaurants = openRestaurants(restaurants, date);
+        int nextRestaurant = random.nextInt(openRestaurants.length);
+        for (var reasonCode : InvalidOrderReasonCode.values()) {
+            // we want to ignore NO-ERRORs as these are the valid orders
+            if (reasonCode == InvalidOrderReasonCode.NO_ERROR){
+                continue;
+            }
 
-        // we use a smaller period than 2 years as the result gets huge
-        var startDate = START_DATE;
+            var order = createSampleOrder(date, OrderStatus.INVALID, reasonCode, mock, random, openRestaurants[nextRestaurant]);
+            nextRestaurant = (nextRestaurant + 1) % openRestaurants.length;
+            invalidateOrder(order, reasonCode, restaurants, random);
+            orders.add(order);
+        }
 
-        if (args.length == 1) {
-            startDate = LocalDate.parse(args[0]);
+        for (int orderCount = 0; orderCount < validOrdersPerDay; orderCount ++){
+            orders.add(createSampleOrder(date, OrderStatus.DELIVERED, InvalidOrderReasonCode.NO_ERROR, mock, random, openRestaurants[nextRestaurant]));
+            nextRestaurant = (nextRestaurant + 1) % openRestaurants.length;
         }
 
-        // needed to create mock data
-        MockNeat mock = MockNeat.threadLocal();
-
-        // where our result will be returned
-        List<Order> orderList = new ArrayList<>();
-
-        var endDate = startDate.plusDays(DURATION_IN_MONTHS * 30);
-
-        // iterate over each date in the range
-        var currentDate = startDate;
-        while (currentDate.isBefore(endDate)) {
-
-            // traverse over all possible order outcomes to generate one record for each outcome possible
-            for (var outcome : OrderStatus.values()) {
-
-                // now modify the wrong entries according to the enum
-                switch (outcome) {
-
-                    case INVALID -> {
-
-                        // now create all permutations of orders for INVALID
-                        for (var reasonCode : InvalidOrderReasonCode.values()) {
-
-                            // create a valid order with default values
-                            var order = CreateSampleOrder(currentDate, outcome, reasonCode, mock, restaurants);
-
-                            // we want to ignore NO-ERRORs as these are already handled
-                            if (reasonCode == InvalidOrderReasonCode.NO_ERROR){
-                                continue;
-                            }
-
-                            switch (reasonCode) {
-                                case CVV -> {
-                                    var len = Integer.toString(ThreadLocalRandom.current().nextInt(1, 8));
-
-                                    // 3 digit CVV would be valid
-                                    if (len.equals("3")) {
-                                        len = "4";
-                                    }
-
-                                    String formatString = "%" + len + "." + len + "s";
-                                    order.setCvv(String.format(formatString, ThreadLocalRandom.current().nextInt(0, 99999999)));
-                                }
-                                case CARD_NUMBER -> {
-                                    var len = ThreadLocalRandom.current().nextInt(1, 16);
-                                    String formatString = "%" + len + "." + len + "s";
-                                    order.setCreditCardNumber(String.format(formatString, ThreadLocalRandom.current().nextLong(1, 9999999999999999L)));
-                                }
-                                case TOTAL -> {
-                                    // by adding something to the order this invalidates the total -> just make sure it is not 0 (which would be correct again)
-                                    var add = ThreadLocalRandom.current().nextInt(-100, 1000);
-                                    if (add == 0) {
-                                        add = 1;
-                                    }
-                                    order.setPriceTotalInPence(order.getPriceTotalInPence() + add);
-                                }
-
-                                case EXPIRY_DATE -> {
-                                    // expiry date is always in the past
-                                    order.setCreditCardExpiry(String.format("%02d/%02d", ThreadLocalRandom.current().nextInt(1, 20), ThreadLocalRandom.current().nextInt(2, 19)));
-                                }
-
-                                case PIZZA_NOT_DEFINED -> {
-                                    // add a pizza which does not exist
-                                    var currentPizzas = getPizzasInOrderAsMutableList(order);
-                                    currentPizzas.add(new Pizza("Pizza-Surprise ", new Random(10000).nextInt()));
-                                    order.setPizzasInOrder(currentPizzas.toArray(new Pizza[0]));
-                                }
-
-                                case MAX_PIZZA_COUNT_EXCEEDED -> {
-                                    // just multiply the ordered pizzas (5 is always more than the valid maximum)
-                                    var currentPizzas =  getPizzasInOrderAsMutableList(order);
-                                    currentPizzas.add(new Pizza("Pizza-Surprise ", new Random(10000).nextInt()));
-                                    currentPizzas.add(new Pizza("Pizza Extra2 ", new Random(10000).nextInt()));
-                                    currentPizzas.add(new Pizza("Pizza Extra3 ", new Random(10000).nextInt()));
-                                    currentPizzas.add(new Pizza("Pizza Extra4 ", new Random(10000).nextInt()));
-                                    order.setPizzasInOrder(currentPizzas.toArray(new Pizza[0]));
-                                    order.setPriceTotalInPence(currentPizzas.stream().map(m -> m.priceInPence()).reduce(0, Integer::sum) + SystemConstants.ORDER_CHARGE_IN_PENCE);
-                                }
-
-                                case MULTIPLE_RESTAURANTS -> {
-                                    // mix pizzas from a different supplier. Find the restaurant the order is from, then take the next
-                                    var currentRestaurant = Arrays.stream(restaurants).filter(r -> r.menu()[0].name().equals(order.getPizzasInOrder()[0].name())).findFirst().get();
-                                    if (restaurants[0].equals(currentRestaurant)) {
-                                        currentRestaurant = restaurants[1];
-                                    } else {
-                                        currentRestaurant = restaurants[0];
-                                    }
-
-                                    var currentPizzas =  getPizzasInOrderAsMutableList(order);
-                                    var pizzaToAdd = currentRestaurant.menu()[0];
-                                    currentPizzas.add(new Pizza(pizzaToAdd.name(), pizzaToAdd.priceInPence()));
-                                    order.setPizzasInOrder(currentPizzas.toArray(new Pizza[0]));
-                                    order.setPriceTotalInPence(currentPizzas.stream().map(m -> m.priceInPence()).reduce(0, Integer::sum) + SystemConstants.ORDER_CHARGE_IN_PENCE);
-                                }
-
-                                case RESTAURANT_CLOSED -> {
-                                    var currentDayOfWeek = currentDate.getDayOfWeek();
-                                    Restaurant currentRestaurant = null;
-                                    for (var restaurant: restaurants) {
-                                        if (Arrays.stream(restaurant.openingDays()).noneMatch(d -> d.equals(currentDayOfWeek))) {
-                                            currentRestaurant = restaurant;
-                                            break;
-                                        }
-                                    }
-
-                                    if (currentRestaurant == null) {
-                                        throw new RuntimeException("No restaurant found which is not open on: " + currentDayOfWeek.toString());
-                                    }
-
-
-                                    order.setPizzasInOrder(new Pizza[] { currentRestaurant.menu()[0] });
-                                    order.setPriceTotalInPence(Arrays.stream(order.getPizzasInOrder()).map(m -> m.priceInPence()).reduce(0, Integer::sum) + SystemConstants.ORDER_CHARGE_IN_PENCE);
-                                }
-
-                                default -> {
-                                    // this would be an error
-                                    throw new RuntimeException("Reasoncode: " + reasonCode + " was not handled");
-                                }
-                            }
-
-                            // set the individual reason code for this order and add the order
-                            orderList.add(order);
-                        }
-                    }
+        var orderNumbers = new OrderNumbers(seed);
+        int ordersPerDay = ordersPerDay(validOrdersPerDay);
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setOrderNo(orderNumbers.orderNo(OrderNumbers.position(date.toEpochDay(), ordersPerDay, i)));
+        }
+        return orders;
+    }
 
+    /**
+     * @param restaurants the restaurants
+     * @param date the order date
+     * @return the restaurants which are open on the day (in their original order)
+     * @throws IllegalArgumentException if all restaurants are closed
+     */
+    static Restaurant[] openRestaurants(Restaurant[] restaurants, LocalDate date) {
+        var open = Arrays.stream(restaurants)
+                .filter(restaurant -> Arrays.asList(restaurant.openingDays()).contains(date.getDayOfWeek()))
+                .toArray(Restaurant[]::new);
+        if (open.length == 0) {
+            throw new IllegalArgumentException("no restaurant is open on " + date.getDayOfWeek());
+        }
+        return open;
+    }
 
-                 /**
-                  * Will be handled later
-                  case ValidButNotDelivered -> {
-                        order.orderOutcome = OrderOutcome.Delivered;
-                    }
+    /**
+     * modify a valid order so it becomes invalid for the reason code
+     * @param order the valid order which is modified
+     * @param reasonCode the reason why the order should be invalid
+     * @param restaurants the restaurants
+     * @param random the random generator
+     */
+    public static void invalidateOrder(Order order, InvalidOrderReasonCode reasonCode, Restaurant[] restaurants, Random random) {
+        switch (reasonCode) {
+            case CVV -> {
+                var len = Integer.toString(random.nextInt(1, 8));
+
+                // 3 digit CVV would be valid
+                if (len.equals("3")) {
+                    len = "4";
+                }
 
-                    case Delivered -> {
-                        ;
-                    }
-                */
-                    default -> {
-                        ;
+                String formatString = "%" + len + "." + len + "s";
+                order.setCvv(String.format(formatString, random.nextInt(0, 99999999)));
+            }
+            case CARD_NUMBER -> {
+                var len = random.nextInt(1, 16);
+                String formatString = "%" + len + "." + len + "s";
+                order.setCreditCardNumber(String.format(formatString, random.nextLong(1, 9999999999999999L)));
+            }
+            case TOTAL -> {
+                // by adding something to the order this invalidates the total -> just make sure it is not 0 (which would be correct again)
+                var add = random.nextInt(-100, 1000);
+                if (add == 0) {
+                    add = 1;
+                }
+                order.setPriceTotalInPence(order.getPriceTotalInPence() + add);
+            }
+
+            case EXPIRY_DATE -> {
+                // expiry date is always in the past
+                order.setCreditCardExpiry(String.format("%02d/%02d", random.nextInt(1, 20), random.nextInt(2, 19)));
+            }
+
+            case PIZZA_NOT_DEFINED -> {
+                // add a pizza which does not exist
+                var currentPizzas = getPizzasInOrderAsMutableList(order);
+                currentPizzas.add(new Pizza("Pizza-Surprise ", new Random(10000).nextInt()));
+                order.setPizzasInOrder(currentPizzas.toArray(new Pizza[0]));
+            }
+
+            case MAX_PIZZA_COUNT_EXCEEDED -> {
+                // just multiply the ordered pizzas (5 is always more than the valid maximum)
+                var currentPizzas =  getPizzasInOrderAsMutableList(order);
+                currentPizzas.add(new Pizza("Pizza-Surprise ", new Random(10000).nextInt()));
+                currentPizzas.add(new Pizza("Pizza Extra2 ", new Random(10000).nextInt()));
+                currentPizzas.add(new Pizza("Pizza Extra3 ", new Random(10000).nextInt()));
+                currentPizzas.add(new Pizza("Pizza Extra4 ", new Random(10000).nextInt()));
+                order.setPizzasInOrder(currentPizzas.toArray(new Pizza[0]));
+                order.setPriceTotalInPence(currentPizzas.stream().map(m -> m.priceInPence()).reduce(0, Integer::sum) + SystemConstants.ORDER_CHARGE_IN_PENCE);
+            }
+
+            case MULTIPLE_RESTAURANTS -> {
+                // mix pizzas from a different supplier. Find the restaurant the order is from, then take the next
+                var currentRestaurant = Arrays.stream(restaurants).filter(r -> r.menu()[0].name().equals(order.getPizzasInOrder()[0].name())).findFirst().get();
+                if (restaurants[0].equals(currentRestaurant)) {
+                    currentRestaurant = restaurants[1];
+                } else {
+                    currentRestaurant = restaurants[0];
+                }
+
+                var currentPizzas =  getPizzasInOrderAsMutableList(order);
+                var pizzaToAdd = currentRestaurant.menu()[0];
+                currentPizzas.add(new Pizza(pizzaToAdd.name(), pizzaToAdd.priceInPence()));
+                order.setPizzasInOrder(currentPizzas.toArray(new Pizza[0]));
+                order.setPriceTotalInPence(currentPizzas.stream().map(m -> m.priceInPence()).reduce(0, Integer::sum) + SystemConstants.ORDER_CHARGE_IN_PENCE);
+            }
+
+            case RESTAURANT_CLOSED -> {
+                var currentDayOfWeek = order.getOrderDate().getDayOfWeek();
+                Restaurant currentRestaurant = null;
+                for (var restaurant: restaurants) {
+                    if (Arrays.stream(restaurant.openingDays()).noneMatch(d -> d.equals(currentDayOfWeek))) {
+                        currentRestaurant = restaurant;
+                        break;
                     }
                 }
+
+                if (currentRestaurant == null) {
+                    throw new RuntimeException("No restaurant found which is not open on: " + currentDayOfWeek.toString());
+                }
+
+
+                order.setPizzasInOrder(new Pizza[] { currentRestaurant.menu()[0] });
+                order.setPriceTotalInPence(Arrays.stream(order.getPizzasInOrder()).map(m -> m.priceInPence()).reduce(0, Integer::sum) + SystemConstants.ORDER_CHARGE_IN_PENCE);
             }
 
-            // find another date
-            currentDate = currentDate.plusDays(1);
+            default -> {
+                // this would be an error
+                throw new RuntimeException("Reasoncode: " + reasonCode + " was not handled");
+            }
         }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        System.out.println("ILP sample order data generator");
+
+        var options = GeneratorOptions.parse(args);
+        System.out.printf("generating %d days from %s with %d valid orders per day (seed: %d, threads: %d) into %s%n",
+                options.days(), options.startDate(), options.validOrdersPerDay(), options.seed(), options.threads(), options.outputFile());
 
-        currentDate = startDate;
-        while (currentDate.isBefore(endDate)) {
-            for (int orderCount = 0; orderCount < MAX_VALID_ORDERS_PER_DAY; orderCount ++){
-                // create a valid order with default values
-                orderList.add(CreateSampleOrder(currentDate, OrderStatus.DELIVERED, InvalidOrderReasonCode.NO_ERROR, mock, restaurants));
+        // needed for the Pizzas and prices
+        var restaurants = IlpDataLoader.loadRestaurants();
+
+        var snapshotWriter = options.snapshotFile() == null ? null : new OrderSnapshotWriter(restaurants);
+        var pool = new ForkJoinPool(options.threads());
+        long orderCount = 0;
+        try (var jsonWriter = new JsonWriter(openOutput(options))) {
+            if (options.prettyPrint()) {
+                jsonWriter.setIndent("  ");
+            }
+            jsonWriter.beginArray();
+
+            // generate a batch of days in parallel, then write them in date order before the next batch is generated
+            int batchSize = options.threads() * DAYS_PER_THREAD_IN_BATCH;
+            for (int batchStart = 0; batchStart < options.days(); batchStart += batchSize) {
+                int firstDay = batchStart;
+                int lastDay = Math.min(options.days(), batchStart + batchSize);
+
+                var batch = pool.submit(() -> IntStream.range(firstDay, lastDay)
+                        .parallel()
+                        .mapToObj(day -> ordersForDay(options.startDate().plusDays(day), options.seed(), options.validOrdersPerDay(), restaurants))
+                        .toList()).get();
+
+                for (var ordersOfDay : batch) {
+                    for (var order : ordersOfDay) {
+                        IlpJson.GSON.toJson(order, Order.class, jsonWriter);
+                        if (snapshotWriter != null) {
+                            snapshotWriter.add(order);
+                        }
+                    }
+                    orderCount += ordersOfDay.size();
+                }
             }
 
-            // find another date
-            currentDate = currentDate.plusDays(1);
+            jsonWriter.endArray();
+        } finally {
+            pool.shutdown();
         }
 
-        var writer = new BufferedWriter(new FileWriter("orders.json"));
+        System.out.printf("%d orders written%n", orderCount);
 
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(LocalDate.class, new LocalDateSerializer());
-        gsonBuilder.registerTypeAdapter(LocalDate.class, new LocalDateDeserializer());
-        Gson gson = gsonBuilder.setPrettyPrinting().create();
-        writer.write(gson.toJson(orderList.toArray()));
-        writer.flush();
+        if (snapshotWriter != null) {
+            snapshotWriter.write(Path.of(options.snapshotFile()));
+            System.out.printf("binary snapshot written to %s%n", options.snapshotFile());
+        }
+    }
+
+    /**
+     * open the output file (gzipped if requested)
+     */
+    private static Writer openOutput(GeneratorOptions options) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(options.outputFile()), 64 * 1024);
+        if (options.gzip()) {
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
     }
 
     /**
@@ -0,0 +1,33 @@
+package uk.ac.ed.inf.ilpRestServer.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+/**
+ * registers the admission control filter if ilp.admission.enabled is true
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfiguration {
+
+    /**
+     * the filter runs right after the request metrics, so throttled requests are still measured
+     * @param properties the admission settings
+     * @param metrics the application metrics
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(value = "ilp.admission.enabled", havingValue = "true")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionProperties properties, IlpMetrics metrics) {
+        var registration = new FilterRegistrationBean<>(new AdmissionFilter(properties, metrics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,134 @@
+package uk.ac.ed.inf.ilpRestServer.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * per client admission control. A request matching a route group takes a token from the client's bucket of the group;
+ * if the bucket is empty the request is answered with 429 and a Retry-After header right away, before any controller
+ * work is done
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    /**
+     * the buckets of one route group
+     */
+    private record Group(String name, List<PathPattern> patterns, TokenBuckets buckets) {
+
+        boolean matches(PathContainer path) {
+            for (var pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final List<Group> groups;
+    private final String clientHeader;
+    private final ScheduledExecutorService evictor;
+    private final IlpMetrics metrics;
+
+    /**
+     * create the filter and start the idle bucket eviction
+     * @param properties the settings
+     * @param metrics the metrics the throttled requests are counted in
+     */
+    public AdmissionFilter(AdmissionProperties properties, IlpMetrics metrics) {
+        this.metrics = metrics;
+        this.groups = properties.groups().stream()
+                .map(group -> new Group(group.name(),
+                        group.patterns().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                        new TokenBuckets(group.requestsPerSecond(), group.burst(), properties.maxTrackedClients())))
+                .toList();
+        this.clientHeader = properties.clientHeader() == null || properties.clientHeader().isBlank() ? null : properties.clientHeader();
+
+        long idleNanos = properties.idleTimeout().toNanos();
+        long period = Math.max(1, properties.idleTimeout().toSeconds() / 2);
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "ilp-admission-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            for (var group : groups) {
+                int evicted = group.buckets().evictIdle(now, idleNanos);
+                if (evicted > 0) {
+                    logger.debug("dropped {} idle clients of {} ({} left)", evicted, group.name(), group.buckets().size());
+                }
+            }
+        }, period, period, TimeUnit.SECONDS);
+
+        logger.info("admission control enabled for {}", groups.stream().map(Group::name).toList());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var group = groupOf(request);
+        if (group != null) {
+            long wait = group.buckets().tryAcquire(clientOf(request), System.nanoTime());
+            if (wait > 0) {
+                metrics.countThrottled(group.name());
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(TokenBuckets.retryAfterSeconds(wait)));
+                response.setContentLength(0);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+    }
+
+    private Group groupOf(HttpServletRequest request) {
+        if (groups.isEmpty()) {
+            return null;
+        }
+        var path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (var group : groups) {
+            if (group.matches(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * the client id: the first entry of the configured header or the remote address
+     */
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            var value = request.getHeader(clientHeader);
+            if (value != null && value.isBlank() == false) {
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,38 @@
+package uk.ac.ed.inf.ilpRestServer.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * the admission control settings (ilp.admission.*)
+ * @param enabled if false no requests are throttled
+ * @param idleTimeout a client bucket is dropped after this time without requests (it is full again by then)
+ * @param maxTrackedClients the maximum number of clients with an own bucket per route group - further clients share one
+ * @param clientHeader optional request header identifying the client (e.g. X-Forwarded-For behind a proxy),
+ *                     the remote address is used if not set or not present
+ * @param groups the throttled route groups - requests matching no group are never throttled
+ */
+@ConfigurationProperties("ilp.admission")
+public record AdmissionProperties(boolean enabled,
+                                  @DefaultValue("10m") Duration idleTimeout,
+                                  @DefaultValue("100000") int maxTrackedClients,
+                                  String clientHeader,
+                                  List<RouteGroup> groups) {
+
+    public AdmissionProperties {
+        groups = groups == null ? List.of() : List.copyOf(groups);
+    }
+
+    /**
+     * the limit of a group of routes, applied per client
+     * @param name the name of the group (used in the metrics)
+     * @param patterns the path patterns of the group (e.g. /orders/**)
+     * @param requestsPerSecond the sustained request rate of a client
+     * @param burst how many requests a client can send at once after being idle
+     */
+    public record RouteGroup(String name, List<String> patterns, double requestsPerSecond, @DefaultValue("1") int burst) {
+    }
+}
@@ -0,0 +1,119 @@
+package uk.ac.ed.inf.ilpRestServer.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * per client token buckets of one route group, implemented with the generic cell rate algorithm (GCRA).
+ * <p>
+ * A bucket is a single long - the theoretical arrival time (TAT) of the next request - updated with compare-and-set,
+ * so admitting a request takes no lock and allocates nothing once the client is known. The buckets live in a
+ * concurrent hash map (lock-striped for inserts, lock-free for reads)
+ */
+final class TokenBuckets {
+
+    /**
+     * marks a bucket which was never used
+     */
+    private static final long UNUSED = Long.MIN_VALUE;
+
+    /**
+     * marks a bucket dropped by {@link #evictIdle(long, long)} - a request still holding it continues with a new one
+     */
+    private static final long EVICTED = Long.MAX_VALUE;
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * shared by all clients beyond maxClients, so spoofed client ids cannot grow the map without limit
+     */
+    private final AtomicLong overflowBucket = new AtomicLong(UNUSED);
+
+    /**
+     * @param requestsPerSecond the sustained rate per client
+     * @param burst the number of requests a client can send at once
+     * @param maxClients the maximum number of clients with an own bucket
+     */
+    TokenBuckets(double requestsPerSecond, int burst, int maxClients) {
+        if (requestsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("the request rate and the burst must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000 / requestsPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * try to take a token for a request
+     * @param client the client id
+     * @param now the current System.nanoTime()
+     * @return 0 if the request is admitted, otherwise the nanoseconds until the client may send again
+     */
+    long tryAcquire(String client, long now) {
+        var bucket = bucket(client);
+        while (true) {
+            long tat = bucket.get();
+            if (tat == EVICTED) {
+                // dropped by evictIdle since it was looked up - it may not be removed from the map yet
+                buckets.remove(client, bucket);
+                bucket = bucket(client);
+                continue;
+            }
+            long base = tat == UNUSED || tat - now < 0 ? now : tat;
+            long wait = base - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * drop the buckets of clients without requests for some time - their buckets are full, so a new one is the same.
+     * A bucket is only dropped if no request has updated it since it was found idle (compare-and-set to EVICTED)
+     * @param now the current System.nanoTime()
+     * @param idleNanos the idle time
+     * @return the number of dropped buckets
+     */
+    int evictIdle(long now, long idleNanos) {
+        int evicted = 0;
+        for (var entry : buckets.entrySet()) {
+            var bucket = entry.getValue();
+            long tat = bucket.get();
+            if (tat != EVICTED && (tat == UNUSED || now - tat > idleNanos) && bucket.compareAndSet(tat, EVICTED)) {
+                buckets.remove(entry.getKey(), bucket);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * @param waitNanos the wait returned by {@link #tryAcquire(String, long)}
+     * @return the wait in whole seconds for the Retry-After header (rounded up, at least 1)
+     */
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+
+    /**
+     * @return the number of clients with an own bucket
+     */
+    int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String client) {
+        var bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = buckets.size() < maxClients ? buckets.computeIfAbsent(client, c -> new AtomicLong(UNUSED)) : overflowBucket;
+        }
+        return bucket;
+    }
+}
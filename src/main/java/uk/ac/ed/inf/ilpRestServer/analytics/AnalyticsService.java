@@ -0,0 +1,38 @@
+package uk.ac.ed.inf.ilpRestServer.analytics;
+
+import org.springframework.stereotype.Service;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataSnapshot;
+import uk.ac.ed.inf.ilpRestServer.data.SnapshotMemo;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * memoizes the order analytics for the current data snapshot.
+ * The tables are built in the background as soon as a snapshot is published (including the one loaded at startup),
+ * a request only waits if they are not finished yet
+ */
+@Service
+public class AnalyticsService {
+
+    private final IlpMetrics metrics;
+    private final SnapshotMemo<CompletableFuture<OrderAnalytics>> analytics;
+
+    public AnalyticsService(IlpDataProvider dataProvider, IlpMetrics metrics) {
+        this.metrics = metrics;
+        this.analytics = new SnapshotMemo<>(dataProvider, "analytics", this::build, metrics);
+    }
+
+    /**
+     * @return the analytics of the current data
+     */
+    public OrderAnalytics analytics() {
+        return analytics.get().join();
+    }
+
+    private CompletableFuture<OrderAnalytics> build(IlpDataSnapshot snapshot) {
+        return CompletableFuture.supplyAsync(() ->
+                metrics.timeLoad("analytics", () -> OrderAnalytics.of(snapshot.orders(), snapshot.referenceData().menuIndex())));
+    }
+}
@@ -0,0 +1,15 @@
+package uk.ac.ed.inf.ilpRestServer.analytics;
+
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * the number of orders on one day
+ * @param date the order date
+ * @param total the number of orders
+ * @param byStatus the number of orders per status (only non-zero counts are listed)
+ */
+public record DailyOrderCounts(LocalDate date, long total, Map<OrderStatus, Long> byStatus) {
+}
@@ -0,0 +1,279 @@
+package uk.ac.ed.inf.ilpRestServer.analytics;
+
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilpRestServer.data.MenuIndex;
+import uk.ac.ed.inf.ilpRestServer.data.OrderStore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * summary tables over all orders, built in one pass over the order store.
+ * <p>
+ * Every table is kept as prefix sums over the days (row d holds the sum of all days before d), so the sum over any date
+ * range is the difference of two rows - a query costs the same for a day or for the whole dataset
+ */
+public final class OrderAnalytics {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final InvalidOrderReasonCode[] REASONS = InvalidOrderReasonCode.values();
+
+    /**
+     * the reason dimension has an extra slot for orders without a reason code
+     */
+    private static final int REASON_SLOTS = REASONS.length + 1;
+    private static final int STATUS_REASON_CELLS = STATUSES.length * REASON_SLOTS;
+
+    private final long firstEpochDay;
+    private final int dayCount;
+
+    /**
+     * (dayCount + 1) rows of status x reason cells
+     */
+    private final long[] statusReasonCounts;
+
+    private final MenuIndex menuIndex;
+
+    /**
+     * (dayCount + 1) rows of one cell per restaurant
+     */
+    private final long[] restaurantOrders;
+    private final long[] restaurantTotals;
+    private final long[] restaurantValidOrders;
+    private final long[] restaurantValidTotals;
+
+    private final String[] pizzaNames;
+
+    /**
+     * per pizza (dayCount + 1) prefix sums
+     */
+    private final long[][] pizzaCounts;
+
+    private OrderAnalytics(OrderStore orderStore, MenuIndex menuIndex) {
+        this.menuIndex = menuIndex;
+        int size = orderStore.size();
+        firstEpochDay = size == 0 ? 0 : orderStore.epochDay(0);
+        dayCount = size == 0 ? 0 : (int) (orderStore.epochDay(size - 1) - firstEpochDay + 1);
+
+        int restaurantCount = menuIndex.restaurantCount();
+        statusReasonCounts = new long[(dayCount + 1) * STATUS_REASON_CELLS];
+        restaurantOrders = new long[(dayCount + 1) * restaurantCount];
+        restaurantTotals = new long[(dayCount + 1) * restaurantCount];
+        restaurantValidOrders = new long[(dayCount + 1) * restaurantCount];
+        restaurantValidTotals = new long[(dayCount + 1) * restaurantCount];
+
+        var pizzaIndex = new HashMap<String, Integer>();
+        var pizzaDays = new ArrayList<long[]>();
+        var names = new ArrayList<String>();
+
+        // count every order in row (day + 1), the prefix sums are built afterwards
+        var orders = orderStore.all(false);
+        for (int i = 0; i < size; i++) {
+            var order = orders.get(i);
+            int row = (int) (orderStore.epochDay(i) - firstEpochDay) + 1;
+
+            var status = order.getOrderStatus();
+            var reason = order.getInvalidOrderReasonCode();
+            if (status != null) {
+                statusReasonCounts[row * STATUS_REASON_CELLS + status.ordinal() * REASON_SLOTS + (reason == null ? REASONS.length : reason.ordinal())]++;
+            }
+
+            var pizzas = order.getPizzasInOrder();
+            if (pizzas == null || pizzas.length == 0) {
+                continue;
+            }
+
+            int restaurant = menuIndex.restaurantOf(pizzas[0].name());
+            if (restaurant >= 0) {
+                int cell = row * restaurantCount + restaurant;
+                restaurantOrders[cell]++;
+                restaurantTotals[cell] += order.getPriceTotalInPence();
+                if (status != OrderStatus.INVALID) {
+                    restaurantValidOrders[cell]++;
+                    restaurantValidTotals[cell] += order.getPriceTotalInPence();
+                }
+            }
+
+            for (var pizza : pizzas) {
+                var index = pizzaIndex.get(pizza.name());
+                if (index == null) {
+                    index = names.size();
+                    pizzaIndex.put(pizza.name(), index);
+                    names.add(pizza.name());
+                    pizzaDays.add(new long[dayCount + 1]);
+                }
+                pizzaDays.get(index)[row]++;
+            }
+        }
+
+        accumulate(statusReasonCounts, STATUS_REASON_CELLS);
+        accumulate(restaurantOrders, restaurantCount);
+        accumulate(restaurantTotals, restaurantCount);
+        accumulate(restaurantValidOrders, restaurantCount);
+        accumulate(restaurantValidTotals, restaurantCount);
+        pizzaNames = names.toArray(new String[0]);
+        pizzaCounts = pizzaDays.toArray(new long[0][]);
+        for (var counts : pizzaCounts) {
+            accumulate(counts, 1);
+        }
+    }
+
+    /**
+     * build the tables
+     * @param orderStore the orders
+     * @param menuIndex the menus to map orders to restaurants
+     * @return the analytics
+     */
+    public static OrderAnalytics of(OrderStore orderStore, MenuIndex menuIndex) {
+        return new OrderAnalytics(orderStore, menuIndex);
+    }
+
+    /**
+     * @return the date of the first order or null if there are no orders
+     */
+    public LocalDate firstDate() {
+        return dayCount == 0 ? null : LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    /**
+     * @return the date of the last order or null if there are no orders
+     */
+    public LocalDate lastDate() {
+        return dayCount == 0 ? null : LocalDate.ofEpochDay(firstEpochDay + dayCount - 1);
+    }
+
+    /**
+     * count the orders in a date range
+     * @param from the first date (inclusive)
+     * @param to the last date (inclusive)
+     * @return the counts
+     */
+    public OrderCounts orderCounts(LocalDate from, LocalDate to) {
+        int start = row(from.toEpochDay());
+        int end = row(to.toEpochDay() + 1);
+
+        long total = 0;
+        var byStatus = new EnumMap<OrderStatus, Long>(OrderStatus.class);
+        var byReason = new EnumMap<InvalidOrderReasonCode, Long>(InvalidOrderReasonCode.class);
+        var byStatusAndReason = new EnumMap<OrderStatus, Map<InvalidOrderReasonCode, Long>>(OrderStatus.class);
+
+        for (var status : STATUSES) {
+            for (int reason = 0; reason < REASON_SLOTS; reason++) {
+                int cell = status.ordinal() * REASON_SLOTS + reason;
+                long count = rangeSum(statusReasonCounts, STATUS_REASON_CELLS, cell, start, end);
+                if (count == 0) {
+                    continue;
+                }
+                total += count;
+                byStatus.merge(status, count, Long::sum);
+                if (reason < REASONS.length) {
+                    byReason.merge(REASONS[reason], count, Long::sum);
+                    byStatusAndReason.computeIfAbsent(status, s -> new EnumMap<>(InvalidOrderReasonCode.class)).put(REASONS[reason], count);
+                }
+            }
+        }
+        return new OrderCounts(from, to, total, byStatus, byReason, byStatusAndReason);
+    }
+
+    /**
+     * count the orders per day in a date range
+     * @param from the first date (inclusive)
+     * @param to the last date (inclusive)
+     * @return the counts of every day with orders
+     */
+    public List<DailyOrderCounts> dailyOrderCounts(LocalDate from, LocalDate to) {
+        int start = row(from.toEpochDay());
+        int end = row(to.toEpochDay() + 1);
+
+        var result = new ArrayList<DailyOrderCounts>(Math.max(0, end - start));
+        for (int day = start; day < end; day++) {
+            long total = 0;
+            var byStatus = new EnumMap<OrderStatus, Long>(OrderStatus.class);
+            for (var status : STATUSES) {
+                long count = 0;
+                for (int reason = 0; reason < REASON_SLOTS; reason++) {
+                    count += rangeSum(statusReasonCounts, STATUS_REASON_CELLS, status.ordinal() * REASON_SLOTS + reason, day, day + 1);
+                }
+                if (count > 0) {
+                    byStatus.put(status, count);
+                    total += count;
+                }
+            }
+            if (total > 0) {
+                result.add(new DailyOrderCounts(LocalDate.ofEpochDay(firstEpochDay + day), total, byStatus));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * the orders and their totals per restaurant in a date range
+     * @param from the first date (inclusive)
+     * @param to the last date (inclusive)
+     * @return the revenue of every restaurant (in restaurant order)
+     */
+    public List<RestaurantRevenue> restaurantRevenue(LocalDate from, LocalDate to) {
+        int start = row(from.toEpochDay());
+        int end = row(to.toEpochDay() + 1);
+        int restaurantCount = menuIndex.restaurantCount();
+
+        var result = new ArrayList<RestaurantRevenue>(restaurantCount);
+        for (int i = 0; i < restaurantCount; i++) {
+            result.add(new RestaurantRevenue(menuIndex.restaurant(i).name(),
+                    rangeSum(restaurantOrders, restaurantCount, i, start, end),
+                    rangeSum(restaurantTotals, restaurantCount, i, start, end),
+                    rangeSum(restaurantValidOrders, restaurantCount, i, start, end),
+                    rangeSum(restaurantValidTotals, restaurantCount, i, start, end)));
+        }
+        return result;
+    }
+
+    /**
+     * how often each pizza was ordered in a date range
+     * @param from the first date (inclusive)
+     * @param to the last date (inclusive)
+     * @param limit the maximum number of pizzas to return
+     * @return the most ordered pizzas first (pizzas not ordered in the range are left out)
+     */
+    public List<PizzaPopularity> pizzaPopularity(LocalDate from, LocalDate to, int limit) {
+        int start = row(from.toEpochDay());
+        int end = row(to.toEpochDay() + 1);
+
+        var result = new ArrayList<PizzaPopularity>(pizzaNames.length);
+        for (int i = 0; i < pizzaNames.length; i++) {
+            long count = pizzaCounts[i][end] - pizzaCounts[i][start];
+            if (count > 0) {
+                result.add(new PizzaPopularity(pizzaNames[i], count));
+            }
+        }
+        result.sort(Comparator.comparingLong(PizzaPopularity::count).reversed().thenComparing(PizzaPopularity::pizza));
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * @param epochDay a day
+     * @return the prefix row of the day clamped to the days with orders
+     */
+    private int row(long epochDay) {
+        return (int) Math.max(0, Math.min(dayCount, epochDay - firstEpochDay));
+    }
+
+    private static long rangeSum(long[] prefix, int rowSize, int cell, int startRow, int endRow) {
+        return endRow <= startRow ? 0 : prefix[endRow * rowSize + cell] - prefix[startRow * rowSize + cell];
+    }
+
+    /**
+     * turn the per row counts into prefix sums
+     */
+    private static void accumulate(long[] table, int rowSize) {
+        for (int i = rowSize; i < table.length; i++) {
+            table[i] += table[i - rowSize];
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package uk.ac.ed.inf.ilpRestServer.analytics;
+
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * the number of orders in a date range (only non-zero counts are listed)
+ * @param from the first date (inclusive)
+ * @param to the last date (inclusive)
+ * @param total the number of orders
+ * @param byStatus the number of orders per status
+ * @param byReason the number of orders per invalid order reason code
+ * @param byStatusAndReason the number of orders per status and reason code
+ */
+public record OrderCounts(LocalDate from, LocalDate to, long total, Map<OrderStatus, Long> byStatus,
+                          Map<InvalidOrderReasonCode, Long> byReason,
+                          Map<OrderStatus, Map<InvalidOrderReasonCode, Long>> byStatusAndReason) {
+}
@@ -0,0 +1,9 @@
+package uk.ac.ed.inf.ilpRestServer.analytics;
+
+/**
+ * how often a pizza was ordered in a date range
+ * @param pizza the pizza name
+ * @param count the number of times the pizza is in an order
+ */
+public record PizzaPopularity(String pizza, long count) {
+}
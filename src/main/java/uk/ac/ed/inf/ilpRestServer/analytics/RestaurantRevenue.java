@@ -0,0 +1,12 @@
+package uk.ac.ed.inf.ilpRestServer.analytics;
+
+/**
+ * the orders of a restaurant in a date range. An order belongs to the restaurant of its first pizza
+ * @param restaurant the restaurant name
+ * @param orders the number of orders
+ * @param totalInPence the sum of the order totals
+ * @param validOrders the number of orders which are not INVALID
+ * @param validTotalInPence the sum of the order totals of the orders which are not INVALID
+ */
+public record RestaurantRevenue(String restaurant, long orders, long totalInPence, long validOrders, long validTotalInPence) {
+}
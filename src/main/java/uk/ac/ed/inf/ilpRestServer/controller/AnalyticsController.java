@@ -0,0 +1,108 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import uk.ac.ed.inf.ilpRestServer.analytics.AnalyticsService;
+import uk.ac.ed.inf.ilpRestServer.analytics.DailyOrderCounts;
+import uk.ac.ed.inf.ilpRestServer.analytics.OrderAnalytics;
+import uk.ac.ed.inf.ilpRestServer.analytics.OrderCounts;
+import uk.ac.ed.inf.ilpRestServer.analytics.PizzaPopularity;
+import uk.ac.ed.inf.ilpRestServer.analytics.RestaurantRevenue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * pre-aggregated order statistics. All endpoints take an optional date range (from / to in the format YYYY-MM-DD,
+ * both inclusive) - without it all orders are covered
+ */
+@RestController
+public class AnalyticsController {
+
+    /**
+     * the requested date range with the missing bounds set to the first / last order date
+     */
+    private record DateRange(LocalDate from, LocalDate to) {
+
+        static DateRange of(OrderAnalytics analytics, LocalDate from, LocalDate to) {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+            }
+            // without orders there is nothing to cover - any date gives empty results
+            var firstDate = analytics.firstDate() != null ? analytics.firstDate() : LocalDate.EPOCH;
+            var lastDate = analytics.lastDate() != null ? analytics.lastDate() : LocalDate.EPOCH;
+            return new DateRange(from != null ? from : firstDate, to != null ? to : lastDate);
+        }
+    }
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * the number of orders by status and invalid order reason code
+     * @param from optional first date
+     * @param to optional last date
+     * @return the counts
+     */
+    @GetMapping("/analytics/orders")
+    public OrderCounts orderCounts(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        var analytics = analyticsService.analytics();
+        var range = DateRange.of(analytics, from, to);
+        return analytics.orderCounts(range.from(), range.to());
+    }
+
+    /**
+     * the number of orders by status per day
+     * @param from optional first date
+     * @param to optional last date
+     * @return the counts of every day with orders
+     */
+    @GetMapping("/analytics/orders/daily")
+    public List<DailyOrderCounts> dailyOrderCounts(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        var analytics = analyticsService.analytics();
+        var range = DateRange.of(analytics, from, to);
+        return analytics.dailyOrderCounts(range.from(), range.to());
+    }
+
+    /**
+     * the number of orders and their totals per restaurant (an order belongs to the restaurant of its first pizza)
+     * @param from optional first date
+     * @param to optional last date
+     * @return the revenue per restaurant
+     */
+    @GetMapping("/analytics/revenue")
+    public List<RestaurantRevenue> restaurantRevenue(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        var analytics = analyticsService.analytics();
+        var range = DateRange.of(analytics, from, to);
+        return analytics.restaurantRevenue(range.from(), range.to());
+    }
+
+    /**
+     * the most ordered pizzas
+     * @param from optional first date
+     * @param to optional last date
+     * @param limit optional maximum number of pizzas (default 10)
+     * @return the pizzas with their order count, most ordered first
+     */
+    @GetMapping("/analytics/pizzas")
+    public List<PizzaPopularity> pizzaPopularity(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        var analytics = analyticsService.analytics();
+        var range = DateRange.of(analytics, from, to);
+        return analytics.pizzaPopularity(range.from(), range.to(), limit);
+    }
+}
@@ -1,22 +1,33 @@
 package uk.ac.ed.inf.ilpRestServer.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.servlet.error.ErrorController;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import static jakarta.servlet.RequestDispatcher.ERROR_EXCEPTION;
+import static jakarta.servlet.RequestDispatcher.ERROR_STATUS_CODE;
 import static jakarta.servlet.RequestDispatcher.FORWARD_REQUEST_URI;
 
 /**
  * handle global errors with a project specific better message
  */
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ErrorHandler implements ErrorController {
 
+    private final IlpMetrics metrics;
+
+    public ErrorHandler(IlpMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Retrieve some critical error information and display it accordingly
      *
@@ -28,8 +39,9 @@ public class ErrorHandler implements ErrorController {
     @ResponseBody
     public String handleError(HttpServletRequest request) {
         String errorUrl = (String) request.getAttribute(FORWARD_REQUEST_URI);
-        Integer statusCode = (Integer) request.getAttribute("javax.servlet.error.status_code");
-        Exception exception = (Exception) request.getAttribute("javax.servlet.error.exception");
+        Integer statusCode = (Integer) request.getAttribute(ERROR_STATUS_CODE);
+        Throwable exception = (Throwable) request.getAttribute(ERROR_EXCEPTION);
+        metrics.countError(statusCode);
         return String.format("<html><body><h1>ILP-REST-Server - Error Page</h1><div>Status code: <b>%s</b></div>"
                         + "<div>Exception Message: <b>%s</b></div> "
                         + "<div>Original URL: <b>%s</b></div> "
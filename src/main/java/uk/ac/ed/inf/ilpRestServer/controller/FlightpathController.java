@@ -0,0 +1,94 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+import uk.ac.ed.inf.ilpRestServer.geo.FlightpathVerifier;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * verification of drone flightpaths against the no-fly-zones and the central area rule
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class FlightpathController {
+
+    /**
+     * the final line of a verification response
+     * @param type always SUMMARY
+     * @param moves the number of moves checked
+     * @param violations the number of violations found
+     */
+    record VerificationSummary(String type, long moves, long violations) {
+    }
+
+    /**
+     * reported if the flightpath could not be read completely
+     * @param type always ERROR
+     * @param message what went wrong
+     */
+    record VerificationError(String type, String message) {
+    }
+
+    private final IlpDataProvider dataProvider;
+
+    public FlightpathController(IlpDataProvider dataProvider) {
+        this.dataProvider = dataProvider;
+    }
+
+    /**
+     * verify a flightpath. The request body is read as a stream and every violation is written (as one NDJSON line)
+     * as soon as it is found, followed by a summary line
+     * @param request the request with the flightpath (JSON array of moves or points) as body
+     * @param response the NDJSON response
+     * @throws IOException if the response cannot be written
+     */
+    @PostMapping("/flightpath/verify")
+    public void verifyFlightpath(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var regionIndex = dataProvider.current().referenceData().regionIndex();
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        var writer = response.getWriter();
+
+        var verifier = new FlightpathVerifier(regionIndex, violation -> writeLine(writer, violation));
+        try (var reader = new JsonReader(new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)))) {
+            verifier.verify(reader);
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            if (response.isCommitted() == false && verifier.violationCount() == 0) {
+                response.reset();
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "invalid flightpath: " + e.getMessage());
+                return;
+            }
+            writeLine(writer, new VerificationError("ERROR", e.getMessage()));
+        }
+
+        writeLine(writer, new VerificationSummary("SUMMARY", verifier.moveCount(), verifier.violationCount()));
+    }
+
+    /**
+     * write one NDJSON line and flush it, so the client sees it immediately
+     */
+    private static void writeLine(Writer writer, Object line) {
+        try {
+            IlpJson.GSON.toJson(line, writer);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import uk.ac.ed.inf.ilpRestServer.geo.GeoJsonLayers;
+import uk.ac.ed.inf.ilpRestServer.geo.GeoJsonService;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * the reference data as GeoJSON, generated from the currently loaded data
+ */
+@RestController
+public class GeoJsonController {
+
+    private final GeoJsonService geoJsonService;
+
+    public GeoJsonController(GeoJsonService geoJsonService) {
+        this.geoJsonService = geoJsonService;
+    }
+
+    /**
+     * get the features of some layers as a FeatureCollection
+     * @param layers the layers (deliveryBase, centralArea, noFlyZones, restaurants, convexHull, boundingBox) - if
+     *               not set, all but the convex hull and the bounding box
+     * @param bbox optional minLng,minLat,maxLng,maxLat - only features overlapping it are returned
+     * @param precision optional number of decimal places of the coordinates (0 - 15)
+     * @param ifNoneMatch the ETag the client has
+     * @param acceptEncoding the encodings the client accepts
+     * @return the FeatureCollection (or 304 if not modified)
+     */
+    @GetMapping("/geojson")
+    public ResponseEntity<byte[]> geoJson(@RequestParam(required = false) List<String> layers,
+                                          @RequestParam(required = false) List<Double> bbox,
+                                          @RequestParam(required = false) Integer precision,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Set<String> selectedLayers = GeoJsonLayers.DEFAULT_LAYERS;
+        if (layers != null && layers.isEmpty() == false) {
+            selectedLayers = new HashSet<>(layers);
+            for (var layer : selectedLayers) {
+                if (GeoJsonLayers.LAYERS.contains(layer) == false) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown layer: " + layer);
+                }
+            }
+        }
+
+        double[] box = null;
+        if (bbox != null) {
+            if (bbox.size() != 4 || bbox.stream().anyMatch(value -> value == null || Double.isFinite(value) == false)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox must be minLng,minLat,maxLng,maxLat");
+            }
+            box = bbox.stream().mapToDouble(Double::doubleValue).toArray();
+            if (box[0] > box[2] || box[1] > box[3]) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox minimum must not be greater than its maximum");
+            }
+        }
+
+        if (precision != null && (precision < 0 || precision > GeoJsonLayers.MAX_PRECISION)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "precision must be between 0 and " + GeoJsonLayers.MAX_PRECISION);
+        }
+
+        return geoJsonService.layers()
+                .featureCollection(selectedLayers, box, precision == null ? -1 : precision)
+                .toResponse(ifNoneMatch, acceptEncoding);
+    }
+}
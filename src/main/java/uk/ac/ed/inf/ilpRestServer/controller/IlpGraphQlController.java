@@ -0,0 +1,201 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import graphql.GraphQLError;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Controller;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.MenuIndex;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * GraphQL access to the orders and the reference data (schema in resources/graphql/schema.graphqls).
+ * The restaurant of orders and pizzas is resolved with batch mappings, so a query over n orders does a single
+ * lookup pass instead of one per order
+ */
+@Controller
+public class IlpGraphQlController {
+
+    /**
+     * the number of orders returned if the query has no limit
+     */
+    public static final int DEFAULT_ORDER_LIMIT = 1_000;
+
+    /**
+     * the highest limit a query may ask for
+     */
+    public static final int MAX_ORDER_LIMIT = 10_000;
+
+    private final IlpDataProvider dataProvider;
+
+    public IlpGraphQlController(IlpDataProvider dataProvider) {
+        this.dataProvider = dataProvider;
+    }
+
+    /**
+     * the orders (with outcome) matching all given filters
+     * @param from optional first date (inclusive)
+     * @param to optional last date (inclusive)
+     * @param status optional order status
+     * @param restaurant optional restaurant name (matched against the restaurant of the first pizza)
+     * @param limit optional maximum number of orders ({@link #DEFAULT_ORDER_LIMIT} if not given, at most
+     *              {@link #MAX_ORDER_LIMIT})
+     * @return the orders sorted by date
+     */
+    @QueryMapping
+    public List<Order> orders(@Argument String from, @Argument String to, @Argument String status,
+                              @Argument String restaurant, @Argument Integer limit) {
+        if (limit != null && (limit < 0 || limit > MAX_ORDER_LIMIT)) {
+            throw new IllegalArgumentException("limit must be between 0 and " + MAX_ORDER_LIMIT);
+        }
+        int maxOrders = limit == null ? DEFAULT_ORDER_LIMIT : limit;
+        var snapshot = dataProvider.current();
+        var orderStore = snapshot.orders();
+        var menuIndex = snapshot.referenceData().menuIndex();
+
+        List<Order> orders;
+        if (from == null && to == null) {
+            orders = orderStore.all(false);
+        } else {
+            orders = orderStore.byDateRange(from == null ? LocalDate.MIN : parseDate(from), to == null ? LocalDate.MAX : parseDate(to), false);
+        }
+
+        var orderStatus = status == null ? null : parseStatus(status);
+        int restaurantIndex = restaurant == null ? -1 : restaurantIndex(menuIndex, restaurant);
+        if (restaurant != null && restaurantIndex < 0) {
+            return List.of();
+        }
+
+        var stream = orders.stream();
+        if (orderStatus != null) {
+            stream = stream.filter(order -> order.getOrderStatus() == orderStatus);
+        }
+        if (restaurantIndex >= 0) {
+            stream = stream.filter(order -> restaurantOf(menuIndex, order) == restaurantIndex);
+        }
+        return stream.limit(maxOrders).toList();
+    }
+
+    /**
+     * @param orderNo the order number
+     * @return the order or null if there is no such order
+     */
+    @QueryMapping
+    public Order order(@Argument String orderNo) {
+        return dataProvider.current().orders().byOrderNo(orderNo);
+    }
+
+    @QueryMapping
+    public Restaurant[] restaurants() {
+        return dataProvider.current().referenceData().restaurants();
+    }
+
+    /**
+     * @param name the restaurant name
+     * @return the restaurant or null if there is no such restaurant
+     */
+    @QueryMapping
+    public Restaurant restaurant(@Argument String name) {
+        var menuIndex = dataProvider.current().referenceData().menuIndex();
+        int index = restaurantIndex(menuIndex, name);
+        return index < 0 ? null : menuIndex.restaurant(index);
+    }
+
+    @QueryMapping
+    public NamedRegion centralArea() {
+        return dataProvider.current().referenceData().centralArea();
+    }
+
+    @QueryMapping
+    public NamedRegion[] noFlyZones() {
+        return dataProvider.current().referenceData().noFlyZones();
+    }
+
+    /**
+     * resolve the restaurants of all orders in a query at once
+     * @param orders the orders selected by the query
+     * @return the restaurant per order (orders without a known pizza are left out)
+     */
+    @BatchMapping(typeName = "Order", field = "restaurant")
+    public Map<Order, Restaurant> orderRestaurant(List<Order> orders) {
+        var menuIndex = dataProvider.current().referenceData().menuIndex();
+        return resolve(orders, order -> restaurantOf(menuIndex, order), menuIndex);
+    }
+
+    /**
+     * resolve the restaurants of all pizzas in a query at once
+     * @param pizzas the pizzas selected by the query
+     * @return the restaurant per pizza (pizzas on no menu are left out)
+     */
+    @BatchMapping(typeName = "Pizza", field = "restaurant")
+    public Map<Pizza, Restaurant> pizzaRestaurant(List<Pizza> pizzas) {
+        var menuIndex = dataProvider.current().referenceData().menuIndex();
+        return resolve(pizzas, pizza -> menuIndex.restaurantOf(pizza.name()), menuIndex);
+    }
+
+    /**
+     * report invalid arguments as a client error instead of an internal one
+     * @param e the exception
+     * @return the error
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handleInvalidArgument(IllegalArgumentException e) {
+        return GraphQLError.newError().errorType(ErrorType.BAD_REQUEST).message(e.getMessage()).build();
+    }
+
+    private static <T> Map<T, Restaurant> resolve(List<T> keys, Function<T, Integer> restaurantIndex, MenuIndex menuIndex) {
+        var result = new HashMap<T, Restaurant>(Math.max(16, keys.size() * 4 / 3 + 1));
+        for (var key : keys) {
+            int index = restaurantIndex.apply(key);
+            if (index >= 0) {
+                result.put(key, menuIndex.restaurant(index));
+            }
+        }
+        return result;
+    }
+
+    private static int restaurantOf(MenuIndex menuIndex, Order order) {
+        var pizzas = order.getPizzasInOrder();
+        return pizzas == null || pizzas.length == 0 ? -1 : menuIndex.restaurantOf(pizzas[0].name());
+    }
+
+    private static int restaurantIndex(MenuIndex menuIndex, String name) {
+        for (int i = 0; i < menuIndex.restaurantCount(); i++) {
+            if (menuIndex.restaurant(i).name().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid date: " + date);
+        }
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid order status: " + status + " (one of " + Arrays.toString(OrderStatus.values()) + ")");
+        }
+    }
+}
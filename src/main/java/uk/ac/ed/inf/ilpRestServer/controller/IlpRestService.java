@@ -1,87 +1,188 @@
 package uk.ac.ed.inf.ilpRestServer.controller;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.ac.ed.inf.ilp.constant.OrderStatus;
-import uk.ac.ed.inf.ilp.data.NamedRegion;
 import uk.ac.ed.inf.ilp.data.Order;
-import uk.ac.ed.inf.ilp.data.Restaurant;
 import uk.ac.ed.inf.ilp.data.TestItem;
-import uk.ac.ed.inf.ilp.gsonUtils.LocalDateDeserializer;
-import uk.ac.ed.inf.ilp.gsonUtils.LocalDateSerializer;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataSnapshot;
+import uk.ac.ed.inf.ilpRestServer.data.OrderJsonWriter;
+import uk.ac.ed.inf.ilpRestServer.data.OrderPage;
+import uk.ac.ed.inf.ilpRestServer.data.OrderResponseCache;
+import uk.ac.ed.inf.ilpRestServer.data.PreRenderedJson;
+import uk.ac.ed.inf.ilpRestServer.metrics.CountingOutputStream;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
- * the global ILP service which provides suppliers, orders and other useful things
+ * the global ILP service which provides suppliers, orders and other useful things.
+ * In the reactive mode the same routes are served by {@link uk.ac.ed.inf.ilpRestServer.reactive.ReactiveIlpHandler}
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class IlpRestService {
+
+    private final IlpDataProvider dataProvider;
+    private final OrderResponseCache orderResponseCache;
+    private final IlpMetrics metrics;
+
+    public IlpRestService(IlpDataProvider dataProvider, OrderResponseCache orderResponseCache, IlpMetrics metrics) {
+        this.dataProvider = dataProvider;
+        this.orderResponseCache = orderResponseCache;
+        this.metrics = metrics;
+    }
+
     /**
-     * load the orders from the JSON file and return the deserialized version
-     * @return an array of orders from the file
+     * name of the response header containing the cursor for the next page
      */
-    private Order[] getOrders(){
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(LocalDate.class, new LocalDateSerializer());
-        gsonBuilder.registerTypeAdapter(LocalDate.class, new LocalDateDeserializer());
-        Gson gson = gsonBuilder.setPrettyPrinting().create();
-        return gson.fromJson(new BufferedReader(new InputStreamReader(Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("json/orders.json")))), Order[].class);
-    }
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     /**
-     * returns sample orders (some of them invalid) from a template JSON file. The order outcome is removed and UNDEFINED preset
+     * returns sample orders (some of them invalid) from a template JSON file. The order outcome is removed and UNDEFINED preset.
+     * The orders are streamed to the client, optionally paginated and as NDJSON if requested by the Accept header.
+     * The complete orders of a day are served from the response cache
      *
      * @param orderDate optional date in the format YYYY-MM-DD to find orders matching just the date
-     * @return an array of orders
+     * @param cursor optional cursor returned in the X-Next-Cursor header of the previous page
+     * @param limit optional maximum number of orders to return
+     * @param accept the Accept header (application/x-ndjson selects NDJSON output)
+     * @return the streamed orders
      */
     @GetMapping(value = {"/orders/{orderDate}", "/orders"})
-    public Order[] orders(@PathVariable(required = false) String orderDate) {
-        List<Order> result = new ArrayList<>();
-
-        var orders = getOrders();
-        if (orderDate != null){
-            result.addAll(Arrays.stream(orders).filter(o -> o.getOrderDate().equals(orderDate)).toList());
-        } else {
-            result.addAll(Arrays.stream(orders).toList());
+    public ResponseEntity<StreamingResponseBody> orders(@PathVariable(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate orderDate,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var snapshot = dataProvider.current();
+        if (orderDate != null && cursor == null && limit == null) {
+            return cachedOrders("orders", snapshot, orderDate, true, accept);
         }
-
-        result.forEach(o -> o.setOrderStatus(OrderStatus.UNDEFINED));
-        return result.toArray(new Order[0]);
+        var orderStore = snapshot.orders();
+        var orders = orderDate != null ? orderStore.byDate(orderDate, true) : orderStore.all(true);
+        return streamOrders("orders", orders, cursor, limit, accept);
     }
 
 
     /**
-     * returns sample orders (some of them invalid) from a template JSON file without removal of information
+     * returns sample orders (some of them invalid) from a template JSON file without removal of information.
+     * The orders are streamed to the client, optionally paginated and as NDJSON if requested by the Accept header.
+     * The complete orders of a day are served from the response cache
      *
      * @param orderDate optional date in the format YYYY-MM-DD to find orders matching just the date
-     * @return an array of orders
+     * @param cursor optional cursor returned in the X-Next-Cursor header of the previous page
+     * @param limit optional maximum number of orders to return
+     * @param accept the Accept header (application/x-ndjson selects NDJSON output)
+     * @return the streamed orders
      */
     @GetMapping(value = {"/ordersWithOutcome/{orderDate}", "/ordersWithOutcome"})
-    public Order[] ordersWithOutcome(@PathVariable(required = false) String orderDate) {
-        List<Order> result;
-
-        var orders = getOrders();
-        if (orderDate != null){
-            var compDate = LocalDate.parse(orderDate);
-            result = new ArrayList<>(Arrays.stream(orders).filter(o -> o.getOrderDate().equals(compDate)).toList());
-        } else {
-            result = new ArrayList<>(List.of(orders));
+    public ResponseEntity<StreamingResponseBody> ordersWithOutcome(@PathVariable(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate orderDate,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var snapshot = dataProvider.current();
+        if (orderDate != null && cursor == null && limit == null) {
+            return cachedOrders("ordersWithOutcome", snapshot, orderDate, false, accept);
         }
-        return result.toArray(new Order[0]);
+        var orderStore = snapshot.orders();
+        var orders = orderDate != null ? orderStore.byDate(orderDate, false) : orderStore.all(false);
+        return streamOrders("ordersWithOutcome", orders, cursor, limit, accept);
     }
 
+    /**
+     * select the requested page of orders and stream it
+     * @param endpoint the endpoint name for the metrics
+     * @param orders all orders matching the request
+     * @param cursor the optional cursor
+     * @param limit the optional page size
+     * @param accept the Accept header
+     * @return the streamed response with the X-Next-Cursor header set if there are more orders
+     */
+    private ResponseEntity<StreamingResponseBody> streamOrders(String endpoint, List<Order> orders, String cursor, Integer limit, String accept) {
+        var orderPage = OrderPage.of(orders, cursor, limit);
+        var page = orderPage.orders();
+        boolean ndjson = acceptsNdjson(accept);
+
+        var builder = ResponseEntity.ok().contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON);
+        if (orderPage.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, orderPage.nextCursor());
+        }
+        return builder.body(out -> {
+            long startTime = System.nanoTime();
+            var countingOut = new CountingOutputStream(out);
+            if (ndjson) {
+                OrderJsonWriter.writeNdjson(page, countingOut);
+            } else {
+                OrderJsonWriter.writeJsonArray(page, countingOut);
+            }
+            metrics.serializationTimer(endpoint).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            metrics.recordResponseSize(endpoint, countingOut.count());
+        });
+    }
+
+
+    /**
+     * send all orders of a day from the response cache (rendered on a miss)
+     * @param endpoint the endpoint name for the metrics
+     * @param snapshot the data to take the orders from
+     * @param orderDate the order date
+     * @param masked true for the orders without outcome
+     * @param accept the Accept header
+     * @return the response with the cached body
+     */
+    private ResponseEntity<StreamingResponseBody> cachedOrders(String endpoint, IlpDataSnapshot snapshot, LocalDate orderDate,
+                                                               boolean masked, String accept) {
+        boolean ndjson = acceptsNdjson(accept);
+        var body = orderResponseCache.get(snapshot.version(), masked, ndjson, orderDate, () -> {
+            long startTime = System.nanoTime();
+            var orders = snapshot.orders().byDate(orderDate, masked);
+            var out = new ByteArrayOutputStream(orders.size() * 256 + 2);
+            try {
+                if (ndjson) {
+                    OrderJsonWriter.writeNdjson(orders, out);
+                } else {
+                    OrderJsonWriter.writeJsonArray(orders, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            metrics.serializationTimer(endpoint).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            return out.toByteArray();
+        });
+        metrics.recordResponseSize(endpoint, body.length);
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(out -> out.write(body));
+    }
+
+
+    /**
+     * check if the client asked for NDJSON
+     * @param accept the Accept header (can be null)
+     * @return true if application/x-ndjson is acceptable
+     */
+    private static boolean acceptsNdjson(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.APPLICATION_NDJSON::includes);
+    }
 
 
     /**
@@ -91,11 +192,12 @@ public class IlpRestService {
      */
     @GetMapping("/orders/{orderNo}/details")
     public Order orderDetails(@PathVariable String orderNo){
-        var currentOrder = Arrays.stream(getOrders()).filter(o -> o.getOrderNo().equals(orderNo)).findFirst();
-        if (currentOrder.isPresent() == false){
+        var currentOrder = dataProvider.current().orders().byOrderNo(orderNo);
+        if (currentOrder == null){
+            metrics.countNotFound("orderDetails");
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "order not found");
         }
-        return currentOrder.get();
+        return currentOrder;
     }
 
 
@@ -107,8 +209,9 @@ public class IlpRestService {
      */
     @GetMapping("/orders/{orderNo}/isOrderOutcomeValid/{statusToCheck}")
     public Boolean isOrderOutcomeValid(@PathVariable String orderNo, @PathVariable OrderStatus statusToCheck){
-        var currentOrder = Arrays.stream(getOrders()).filter(o -> o.getOrderNo().equals(orderNo)).findFirst();
-        return currentOrder.filter(orderWithOutcome -> orderWithOutcome.getOrderStatus() == statusToCheck).isPresent();
+        var orderStore = dataProvider.current().orders();
+        var index = orderStore.indexOf(orderNo);
+        return index >= 0 && orderStore.orderStatus(index) == statusToCheck;
     }
 
     /**
@@ -118,42 +221,67 @@ public class IlpRestService {
      */
     @GetMapping("/orders/{orderNo}/status")
     public OrderStatus orderOutcome(@PathVariable String orderNo){
-        var currentOrder = Arrays.stream(getOrders()).filter(o -> o.getOrderNo().equals(orderNo)).findFirst();
-        if (currentOrder.isPresent() == false){
+        var orderStore = dataProvider.current().orders();
+        var index = orderStore.indexOf(orderNo);
+        if (index < 0){
+            metrics.countNotFound("orderOutcome");
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "order not found");
         }
-        return currentOrder.get().getOrderStatus();
+        return orderStore.orderStatus(index);
     }
 
 
     /**
-     * returns the restaurants in the system
+     * returns the restaurants in the system. The response is pre-rendered and supports If-None-Match and gzip
      *
-     * @return array of suppliers
+     * @param ifNoneMatch optional ETag(s) the client already has
+     * @param acceptEncoding optional accepted encodings of the client
+     * @return array of suppliers (or 304 if not modified)
      */
     @GetMapping("/restaurants")
-    public Restaurant[] restaurants() {
-        return new Gson().fromJson(new BufferedReader(new InputStreamReader(Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("json/restaurants.json")))), Restaurant[].class);
+    public ResponseEntity<byte[]> restaurants(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return referenceResponse("restaurants", dataProvider.current().referenceData().restaurantsJson(), ifNoneMatch, acceptEncoding);
     }
 
 
     /**
      * get the central area as a named region
-     * @return the named region for the central area
+     * @param ifNoneMatch optional ETag(s) the client already has
+     * @param acceptEncoding optional accepted encodings of the client
+     * @return the named region for the central area (or 304 if not modified)
      */
     @GetMapping(value = {"/centralArea", "/centralarea"})
-    public NamedRegion centralArea() {
-        return new Gson().fromJson(new BufferedReader(new InputStreamReader(Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("json/centralarea.json")))), NamedRegion.class);
+    public ResponseEntity<byte[]> centralArea(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return referenceResponse("centralArea", dataProvider.current().referenceData().centralAreaJson(), ifNoneMatch, acceptEncoding);
     }
 
     /**
      * get the defined no-fly-zones as named regions
-     * @return a vector of named regions
+     * @param ifNoneMatch optional ETag(s) the client already has
+     * @param acceptEncoding optional accepted encodings of the client
+     * @return a vector of named regions (or 304 if not modified)
      */
     @GetMapping(value = {"/noFlyZones", "/noflyzones"})
-    public NamedRegion[] noFlyZones() {
-        return new Gson().fromJson(new BufferedReader(new InputStreamReader(Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("json/noflyzones.json")))), NamedRegion[].class);
+    public ResponseEntity<byte[]> noFlyZones(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return referenceResponse("noFlyZones", dataProvider.current().referenceData().noFlyZonesJson(), ifNoneMatch, acceptEncoding);
+    }
 
+    /**
+     * build the response for pre-rendered reference data and record the metrics
+     * @param endpoint the endpoint name for the metrics
+     * @param json the pre-rendered data
+     * @param ifNoneMatch the If-None-Match header
+     * @param acceptEncoding the Accept-Encoding header
+     * @return the response
+     */
+    private ResponseEntity<byte[]> referenceResponse(String endpoint, PreRenderedJson json, String ifNoneMatch, String acceptEncoding) {
+        var response = json.toResponse(ifNoneMatch, acceptEncoding);
+        metrics.countCacheAccess("etag", HttpStatus.NOT_MODIFIED.equals(response.getStatusCode()));
+        metrics.recordResponseSize(endpoint, response.getBody() == null ? 0 : response.getBody().length);
+        return response;
     }
 
     /**
@@ -0,0 +1,32 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.validation.OrderValidationResult;
+import uk.ac.ed.inf.ilpRestServer.validation.OrderValidator;
+
+/**
+ * server side validation of orders
+ */
+@RestController
+public class OrderValidationController {
+
+    private final IlpDataProvider dataProvider;
+
+    public OrderValidationController(IlpDataProvider dataProvider) {
+        this.dataProvider = dataProvider;
+    }
+
+    /**
+     * validate a batch of orders in one call
+     * @param orders the orders to validate
+     * @return for each order (in the same sequence) the status and reason code
+     */
+    @PostMapping("/validateOrders")
+    public OrderValidationResult[] validateOrders(@RequestBody Order[] orders) {
+        return new OrderValidator(dataProvider.current().referenceData().menuIndex()).validate(orders);
+    }
+}
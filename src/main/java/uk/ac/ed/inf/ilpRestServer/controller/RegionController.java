@@ -0,0 +1,48 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.geo.RegionLookupResult;
+
+/**
+ * server side geometry checks against the central area and the no-fly-zones
+ */
+@RestController
+public class RegionController {
+
+    private final IlpDataProvider dataProvider;
+
+    public RegionController(IlpDataProvider dataProvider) {
+        this.dataProvider = dataProvider;
+    }
+
+    /**
+     * check for a batch of points if they are in the central area and in which no-fly-zone they are
+     * @param points the points to check
+     * @return the lookup result with one entry per point
+     */
+    @PostMapping("/regions/locate")
+    public RegionLookupResult locate(@RequestBody LngLat[] points) {
+        var regionIndex = dataProvider.current().referenceData().regionIndex();
+
+        var lng = new double[points.length];
+        var lat = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            lng[i] = points[i].lng();
+            lat[i] = points[i].lat();
+        }
+
+        var inCentralArea = new boolean[points.length];
+        var noFlyZone = new int[points.length];
+        regionIndex.locate(lng, lat, inCentralArea, noFlyZone);
+
+        var zoneNames = new String[regionIndex.noFlyZoneCount()];
+        for (int i = 0; i < zoneNames.length; i++) {
+            zoneNames[i] = regionIndex.noFlyZoneName(i);
+        }
+        return new RegionLookupResult(inCentralArea, noFlyZone, zoneNames);
+    }
+}
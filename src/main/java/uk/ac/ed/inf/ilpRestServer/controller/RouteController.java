@@ -0,0 +1,53 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import uk.ac.ed.inf.ilpRestServer.routing.PlannedRoute;
+import uk.ac.ed.inf.ilpRestServer.routing.RouteService;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * the precomputed drone routes from the restaurants to the delivery base
+ */
+@RestController
+public class RouteController {
+
+    private final RouteService routeService;
+
+    public RouteController(RouteService routeService) {
+        this.routeService = routeService;
+    }
+
+    /**
+     * get the routes of all restaurants
+     * @return the routes (restaurants without a possible route are left out)
+     */
+    @GetMapping("/routes")
+    public List<PlannedRoute> routes() {
+        return routeService.routes().values().stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * get the route from one restaurant to the delivery base
+     * @param restaurant the name of the restaurant
+     * @return the route or HTTP 404 if there is no such restaurant or no route
+     */
+    @GetMapping("/routes/{restaurant}")
+    public PlannedRoute route(@PathVariable String restaurant) {
+        var route = routeService.routes().get(restaurant);
+        var result = route == null ? null : route.join();
+        if (result == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "no route for restaurant");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+import uk.ac.ed.inf.ilpRestServer.submission.SubmissionAnalysisService;
+import uk.ac.ed.inf.ilpRestServer.submission.SubmissionEvents;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+
+/**
+ * the upload for the submission analyzer. The parts of a submission are checked in the background and the results
+ * are sent back as server-sent events while the files are read
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SubmissionController {
+
+    /**
+     * the date in the file names of a submission (e.g. deliveries-2023-09-01.json)
+     */
+    private static final Pattern FILE_NAME_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
+    private final SubmissionAnalysisService analysisService;
+
+    public SubmissionController(SubmissionAnalysisService analysisService) {
+        this.analysisService = analysisService;
+    }
+
+    /**
+     * analyze a submission. Any of the parts can be left out. The response is an event stream with
+     * "progress" events, one event per problem named after its part (deliveries, flightpath, drone) and a final
+     * "summary" event
+     * @param date optional day of the submission (YYYY-MM-DD) - taken from the file names if missing
+     * @param deliveries the deliveries JSON
+     * @param flightpath the flightpath JSON
+     * @param drone the drone GeoJSON
+     * @return the event stream
+     */
+    @PostMapping(value = "/submission/analyze", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyze(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                              @RequestPart(required = false) MultipartFile deliveries,
+                              @RequestPart(required = false) MultipartFile flightpath,
+                              @RequestPart(required = false) MultipartFile drone) {
+        if (isMissing(deliveries) && isMissing(flightpath) && isMissing(drone)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "no deliveries, flightpath or drone file submitted");
+        }
+        if (date == null) {
+            date = dateOf(deliveries, flightpath, drone);
+        }
+
+        var emitter = new SseEmitter();
+        var events = new EmitterEvents(emitter);
+        emitter.onCompletion(events::cancel);
+        emitter.onTimeout(events::cancel);
+        emitter.onError(e -> events.cancel());
+
+        // the parts are opened here, while the uploaded files are certainly still there
+        var parts = open(deliveries, flightpath, drone);
+        try {
+            analysisService.analyze(date, parts[0], parts[1], parts[2], events)
+                    .whenComplete((summary, failure) -> {
+                        if (failure == null || failure instanceof CancellationException || failure.getCause() instanceof CancellationException) {
+                            emitter.complete();
+                        } else {
+                            emitter.completeWithError(failure);
+                        }
+                    });
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        return emitter;
+    }
+
+    private static boolean isMissing(MultipartFile file) {
+        return file == null || file.isEmpty();
+    }
+
+    /**
+     * open the parts - if one cannot be opened, the ones already opened are closed again
+     */
+    private static SubmissionAnalysisService.Part[] open(MultipartFile... files) {
+        var parts = new SubmissionAnalysisService.Part[files.length];
+        try {
+            for (int i = 0; i < files.length; i++) {
+                parts[i] = part(files[i]);
+            }
+            return parts;
+        } catch (RuntimeException e) {
+            SubmissionAnalysisService.close(parts);
+            throw e;
+        }
+    }
+
+    private static SubmissionAnalysisService.Part part(MultipartFile file) {
+        if (isMissing(file)) {
+            return null;
+        }
+        try {
+            return new SubmissionAnalysisService.Part(file.getInputStream(), file.getSize());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cannot read " + file.getName(), e);
+        }
+    }
+
+    private static LocalDate dateOf(MultipartFile... files) {
+        for (var file : files) {
+            if (isMissing(file) || file.getOriginalFilename() == null) {
+                continue;
+            }
+            var matcher = FILE_NAME_DATE.matcher(file.getOriginalFilename());
+            if (matcher.find()) {
+                try {
+                    return LocalDate.parse(matcher.group());
+                } catch (DateTimeException e) {
+                    // not a date after all - try the next file
+                }
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "the date is neither given nor part of the file names");
+    }
+
+    /**
+     * sends the events of an analysis with the emitter. A failed send means the client is gone, which cancels the analysis
+     */
+    private static final class EmitterEvents implements SubmissionEvents {
+
+        private final SseEmitter emitter;
+        private volatile boolean cancelled;
+
+        EmitterEvents(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public void send(String name, Object data) {
+            if (cancelled) {
+                throw new CancellationException("the client is gone");
+            }
+            try {
+                emitter.send(SseEmitter.event().name(name).data(IlpJson.GSON.toJson(data)));
+            } catch (IOException | IllegalStateException e) {
+                cancelled = true;
+                throw new CancellationException("the client is gone");
+            }
+        }
+
+        @Override
+        public boolean cancelled() {
+            return cancelled;
+        }
+    }
+}
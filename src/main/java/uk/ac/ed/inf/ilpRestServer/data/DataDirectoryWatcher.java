@@ -0,0 +1,89 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * watches the external data directory and reloads the data when a file changes.
+ * Changes are debounced, so copying several files results in a single reload.
+ * Nothing depends on the watcher, so it is created eagerly even with lazy initialization (the fast profile)
+ */
+@Component
+@Lazy(false)
+// not for an empty ilp.data.directory= (which @ConditionalOnProperty would accept)
+@ConditionalOnExpression("!'${ilp.data.directory:}'.isBlank()")
+public class DataDirectoryWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataDirectoryWatcher.class);
+
+    /**
+     * how long the directory has to be quiet before a reload starts
+     */
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final IlpDataProvider dataProvider;
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public DataDirectoryWatcher(IlpDataProvider dataProvider) {
+        this.dataProvider = dataProvider;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        var directory = dataProvider.dataDirectory();
+        if (directory == null) {
+            logger.warn("no data directory to watch");
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        watcherThread = new Thread(this::watch, "ilp-data-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("watching {} for data changes", directory);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                var key = watchService.take();
+                key.pollEvents();
+                key.reset();
+
+                // wait until no more events arrive for the debounce period
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+
+                dataProvider.reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            logger.info("stopped watching for data changes");
+        }
+    }
+}
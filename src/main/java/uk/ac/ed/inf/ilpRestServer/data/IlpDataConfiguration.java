@@ -0,0 +1,62 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * makes the ILP data available as beans. Everything is loaded once at startup and then only on changes
+ * in the external data directory (if configured)
+ */
+@Configuration
+public class IlpDataConfiguration {
+
+    /**
+     * the provider of the current data snapshot
+     * @param dataDirectory optional directory with data files overriding the classpath resources (ilp.data.directory)
+     * @param ordersSnapshot optional binary order snapshot to memory-map instead of the JSON orders (ilp.data.orders-snapshot)
+     * @param virtualOrders if true the orders are generated on demand instead of loaded (ilp.data.virtual-orders.enabled)
+     * @param environment the environment with the other ilp.data.virtual-orders settings
+     * @param metrics the application metrics
+     * @return the data provider
+     */
+    @Bean
+    public IlpDataProvider ilpDataProvider(@Value("${ilp.data.directory:}") String dataDirectory,
+                                           @Value("${ilp.data.orders-snapshot:}") String ordersSnapshot,
+                                           @Value("${ilp.data.virtual-orders.enabled:false}") boolean virtualOrders,
+                                           Environment environment, IlpMetrics metrics) {
+        return new IlpDataProvider(dataDirectory.isBlank() ? null : Path.of(dataDirectory),
+                ordersSnapshot.isBlank() ? null : Path.of(ordersSnapshot),
+                virtualOrders ? virtualOrderSettings(environment) : null, metrics);
+    }
+
+    /**
+     * the cache of the rendered order responses of single days
+     * @param dataProvider the data provider
+     * @param maxSize the maximum total size of the cached responses (ilp.cache.order-responses.max-size)
+     * @param metrics the application metrics
+     * @return the cache
+     */
+    @Bean
+    public OrderResponseCache orderResponseCache(IlpDataProvider dataProvider,
+                                                 @Value("${ilp.cache.order-responses.max-size:64MB}") DataSize maxSize,
+                                                 IlpMetrics metrics) {
+        return new OrderResponseCache(dataProvider, maxSize.toBytes(), metrics);
+    }
+
+    private static VirtualOrderStore.Settings virtualOrderSettings(Environment environment) {
+        return new VirtualOrderStore.Settings(
+                LocalDate.parse(environment.getProperty("ilp.data.virtual-orders.start", IlpOrdersSampleDataGenerator.START_DATE.toString())),
+                environment.getProperty("ilp.data.virtual-orders.days", Integer.class, 365),
+                environment.getProperty("ilp.data.virtual-orders.seed", Long.class, 0L),
+                environment.getProperty("ilp.data.virtual-orders.orders-per-day", Integer.class, IlpOrdersSampleDataGenerator.MAX_VALID_ORDERS_PER_DAY),
+                environment.getProperty("ilp.data.virtual-orders.cached-days", Integer.class, 64));
+    }
+}
@@ -0,0 +1,141 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * loads the ILP data files. A file in the (optional) external data directory takes precedence over the classpath resource
+ */
+public final class IlpDataLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(IlpDataLoader.class);
+
+    public static final String RESOURCE_FOLDER = "json/";
+    public static final String ORDERS_FILE = "orders.json";
+    public static final String RESTAURANTS_FILE = "restaurants.json";
+    public static final String CENTRAL_AREA_FILE = "centralarea.json";
+    public static final String NO_FLY_ZONES_FILE = "noflyzones.json";
+
+    private IlpDataLoader() {
+    }
+
+    /**
+     * load all data into a new snapshot
+     * @param version the version number of the snapshot
+     * @param dataDirectory the optional external data directory (null to use the classpath only)
+     * @param ordersSnapshot the optional binary order snapshot (null to load the JSON orders)
+     * @param virtualOrders the optional settings of generated orders (takes precedence over the other order sources)
+     * @param metrics the metrics the loading time is recorded in
+     * @return the snapshot
+     */
+    public static IlpDataSnapshot loadSnapshot(long version, Path dataDirectory, Path ordersSnapshot, VirtualOrderStore.Settings virtualOrders,
+                                               IlpMetrics metrics) {
+        var referenceData = metrics.timeLoad("referenceData", () -> loadReferenceData(dataDirectory));
+        var orders = metrics.timeLoad("orders", () -> {
+            if (virtualOrders != null) {
+                logger.info("serving generated orders for {} days from {} (seed {})", virtualOrders.days(), virtualOrders.startDate(), virtualOrders.seed());
+                return new VirtualOrderStore(virtualOrders, referenceData.restaurants());
+            }
+            return ordersSnapshot != null ? loadOrderSnapshot(ordersSnapshot) : loadOrderRepository(dataDirectory);
+        });
+        return new IlpDataSnapshot(version, Instant.now(), orders, referenceData);
+    }
+
+    /**
+     * load and index the orders. If there is no order file an empty repository is returned
+     * @param dataDirectory the optional external data directory
+     * @return the order repository
+     */
+    public static OrderRepository loadOrderRepository(Path dataDirectory) {
+        if (exists(dataDirectory, ORDERS_FILE) == false) {
+            logger.warn("no {} found - serving an empty order list", ORDERS_FILE);
+            return OrderRepository.empty();
+        }
+
+        var repository = OrderRepository.of(read(dataDirectory, ORDERS_FILE, Order[].class));
+        logger.info("loaded {} orders from {}", repository.size(), ORDERS_FILE);
+        return repository;
+    }
+
+    /**
+     * memory-map a binary order snapshot
+     * @param snapshotFile the snapshot written by the sample data generator
+     * @return the order store backed by the file
+     */
+    public static OrderStore loadOrderSnapshot(Path snapshotFile) {
+        try {
+            var snapshot = OrderSnapshot.map(snapshotFile);
+            logger.info("mapped {} orders from {}", snapshot.size(), snapshotFile);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * load the restaurants from the classpath
+     * @return the restaurants defined in the system
+     */
+    public static Restaurant[] loadRestaurants() {
+        return read(null, RESTAURANTS_FILE, Restaurant[].class);
+    }
+
+    /**
+     * load the restaurants, the central area and the no-fly-zones and pre-render their responses
+     * @param dataDirectory the optional external data directory
+     * @return the reference data
+     */
+    public static ReferenceData loadReferenceData(Path dataDirectory) {
+        return ReferenceData.of(read(dataDirectory, RESTAURANTS_FILE, Restaurant[].class),
+                read(dataDirectory, CENTRAL_AREA_FILE, NamedRegion.class),
+                read(dataDirectory, NO_FLY_ZONES_FILE, NamedRegion[].class));
+    }
+
+    /**
+     * check if a data file is available in the directory or on the classpath
+     */
+    private static boolean exists(Path dataDirectory, String fileName) {
+        return (dataDirectory != null && Files.isRegularFile(dataDirectory.resolve(fileName)))
+                || IlpDataLoader.class.getClassLoader().getResource(RESOURCE_FOLDER + fileName) != null;
+    }
+
+    /**
+     * read and deserialize a JSON data file
+     * @param dataDirectory the optional external data directory
+     * @param fileName the file name
+     * @param type the type to deserialize to
+     * @return the deserialized object
+     */
+    static <T> T read(Path dataDirectory, String fileName, Class<T> type) {
+        try (var reader = new BufferedReader(new InputStreamReader(open(dataDirectory, fileName), StandardCharsets.UTF_8))) {
+            return IlpJson.GSON.fromJson(reader, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream open(Path dataDirectory, String fileName) throws IOException {
+        if (dataDirectory != null) {
+            var file = dataDirectory.resolve(fileName);
+            if (Files.isRegularFile(file)) {
+                return Files.newInputStream(file);
+            }
+        }
+        return Objects.requireNonNull(IlpDataLoader.class.getClassLoader().getResourceAsStream(RESOURCE_FOLDER + fileName), fileName);
+    }
+}
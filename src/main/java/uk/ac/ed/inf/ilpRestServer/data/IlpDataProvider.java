@@ -0,0 +1,85 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * holds the current data snapshot. Readers just get the current reference (no locks), a reload builds a complete new
+ * snapshot first and then publishes it with a single atomic swap
+ */
+public class IlpDataProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(IlpDataProvider.class);
+
+    private final Path dataDirectory;
+    private final Path ordersSnapshot;
+    private final VirtualOrderStore.Settings virtualOrders;
+    private final IlpMetrics metrics;
+    private final AtomicReference<IlpDataSnapshot> current;
+    private final List<Consumer<IlpDataSnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * create the provider and load the initial snapshot
+     * @param dataDirectory the optional external data directory (null for the classpath only)
+     * @param ordersSnapshot the optional binary order snapshot (null for the JSON orders)
+     * @param virtualOrders the optional settings of generated orders (null for the JSON orders or the snapshot)
+     * @param metrics the metrics the loading time is recorded in
+     */
+    public IlpDataProvider(Path dataDirectory, Path ordersSnapshot, VirtualOrderStore.Settings virtualOrders, IlpMetrics metrics) {
+        this.dataDirectory = dataDirectory;
+        this.ordersSnapshot = ordersSnapshot;
+        this.virtualOrders = virtualOrders;
+        this.metrics = metrics;
+        this.current = new AtomicReference<>(IlpDataLoader.loadSnapshot(1, dataDirectory, ordersSnapshot, virtualOrders, metrics));
+    }
+
+    /**
+     * @return the current snapshot
+     */
+    public IlpDataSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * @return the external data directory or null if only the classpath is used
+     */
+    public Path dataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * register a listener which is called (on the reloading thread) after a new snapshot was published
+     * @param listener the listener
+     */
+    public void addListener(Consumer<IlpDataSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * rebuild the snapshot from the data files and publish it. If loading fails the current snapshot stays in place
+     * @return true if a new snapshot was published
+     */
+    public synchronized boolean reload() {
+        IlpDataSnapshot snapshot;
+        try {
+            snapshot = IlpDataLoader.loadSnapshot(current().version() + 1, dataDirectory, ordersSnapshot, virtualOrders, metrics);
+        } catch (RuntimeException e) {
+            logger.error("reloading the data failed - keeping version {}", current().version(), e);
+            return false;
+        }
+
+        current.set(snapshot);
+        logger.info("published data version {}", snapshot.version());
+        for (var listener : listeners) {
+            listener.accept(snapshot);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import java.time.Instant;
+
+/**
+ * an immutable snapshot of all data served: the parsed data, its indexes and the pre-rendered responses.
+ * A request reads the current snapshot once and uses it throughout, so a reload never changes data under a running request
+ * @param version increasing version number (1 for the data loaded at startup)
+ * @param loadedAt when the snapshot was built
+ * @param orders the orders
+ * @param referenceData the restaurants, central area and no-fly-zones
+ */
+public record IlpDataSnapshot(long version, Instant loadedAt, OrderStore orders, ReferenceData referenceData) {
+}
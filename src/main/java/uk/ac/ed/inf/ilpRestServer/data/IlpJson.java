@@ -0,0 +1,26 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * shared JSON handling for the ILP data objects.
+ * Gson instances are immutable and thread-safe, so there is no need to build one per call.
+ * The data objects and LocalDate are handled by the streaming adapters in {@link IlpTypeAdapters}.
+ * Null fields are written as null, so the Gson rendered endpoints produce the same JSON as the Jackson rendered ones
+ */
+public final class IlpJson {
+
+    /**
+     * compact Gson instance with the ILP type adapters registered
+     */
+    public static final Gson GSON = IlpTypeAdapters.register(new GsonBuilder()).serializeNulls().create();
+
+    /**
+     * same as GSON, but with pretty printing (for files meant to be read by people)
+     */
+    public static final Gson PRETTY_GSON = GSON.newBuilder().setPrettyPrinting().create();
+
+    private IlpJson() {
+    }
+}
@@ -0,0 +1,347 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * streaming Gson type adapters for the ILP data objects.
+ * They read and write the tokens directly (no reflection, no intermediate JSON tree) and produce the same JSON as
+ * Jackson does for the other endpoints: same field names, null fields written as null (the writer has to serialize
+ * nulls, see {@link IlpJson}), unknown fields ignored when reading
+ */
+final class IlpTypeAdapters {
+
+    /**
+     * pizzas (and with them their names) are interned up to this number of distinct pizzas, so the few menu pizzas
+     * are shared by all orders, while arbitrary client input cannot grow the table without limit
+     */
+    private static final int MAX_INTERNED_PIZZAS = 4096;
+
+    private static final ConcurrentHashMap<Pizza, Pizza> internedPizzas = new ConcurrentHashMap<>();
+
+    private IlpTypeAdapters() {
+    }
+
+    /**
+     * register all adapters
+     * @param builder the builder to register the adapters with
+     * @return the builder
+     */
+    static GsonBuilder register(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(LocalDate.class, LOCAL_DATE.nullSafe())
+                .registerTypeAdapter(LngLat.class, LNG_LAT.nullSafe())
+                .registerTypeAdapter(Pizza.class, PIZZA.nullSafe())
+                .registerTypeAdapter(Restaurant.class, RESTAURANT.nullSafe())
+                .registerTypeAdapter(NamedRegion.class, NAMED_REGION.nullSafe())
+                .registerTypeAdapter(Order.class, ORDER.nullSafe());
+    }
+
+    /**
+     * ISO dates (YYYY-MM-DD) decoded straight from the string token
+     */
+    static final TypeAdapter<LocalDate> LOCAL_DATE = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, LocalDate value) throws IOException {
+            out.value(value.toString());
+        }
+
+        @Override
+        public LocalDate read(JsonReader in) throws IOException {
+            var text = in.nextString();
+            try {
+                return LocalDate.parse(text);
+            } catch (DateTimeException e) {
+                throw new JsonParseException("invalid date " + text + " at " + in.getPath(), e);
+            }
+        }
+    };
+
+    static final TypeAdapter<LngLat> LNG_LAT = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, LngLat value) throws IOException {
+            out.beginObject();
+            out.name("lng").value(value.lng());
+            out.name("lat").value(value.lat());
+            out.endObject();
+        }
+
+        @Override
+        public LngLat read(JsonReader in) throws IOException {
+            double lng = 0;
+            double lat = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "lng" -> lng = in.nextDouble();
+                    case "lat" -> lat = in.nextDouble();
+                    // e.g. the names of the central area vertices
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new LngLat(lng, lat);
+        }
+    };
+
+    static final TypeAdapter<Pizza> PIZZA = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, Pizza value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name());
+            out.name("priceInPence").value(value.priceInPence());
+            out.endObject();
+        }
+
+        @Override
+        public Pizza read(JsonReader in) throws IOException {
+            String name = null;
+            int priceInPence = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name" -> name = nextStringOrNull(in);
+                    case "priceInPence" -> priceInPence = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return intern(new Pizza(name, priceInPence));
+        }
+    };
+
+    static final TypeAdapter<Restaurant> RESTAURANT = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, Restaurant value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name());
+            out.name("location");
+            LNG_LAT.nullSafe().write(out, value.location());
+            out.name("openingDays");
+            if (value.openingDays() == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (var day : value.openingDays()) {
+                    out.value(day.name());
+                }
+                out.endArray();
+            }
+            out.name("menu");
+            writePizzas(out, value.menu());
+            out.endObject();
+        }
+
+        @Override
+        public Restaurant read(JsonReader in) throws IOException {
+            String name = null;
+            LngLat location = null;
+            DayOfWeek[] openingDays = null;
+            Pizza[] menu = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name" -> name = nextStringOrNull(in);
+                    case "location" -> location = LNG_LAT.nullSafe().read(in);
+                    case "openingDays" -> openingDays = readOpeningDays(in);
+                    case "menu" -> menu = readPizzas(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Restaurant(name, location, openingDays, menu);
+        }
+    };
+
+    static final TypeAdapter<NamedRegion> NAMED_REGION = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, NamedRegion value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name());
+            out.name("vertices");
+            if (value.vertices() == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (var vertex : value.vertices()) {
+                    LNG_LAT.write(out, vertex);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public NamedRegion read(JsonReader in) throws IOException {
+            String name = null;
+            LngLat[] vertices = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name" -> name = nextStringOrNull(in);
+                    case "vertices" -> {
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                        } else {
+                            var list = new ArrayList<LngLat>();
+                            in.beginArray();
+                            while (in.hasNext()) {
+                                list.add(LNG_LAT.read(in));
+                            }
+                            in.endArray();
+                            vertices = list.toArray(new LngLat[0]);
+                        }
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new NamedRegion(name, vertices);
+        }
+    };
+
+    static final TypeAdapter<Order> ORDER = new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, Order value) throws IOException {
+            out.beginObject();
+            out.name("orderNo").value(value.getOrderNo());
+            out.name("orderDate").value(value.getOrderDate() == null ? null : value.getOrderDate().toString());
+            out.name("orderStatus").value(value.getOrderStatus() == null ? null : value.getOrderStatus().name());
+            out.name("invalidOrderReasonCode").value(value.getInvalidOrderReasonCode() == null ? null : value.getInvalidOrderReasonCode().name());
+            out.name("priceTotalInPence").value(value.getPriceTotalInPence());
+            out.name("pizzasInOrder");
+            writePizzas(out, value.getPizzasInOrder());
+            out.name("customer").value(value.getCustomer());
+            out.name("creditCardNumber").value(value.getCreditCardNumber());
+            out.name("creditCardExpiry").value(value.getCreditCardExpiry());
+            out.name("cvv").value(value.getCvv());
+            out.endObject();
+        }
+
+        @Override
+        public Order read(JsonReader in) throws IOException {
+            var order = new Order();
+            in.beginObject();
+            while (in.hasNext()) {
+                var name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "orderNo" -> order.setOrderNo(in.nextString());
+                    case "orderDate" -> order.setOrderDate(LOCAL_DATE.read(in));
+                    case "orderStatus" -> order.setOrderStatus(readEnum(in, OrderStatus.class));
+                    case "invalidOrderReasonCode" -> order.setInvalidOrderReasonCode(readEnum(in, InvalidOrderReasonCode.class));
+                    case "priceTotalInPence" -> order.setPriceTotalInPence(in.nextInt());
+                    case "pizzasInOrder" -> order.setPizzasInOrder(readPizzas(in));
+                    case "customer" -> order.setCustomer(in.nextString());
+                    case "creditCardNumber" -> order.setCreditCardNumber(in.nextString());
+                    case "creditCardExpiry" -> order.setCreditCardExpiry(in.nextString());
+                    case "cvv" -> order.setCvv(in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return order;
+        }
+    };
+
+    /**
+     * @param pizza a deserialized pizza
+     * @return the shared instance of an equal pizza
+     */
+    static Pizza intern(Pizza pizza) {
+        var interned = internedPizzas.get(pizza);
+        if (interned != null) {
+            return interned;
+        }
+        if (internedPizzas.size() >= MAX_INTERNED_PIZZAS) {
+            return pizza;
+        }
+        interned = internedPizzas.putIfAbsent(pizza, pizza);
+        return interned == null ? pizza : interned;
+    }
+
+    private static void writePizzas(JsonWriter out, Pizza[] pizzas) throws IOException {
+        if (pizzas == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (var pizza : pizzas) {
+            PIZZA.write(out, pizza);
+        }
+        out.endArray();
+    }
+
+    private static Pizza[] readPizzas(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Pizza> pizzas = new ArrayList<>(4);
+        in.beginArray();
+        while (in.hasNext()) {
+            pizzas.add(PIZZA.read(in));
+        }
+        in.endArray();
+        return pizzas.toArray(new Pizza[0]);
+    }
+
+    private static DayOfWeek[] readOpeningDays(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        var days = new ArrayList<DayOfWeek>(7);
+        in.beginArray();
+        while (in.hasNext()) {
+            var day = readEnum(in, DayOfWeek.class);
+            if (day != null) {
+                days.add(day);
+            }
+        }
+        in.endArray();
+        return days.toArray(new DayOfWeek[0]);
+    }
+
+    /**
+     * read an enum constant by name - an unknown name is read as null like Gson's own enum handling does
+     */
+    private static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type) throws IOException {
+        var name = in.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String nextStringOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+}
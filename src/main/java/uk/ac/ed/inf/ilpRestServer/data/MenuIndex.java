@@ -0,0 +1,75 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * precomputed lookups over the restaurant menus: which restaurant sells a pizza (hash lookup instead of scanning all
+ * menus) and on which days a restaurant is open (one bit per day of week)
+ */
+public final class MenuIndex {
+
+    private final Restaurant[] restaurants;
+    private final Map<String, Integer> restaurantByPizza;
+    private final int[] openingDays;
+
+    /**
+     * build the index
+     * @param restaurants the restaurants
+     */
+    public MenuIndex(Restaurant[] restaurants) {
+        this.restaurants = restaurants;
+        this.restaurantByPizza = new HashMap<>();
+        this.openingDays = new int[restaurants.length];
+
+        for (int i = 0; i < restaurants.length; i++) {
+            for (var pizza : restaurants[i].menu()) {
+                // a pizza name is expected to be unique - if not, the first restaurant wins
+                restaurantByPizza.putIfAbsent(pizza.name(), i);
+            }
+            for (var day : restaurants[i].openingDays()) {
+                openingDays[i] |= dayBit(day);
+            }
+        }
+    }
+
+    /**
+     * @param pizzaName the name of a pizza
+     * @return the index of the restaurant selling the pizza or -1 if no restaurant has it on the menu
+     */
+    public int restaurantOf(String pizzaName) {
+        var restaurant = restaurantByPizza.get(pizzaName);
+        return restaurant == null ? -1 : restaurant;
+    }
+
+    /**
+     * @param restaurant the restaurant index
+     * @param day the day of the week
+     * @return true if the restaurant is open on the day
+     */
+    public boolean isOpen(int restaurant, DayOfWeek day) {
+        return (openingDays[restaurant] & dayBit(day)) != 0;
+    }
+
+    /**
+     * @param restaurant the restaurant index
+     * @return the restaurant
+     */
+    public Restaurant restaurant(int restaurant) {
+        return restaurants[restaurant];
+    }
+
+    /**
+     * @return the number of restaurants
+     */
+    public int restaurantCount() {
+        return restaurants.length;
+    }
+
+    private static int dayBit(DayOfWeek day) {
+        return 1 << day.ordinal();
+    }
+}
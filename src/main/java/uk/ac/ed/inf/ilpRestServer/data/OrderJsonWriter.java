@@ -0,0 +1,62 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import com.google.gson.stream.JsonWriter;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * writes orders straight to an output stream, one order at a time, either as a JSON array or as NDJSON
+ * (one order per line). Memory use is independent of the number of orders written
+ */
+public final class OrderJsonWriter {
+
+    /**
+     * size of the character buffer - everything beyond is flushed to the underlying stream as it is produced
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private OrderJsonWriter() {
+    }
+
+    /**
+     * write the orders as a JSON array
+     * @param orders the orders to write
+     * @param out the target stream (flushed, but not closed)
+     * @throws IOException if the stream fails
+     */
+    public static void writeJsonArray(List<Order> orders, OutputStream out) throws IOException {
+        var jsonWriter = new JsonWriter(createWriter(out));
+        jsonWriter.beginArray();
+        for (var order : orders) {
+            IlpJson.GSON.toJson(order, Order.class, jsonWriter);
+        }
+        jsonWriter.endArray();
+        jsonWriter.flush();
+    }
+
+    /**
+     * write the orders as newline delimited JSON
+     * @param orders the orders to write
+     * @param out the target stream (flushed, but not closed)
+     * @throws IOException if the stream fails
+     */
+    public static void writeNdjson(List<Order> orders, OutputStream out) throws IOException {
+        var writer = createWriter(out);
+        for (var order : orders) {
+            IlpJson.GSON.toJson(order, Order.class, writer);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static Writer createWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
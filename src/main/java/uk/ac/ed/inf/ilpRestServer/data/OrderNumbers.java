@@ -0,0 +1,113 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * the order numbers of a generated dataset: a keyed 32-bit permutation of the position of the order
+ * (epochDay * ordersPerDay + number within the day), formatted as 8 upper-case hex digits.
+ * <p>
+ * Every position has its own number, so the numbers of a dataset are unique however many orders it has (random
+ * 32-bit numbers collide after ~2^16 orders). The permutation can be inverted, so the position of an order is found
+ * from its number alone
+ */
+public final class OrderNumbers {
+
+    /**
+     * the highest position which has an order number
+     */
+    public static final long MAX_POSITION = 0xFFFFFFFFL;
+
+    private static final HexFormat ORDER_NO_FORMAT = HexFormat.of().withUpperCase();
+
+    private final int key;
+
+    /**
+     * create the numbering of a dataset
+     * @param seed the dataset seed
+     */
+    public OrderNumbers(long seed) {
+        this.key = (int) (IlpOrdersSampleDataGenerator.daySeed(seed, LocalDate.EPOCH) >>> 32);
+    }
+
+    /**
+     * @param epochDay the order date as epoch day
+     * @param ordersPerDay the number of orders every day of the dataset has
+     * @param number the number of the order within its day
+     * @return the position of the order in the dataset
+     * @throws IllegalArgumentException if the position has no order number
+     */
+    public static long position(long epochDay, int ordersPerDay, int number) {
+        long position = epochDay * ordersPerDay + number;
+        if (epochDay < 0 || number < 0 || number >= ordersPerDay || position > MAX_POSITION) {
+            throw new IllegalArgumentException("no order number for order " + number + " of epoch day " + epochDay);
+        }
+        return position;
+    }
+
+    /**
+     * @param position the position of the order (0 - {@link #MAX_POSITION})
+     * @return the order number
+     */
+    public String orderNo(long position) {
+        if (position < 0 || position > MAX_POSITION) {
+            throw new IllegalArgumentException("no order number for position " + position);
+        }
+        return ORDER_NO_FORMAT.toHexDigits(permute((int) position));
+    }
+
+    /**
+     * @param orderNo an order number
+     * @return the position of the order or -1 if it is not 8 upper-case hex digits
+     */
+    public long position(String orderNo) {
+        if (isOrderNo(orderNo) == false) {
+            return -1;
+        }
+        return Integer.toUnsignedLong(unpermute(Integer.parseUnsignedInt(orderNo, 16)));
+    }
+
+    /**
+     * @param orderNo an order number
+     * @return true if it is 8 upper-case hex digits (the only form that survives a round trip through 32 bits)
+     */
+    public static boolean isOrderNo(String orderNo) {
+        if (orderNo == null || orderNo.length() != 8) {
+            return false;
+        }
+        for (int i = 0; i < orderNo.length(); i++) {
+            char c = orderNo.charAt(i);
+            if ((c >= '0' && c <= '9') == false && (c >= 'A' && c <= 'F') == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * a bijective 32-bit mix (lowbias32) keyed with the dataset seed
+     */
+    private int permute(int x) {
+        x ^= key;
+        x ^= x >>> 16;
+        x *= 0x7feb352d;
+        x ^= x >>> 15;
+        x *= 0x846ca68b;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    /**
+     * the inverse of {@link #permute(int)}
+     */
+    private int unpermute(int x) {
+        x ^= x >>> 16;
+        x *= 0x43021123;
+        x ^= x >>> 15 ^ x >>> 30;
+        x *= 0x1d69e2a5;
+        x ^= x >>> 16;
+        return x ^ key;
+    }
+}
@@ -0,0 +1,43 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.util.List;
+
+/**
+ * one page of an order list. The cursor is the position of the first order of the page in the list
+ * @param orders the orders on the page (a view of the list)
+ * @param nextCursor the cursor of the next page or null if this is the last page
+ */
+public record OrderPage(List<Order> orders, String nextCursor) {
+
+    /**
+     * select the requested page
+     * @param orders all orders matching the request
+     * @param cursor the optional cursor
+     * @param limit the optional page size
+     * @return the page
+     * @throws ResponseStatusException (400) if the cursor or the limit are invalid
+     */
+    public static OrderPage of(List<Order> orders, String cursor, Integer limit) {
+        int start = 0;
+        if (cursor != null) {
+            try {
+                start = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+            }
+            if (start < 0 || start > orders.size()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+            }
+        }
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+
+        int end = limit == null ? orders.size() : (int) Math.min(orders.size(), (long) start + limit);
+        return new OrderPage(orders.subList(start, end), end < orders.size() ? Integer.toString(end) : null);
+    }
+}
@@ -0,0 +1,84 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.util.*;
+
+/**
+ * immutable, indexed in-memory store of all orders.
+ * The orders are kept sorted by order date (so a date or a date range is a binary search) and hashed by order number.
+ * Order numbers have to be unique - a lookup by number could not tell which of two orders is meant.
+ * A second copy of every order with the status masked as UNDEFINED is built once, so the public order endpoints
+ * never have to copy or modify an order per request
+ */
+public final class OrderRepository implements OrderStore {
+
+    private final List<Order> orders;
+    private final List<Order> maskedOrders;
+    private final long[] epochDays;
+    private final Map<String, Integer> indexByOrderNo;
+
+    private OrderRepository(Order[] sortedOrders) {
+        var masked = new Order[sortedOrders.length];
+        epochDays = new long[sortedOrders.length];
+        indexByOrderNo = new HashMap<>(Math.max(16, sortedOrders.length * 4 / 3 + 1));
+
+        for (int i = 0; i < sortedOrders.length; i++) {
+            var order = sortedOrders[i];
+            epochDays[i] = order.getOrderDate().toEpochDay();
+            if (indexByOrderNo.putIfAbsent(order.getOrderNo(), i) != null) {
+                throw new IllegalArgumentException("duplicate order number " + order.getOrderNo());
+            }
+
+            // a deep copy is the simplest way to get an independent order object
+            masked[i] = IlpJson.GSON.fromJson(IlpJson.GSON.toJsonTree(order), Order.class);
+            masked[i].setOrderStatus(OrderStatus.UNDEFINED);
+        }
+
+        orders = Collections.unmodifiableList(Arrays.asList(sortedOrders));
+        maskedOrders = Collections.unmodifiableList(Arrays.asList(masked));
+    }
+
+    /**
+     * create a repository from deserialized orders
+     * @param orders the orders (the array is not modified)
+     * @return the indexed repository
+     * @throws IllegalArgumentException if two orders have the same order number
+     */
+    public static OrderRepository of(Order[] orders) {
+        var sorted = orders.clone();
+        // stable sort, so the file order is kept within a day
+        Arrays.sort(sorted, Comparator.comparing(Order::getOrderDate));
+        return new OrderRepository(sorted);
+    }
+
+    /**
+     * an empty repository (used if no order data is available)
+     * @return the empty repository
+     */
+    public static OrderRepository empty() {
+        return new OrderRepository(new Order[0]);
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public long epochDay(int index) {
+        return epochDays[index];
+    }
+
+    @Override
+    public int indexOf(String orderNo) {
+        var index = indexByOrderNo.get(orderNo);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public List<Order> all(boolean masked) {
+        return masked ? maskedOrders : orders;
+    }
+}
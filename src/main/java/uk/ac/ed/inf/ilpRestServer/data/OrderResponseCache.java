@@ -0,0 +1,180 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * the rendered order responses of single days, bounded by their total size in bytes and evicted least recently used
+ * first. A response is rendered once: concurrent requests for a day which is being rendered wait for that rendering
+ * instead of starting their own.
+ * <p>
+ * The keys contain the data version and the cache is cleared when a new snapshot is published, so a reload never
+ * serves stale responses
+ */
+public final class OrderResponseCache {
+
+    static final String CACHE_NAME = "orderResponses";
+
+    /**
+     * the cached variants of a day
+     * @param version the data version the response was rendered from
+     * @param masked true for the orders without outcome
+     * @param ndjson true for NDJSON, false for a JSON array
+     * @param epochDay the order date
+     */
+    private record Key(long version, boolean masked, boolean ndjson, long epochDay) {
+    }
+
+    /**
+     * a cached response - the size is 0 while it is being rendered
+     */
+    private static final class Entry {
+
+        final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        long size;
+    }
+
+    private final long maxBytes;
+    private final IlpMetrics metrics;
+
+    // guarded by entries
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    /**
+     * create the cache
+     * @param dataProvider the data provider - the cache is cleared whenever it publishes a new snapshot
+     * @param maxBytes the maximum total size of the cached responses
+     * @param metrics the metrics the cache accesses are counted in
+     */
+    public OrderResponseCache(IlpDataProvider dataProvider, long maxBytes, IlpMetrics metrics) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("the maximum size must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.metrics = metrics;
+        dataProvider.addListener(snapshot -> clear());
+        metrics.gaugeCacheSize(CACHE_NAME, this, OrderResponseCache::bytes);
+    }
+
+    /**
+     * get the rendered orders of a day, render them if they are not cached
+     * @param version the version of the data the orders are taken from
+     * @param masked true for the orders without outcome
+     * @param ndjson true for NDJSON, false for a JSON array
+     * @param date the order date
+     * @param renderer renders the response if it is not cached
+     * @return the response body (must not be modified)
+     */
+    public byte[] get(long version, boolean masked, boolean ndjson, LocalDate date, Supplier<byte[]> renderer) {
+        var key = new Key(version, masked, ndjson, date.toEpochDay());
+        Entry entry;
+        boolean render;
+        synchronized (entries) {
+            entry = entries.get(key);
+            render = entry == null;
+            if (render) {
+                entry = new Entry();
+                entries.put(key, entry);
+            }
+        }
+        metrics.countCacheAccess(CACHE_NAME, render == false);
+
+        if (render == false) {
+            try {
+                return entry.body.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        byte[] body;
+        try {
+            body = renderer.get();
+        } catch (RuntimeException | Error e) {
+            // an OutOfMemoryError must not leave the entry pending, or every later request for it would wait forever
+            remove(key, entry);
+            entry.body.completeExceptionally(e);
+            throw e;
+        }
+        entry.body.complete(body);
+        added(key, entry, body.length);
+        return body;
+    }
+
+    /**
+     * @return the total size of the cached responses
+     */
+    public long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /**
+     * @return the number of cached responses (including the ones being rendered)
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * drop all responses
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * account for a rendered response and evict the least recently used ones while the cache is too big.
+     * A response bigger than the whole cache is not kept at all (instead of evicting everything else for it)
+     */
+    private void added(Key key, Entry entry, long size) {
+        int evicted = 0;
+        synchronized (entries) {
+            // cleared or evicted while it was rendered
+            if (entries.get(key) != entry) {
+                return;
+            }
+            if (size > maxBytes) {
+                entries.remove(key);
+                return;
+            }
+            entry.size = size;
+            bytes += size;
+
+            var iterator = entries.values().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                var eldest = iterator.next();
+                // responses still being rendered take no space yet
+                if (eldest.body.isDone()) {
+                    iterator.remove();
+                    bytes -= eldest.size;
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            metrics.countCacheEvictions(CACHE_NAME, evicted);
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * an order store backed by a memory-mapped binary snapshot written by {@link OrderSnapshotWriter}.
+ * <p>
+ * The snapshot is columnar: order numbers, epoch days, prices, status and reason codes are primitive columns, pizzas
+ * are 16-bit references into an interned pizza table and the card / customer strings live in one UTF-8 heap.
+ * Lookups by date and order number are binary searches directly on the mapped file; an {@link Order} object is only
+ * created when an order is actually returned, so the resident heap does not grow with the number of orders.
+ * <p>
+ * Layout (big-endian, n orders, p pizzas, m pizza references):
+ * <pre>
+ * header          magic, version, n, p, m, string heap size, 2 reserved ints
+ * orderNo         int[n]      the 8 hex digit order number as 32 bit value
+ * epochDay        int[n]      ascending
+ * price           int[n]
+ * pizzaStart      int[n + 1]  offsets into the pizza references
+ * stringStart     int[4n + 1] offsets into the string heap (customer, card number, expiry, CVV)
+ * orderNoKey      int[n]      sorted order numbers
+ * orderNoRow      int[n]      the row of each sorted order number
+ * status          byte[n]     OrderStatus ordinal (-1 = null)
+ * reason          byte[n]     InvalidOrderReasonCode ordinal (-1 = null)
+ * pizzaRef        short[m]
+ * pizzaTable      p x (int price, int name offset, int name length)
+ * stringHeap      UTF-8 bytes
+ * </pre>
+ */
+public final class OrderSnapshot implements OrderStore {
+
+    static final int MAGIC = 0x494C504F;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int STRINGS_PER_ORDER = 4;
+    static final int PIZZA_TABLE_ENTRY_SIZE = 12;
+
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+    private static final InvalidOrderReasonCode[] REASON_CODES = InvalidOrderReasonCode.values();
+    private static final HexFormat ORDER_NO_FORMAT = HexFormat.of().withUpperCase();
+
+    private final ByteBuffer buffer;
+    private final int orderCount;
+    private final Layout layout;
+    private final Pizza[] pizzas;
+    private final List<Order> orders = new OrderView(false);
+    private final List<Order> maskedOrders = new OrderView(true);
+
+    /**
+     * the positions of all sections for a given number of orders, pizzas and pizza references
+     */
+    record Layout(int orderNo, int epochDay, int price, int pizzaStart, int stringStart, int orderNoKey, int orderNoRow,
+                  int status, int reason, int pizzaRef, int pizzaTable, int stringHeap, long end) {
+
+        static Layout of(int orderCount, int pizzaCount, int pizzaRefCount, int stringHeapSize) {
+            long orderNo = HEADER_SIZE;
+            long epochDay = orderNo + 4L * orderCount;
+            long price = epochDay + 4L * orderCount;
+            long pizzaStart = price + 4L * orderCount;
+            long stringStart = pizzaStart + 4L * (orderCount + 1);
+            long orderNoKey = stringStart + 4L * (STRINGS_PER_ORDER * (long) orderCount + 1);
+            long orderNoRow = orderNoKey + 4L * orderCount;
+            long status = orderNoRow + 4L * orderCount;
+            long reason = status + orderCount;
+            long pizzaRef = reason + orderCount;
+            long pizzaTable = pizzaRef + 2L * pizzaRefCount;
+            long stringHeap = pizzaTable + (long) PIZZA_TABLE_ENTRY_SIZE * pizzaCount;
+            long end = stringHeap + stringHeapSize;
+
+            if (end > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("order snapshot exceeds 2GB");
+            }
+            return new Layout((int) orderNo, (int) epochDay, (int) price, (int) pizzaStart, (int) stringStart,
+                    (int) orderNoKey, (int) orderNoRow, (int) status, (int) reason, (int) pizzaRef, (int) pizzaTable,
+                    (int) stringHeap, end);
+        }
+    }
+
+    private OrderSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not an ILP order snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("unsupported order snapshot version: " + buffer.getInt(4));
+        }
+
+        orderCount = buffer.getInt(8);
+        int pizzaCount = buffer.getInt(12);
+        layout = Layout.of(orderCount, pizzaCount, buffer.getInt(16), buffer.getInt(20));
+        if (layout.end() > buffer.capacity()) {
+            throw new IllegalArgumentException("truncated order snapshot");
+        }
+
+        // the pizza table is tiny - materialize it once so orders can share the pizza objects
+        pizzas = new Pizza[pizzaCount];
+        for (int i = 0; i < pizzaCount; i++) {
+            int entry = layout.pizzaTable() + i * PIZZA_TABLE_ENTRY_SIZE;
+            var name = readUtf8(layout.stringHeap() + buffer.getInt(entry + 4), buffer.getInt(entry + 8)).intern();
+            pizzas[i] = new Pizza(name, buffer.getInt(entry));
+        }
+    }
+
+    /**
+     * memory-map a snapshot file. The mapping stays valid after this call, the file is not read into the heap
+     * @param file the snapshot file
+     * @return the order store
+     * @throws IOException if the file cannot be mapped
+     */
+    public static OrderSnapshot map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OrderSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public int size() {
+        return orderCount;
+    }
+
+    @Override
+    public long epochDay(int index) {
+        return buffer.getInt(layout.epochDay() + 4 * index);
+    }
+
+    @Override
+    public OrderStatus orderStatus(int index) {
+        int ordinal = buffer.get(layout.status() + index);
+        return ordinal < 0 ? null : ORDER_STATUSES[ordinal];
+    }
+
+    @Override
+    public int indexOf(String orderNo) {
+        // the stored numbers are upper-case, so no other spelling is an order number of the snapshot
+        if (OrderNumbers.isOrderNo(orderNo) == false) {
+            return -1;
+        }
+        int key = Integer.parseUnsignedInt(orderNo, 16);
+
+        int low = 0;
+        int high = orderCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midKey = buffer.getInt(layout.orderNoKey() + 4 * mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(layout.orderNoRow() + 4 * mid);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public List<Order> all(boolean masked) {
+        return masked ? maskedOrders : orders;
+    }
+
+    /**
+     * create the order object for a row
+     * @param index the row
+     * @param masked if true the status is UNDEFINED
+     * @return a new order object
+     */
+    private Order materialize(int index, boolean masked) {
+        var order = new Order();
+        order.setOrderNo(ORDER_NO_FORMAT.toHexDigits(buffer.getInt(layout.orderNo() + 4 * index)));
+        order.setOrderDate(LocalDate.ofEpochDay(epochDay(index)));
+        order.setOrderStatus(masked ? OrderStatus.UNDEFINED : orderStatus(index));
+
+        int reason = buffer.get(layout.reason() + index);
+        order.setInvalidOrderReasonCode(reason < 0 ? null : REASON_CODES[reason]);
+        order.setPriceTotalInPence(buffer.getInt(layout.price() + 4 * index));
+
+        int firstPizza = buffer.getInt(layout.pizzaStart() + 4 * index);
+        int lastPizza = buffer.getInt(layout.pizzaStart() + 4 * (index + 1));
+        var pizzasInOrder = new Pizza[lastPizza - firstPizza];
+        for (int i = 0; i < pizzasInOrder.length; i++) {
+            pizzasInOrder[i] = pizzas[Short.toUnsignedInt(buffer.getShort(layout.pizzaRef() + 2 * (firstPizza + i)))];
+        }
+        order.setPizzasInOrder(pizzasInOrder);
+
+        int firstString = STRINGS_PER_ORDER * index;
+        order.setCustomer(readString(firstString));
+        order.setCreditCardNumber(readString(firstString + 1));
+        order.setCreditCardExpiry(readString(firstString + 2));
+        order.setCvv(readString(firstString + 3));
+        return order;
+    }
+
+    private String readString(int stringIndex) {
+        int start = buffer.getInt(layout.stringStart() + 4 * stringIndex);
+        int end = buffer.getInt(layout.stringStart() + 4 * (stringIndex + 1));
+        return readUtf8(layout.stringHeap() + start, end - start);
+    }
+
+    private String readUtf8(int offset, int length) {
+        var bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * a list view which creates the orders on access
+     */
+    private final class OrderView extends AbstractList<Order> implements RandomAccess {
+        private final boolean masked;
+
+        OrderView(boolean masked) {
+            this.masked = masked;
+        }
+
+        @Override
+        public Order get(int index) {
+            Objects.checkIndex(index, orderCount);
+            return materialize(index, masked);
+        }
+
+        @Override
+        public int size() {
+            return orderCount;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * collects orders (in ascending date order) into primitive columns and writes them as an {@link OrderSnapshot} file.
+ * Only the compact columns are kept while collecting, never the order objects.
+ * Null strings are stored as empty strings. Order numbers are stored as 32-bit values, so only 8 upper-case hex
+ * digits are accepted - any other spelling of the same value would come back changed
+ */
+public final class OrderSnapshotWriter {
+
+    private final Map<Pizza, Integer> pizzaIds = new HashMap<>();
+    private final List<Pizza> pizzas = new ArrayList<>();
+
+    private final IntColumn orderNos = new IntColumn();
+    private final IntColumn epochDays = new IntColumn();
+    private final IntColumn prices = new IntColumn();
+    private final IntColumn pizzaStarts = new IntColumn();
+    private final IntColumn pizzaRefs = new IntColumn();
+    private final IntColumn stringStarts = new IntColumn();
+    private final ByteArrayOutputStream statuses = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream reasons = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream stringHeap = new ByteArrayOutputStream();
+
+    /**
+     * create a writer. The menus of the restaurants are interned first, so their pizzas get the lowest references
+     * @param restaurants the restaurants
+     */
+    public OrderSnapshotWriter(Restaurant[] restaurants) {
+        for (var restaurant : restaurants) {
+            for (var pizza : restaurant.menu()) {
+                internPizza(pizza);
+            }
+        }
+        pizzaStarts.add(0);
+        stringStarts.add(0);
+    }
+
+    /**
+     * add an order. Orders have to be added in ascending date order
+     * @param order the order to add
+     * @throws IllegalArgumentException if the order is out of date order or its number is not 8 upper-case hex digits
+     */
+    public void add(Order order) {
+        int epochDay = Math.toIntExact(order.getOrderDate().toEpochDay());
+        if (epochDays.size > 0 && epochDays.get(epochDays.size - 1) > epochDay) {
+            throw new IllegalArgumentException("orders have to be added in ascending date order");
+        }
+
+        var orderNo = order.getOrderNo();
+        if (OrderNumbers.isOrderNo(orderNo) == false) {
+            throw new IllegalArgumentException("order number is not 8 upper-case hex digits: " + orderNo);
+        }
+
+        orderNos.add(Integer.parseUnsignedInt(orderNo, 16));
+        epochDays.add(epochDay);
+        prices.add(order.getPriceTotalInPence());
+        statuses.write(order.getOrderStatus() == null ? -1 : order.getOrderStatus().ordinal());
+        reasons.write(order.getInvalidOrderReasonCode() == null ? -1 : order.getInvalidOrderReasonCode().ordinal());
+
+        for (var pizza : order.getPizzasInOrder()) {
+            pizzaRefs.add(internPizza(pizza));
+        }
+        pizzaStarts.add(pizzaRefs.size);
+
+        addString(order.getCustomer());
+        addString(order.getCreditCardNumber());
+        addString(order.getCreditCardExpiry());
+        addString(order.getCvv());
+    }
+
+    /**
+     * @return the number of orders added so far
+     */
+    public int size() {
+        return orderNos.size;
+    }
+
+    /**
+     * write the snapshot
+     * @param file the target file (overwritten)
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if two orders have the same order number
+     */
+    public void write(Path file) throws IOException {
+        int orderCount = orderNos.size;
+
+        // pizza names go to the end of the string heap, after all order strings
+        var pizzaNameOffsets = new int[pizzas.size()];
+        var pizzaNameLengths = new int[pizzas.size()];
+        for (int i = 0; i < pizzas.size(); i++) {
+            var name = pizzas.get(i).name().getBytes(StandardCharsets.UTF_8);
+            pizzaNameOffsets[i] = stringHeap.size();
+            pizzaNameLengths[i] = name.length;
+            stringHeap.writeBytes(name);
+        }
+
+        // the order number index: sort (key, row) pairs packed into longs
+        var orderNoIndex = new long[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            orderNoIndex[i] = ((long) orderNos.get(i) << 32) | i;
+        }
+        Arrays.sort(orderNoIndex);
+        for (int i = 1; i < orderCount; i++) {
+            if ((int) (orderNoIndex[i] >>> 32) == (int) (orderNoIndex[i - 1] >>> 32)) {
+                throw new IllegalArgumentException("duplicate order number " + String.format("%08X", (int) (orderNoIndex[i] >>> 32)));
+            }
+        }
+
+        // validate the size before anything is written
+        OrderSnapshot.Layout.of(orderCount, pizzas.size(), pizzaRefs.size, stringHeap.size());
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024))) {
+            out.writeInt(OrderSnapshot.MAGIC);
+            out.writeInt(OrderSnapshot.VERSION);
+            out.writeInt(orderCount);
+            out.writeInt(pizzas.size());
+            out.writeInt(pizzaRefs.size);
+            out.writeInt(stringHeap.size());
+            out.writeInt(0);
+            out.writeInt(0);
+
+            orderNos.writeInts(out);
+            epochDays.writeInts(out);
+            prices.writeInts(out);
+            pizzaStarts.writeInts(out);
+            stringStarts.writeInts(out);
+            for (var entry : orderNoIndex) {
+                out.writeInt((int) (entry >>> 32));
+            }
+            for (var entry : orderNoIndex) {
+                out.writeInt((int) entry);
+            }
+            statuses.writeTo(out);
+            reasons.writeTo(out);
+            pizzaRefs.writeShorts(out);
+            for (int i = 0; i < pizzas.size(); i++) {
+                out.writeInt(pizzas.get(i).priceInPence());
+                out.writeInt(pizzaNameOffsets[i]);
+                out.writeInt(pizzaNameLengths[i]);
+            }
+            stringHeap.writeTo(out);
+        }
+    }
+
+    private int internPizza(Pizza pizza) {
+        return pizzaIds.computeIfAbsent(pizza, p -> {
+            if (pizzas.size() > 0xFFFF) {
+                throw new IllegalStateException("too many distinct pizzas for an order snapshot");
+            }
+            pizzas.add(p);
+            return pizzas.size() - 1;
+        });
+    }
+
+    private void addString(String value) {
+        if (value != null) {
+            stringHeap.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+        stringStarts.add(stringHeap.size());
+    }
+
+    /**
+     * a growable int array
+     */
+    private static final class IntColumn {
+        private int[] data = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = value;
+        }
+
+        int get(int index) {
+            return data[index];
+        }
+
+        void writeInts(DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                out.writeInt(data[i]);
+            }
+        }
+
+        void writeShorts(DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                out.writeShort(data[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * read-only access to the orders, sorted by order date.
+ * Positions (indexes) are stable for the lifetime of a store
+ */
+public interface OrderStore {
+
+    /**
+     * @return the number of orders
+     */
+    int size();
+
+    /**
+     * @param index the position of the order
+     * @return the order date as epoch day
+     */
+    long epochDay(int index);
+
+    /**
+     * find the position of an order
+     * @param orderNo the order number
+     * @return the position or -1 if there is no such order
+     */
+    int indexOf(String orderNo);
+
+    /**
+     * all orders sorted by date
+     * @param masked if true the orders with an UNDEFINED status are returned
+     * @return an unmodifiable, random access view of the orders
+     */
+    List<Order> all(boolean masked);
+
+    /**
+     * @param index the position of the order
+     * @return the stored status of the order
+     */
+    default OrderStatus orderStatus(int index) {
+        return all(false).get(index).getOrderStatus();
+    }
+
+    /**
+     * find an order by its number
+     * @param orderNo the order number
+     * @return the order or null if not found
+     */
+    default Order byOrderNo(String orderNo) {
+        int index = indexOf(orderNo);
+        return index < 0 ? null : all(false).get(index);
+    }
+
+    /**
+     * all orders for a date
+     * @param date the order date
+     * @param masked if true the orders with an UNDEFINED status are returned
+     * @return an unmodifiable view of the orders on that date (empty if none)
+     */
+    default List<Order> byDate(LocalDate date, boolean masked) {
+        return byDateRange(date, date, masked);
+    }
+
+    /**
+     * all orders in a date range
+     * @param from first date (inclusive)
+     * @param to last date (inclusive)
+     * @param masked if true the orders with an UNDEFINED status are returned
+     * @return an unmodifiable view of the orders in the range (empty if none)
+     */
+    default List<Order> byDateRange(LocalDate from, LocalDate to, boolean masked) {
+        int start = lowerBound(from.toEpochDay());
+        int end = lowerBound(to.toEpochDay() + 1);
+        if (start >= end) {
+            return List.of();
+        }
+        return all(masked).subList(start, end);
+    }
+
+    /**
+     * @param epochDay the day to search
+     * @return the first position with an epoch day &gt;= the given one
+     */
+    default int lowerBound(long epochDay) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDay(mid) < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,180 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * a JSON response which is rendered once (plain and gzipped) and then served as bytes.
+ * The strong ETag is derived from the content, so clients can poll with If-None-Match and get a 304.
+ * The gzipped variant is a different representation and gets its own strong ETag (the plain one with a -gzip suffix),
+ * so a cache never serves one content coding to a client which asked for the other
+ */
+public final class PreRenderedJson {
+
+    private final byte[] body;
+    private final byte[] gzippedBody;
+    private final String etag;
+    private final String gzippedEtag;
+    private final MediaType contentType;
+
+    private PreRenderedJson(byte[] body, MediaType contentType) {
+        this.body = body;
+        this.gzippedBody = gzip(body);
+        this.etag = computeEtag(body);
+        this.gzippedEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        this.contentType = contentType;
+    }
+
+    /**
+     * render an object as JSON
+     * @param value the object to serialize
+     * @return the pre-rendered response
+     */
+    public static PreRenderedJson of(Object value) {
+        return new PreRenderedJson(IlpJson.GSON.toJson(value).getBytes(StandardCharsets.UTF_8), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * take JSON which is already rendered
+     * @param body the JSON bytes (UTF-8, must not be modified afterwards)
+     * @param contentType the media type to serve the JSON as (e.g. application/geo+json)
+     * @return the pre-rendered response
+     */
+    public static PreRenderedJson of(byte[] body, MediaType contentType) {
+        return new PreRenderedJson(body, contentType);
+    }
+
+    /**
+     * @return the plain JSON bytes
+     */
+    public byte[] body() {
+        return body;
+    }
+
+    /**
+     * @return the gzipped JSON bytes
+     */
+    public byte[] gzippedBody() {
+        return gzippedBody;
+    }
+
+    /**
+     * @return the quoted strong ETag of the plain body
+     */
+    public String etag() {
+        return etag;
+    }
+
+    /**
+     * @return the quoted strong ETag of the gzipped body
+     */
+    public String gzippedEtag() {
+        return gzippedEtag;
+    }
+
+    /**
+     * build the HTTP response for a request
+     * @param ifNoneMatch the If-None-Match header of the request (can be null)
+     * @param acceptEncoding the Accept-Encoding header of the request (can be null)
+     * @return 304 if the client copy is current, otherwise the (possibly gzipped) content
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        var selectedEtag = gzip ? gzippedEtag : etag;
+        if (matches(ifNoneMatch, selectedEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(selectedEtag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        var builder = ResponseEntity.ok()
+                .eTag(selectedEtag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(contentType);
+
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(gzippedBody.length)
+                    .body(gzippedBody);
+        }
+        return builder.contentLength(body.length).body(body);
+    }
+
+    /**
+     * check an If-None-Match header against the ETag of the selected variant (weak comparison as required for
+     * If-None-Match)
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (var candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * check if gzip is an acceptable content coding (and not explicitly excluded with q=0)
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.split(",")) {
+            var parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].replace(" ", "").matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        var result = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (var gzip = new GZIPOutputStream(result)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toByteArray();
+    }
+
+    private static String computeEtag(byte[] data) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
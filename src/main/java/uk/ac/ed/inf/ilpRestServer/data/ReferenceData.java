@@ -0,0 +1,42 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.geo.RegionIndex;
+
+/**
+ * the static reference data (restaurants, central area and no-fly-zones) together with the pre-rendered responses
+ * @param restaurants the restaurants
+ * @param centralArea the central area
+ * @param noFlyZones the no-fly-zones
+ * @param restaurantsJson the rendered restaurants
+ * @param centralAreaJson the rendered central area
+ * @param noFlyZonesJson the rendered no-fly-zones
+ * @param menuIndex the index over the restaurant menus
+ * @param regionIndex the geometry index over the central area and the no-fly-zones
+ */
+public record ReferenceData(Restaurant[] restaurants,
+                            NamedRegion centralArea,
+                            NamedRegion[] noFlyZones,
+                            PreRenderedJson restaurantsJson,
+                            PreRenderedJson centralAreaJson,
+                            PreRenderedJson noFlyZonesJson,
+                            MenuIndex menuIndex,
+                            RegionIndex regionIndex) {
+
+    /**
+     * create the reference data, render the responses and build the indexes
+     * @param restaurants the restaurants
+     * @param centralArea the central area
+     * @param noFlyZones the no-fly-zones
+     * @return the reference data
+     */
+    public static ReferenceData of(Restaurant[] restaurants, NamedRegion centralArea, NamedRegion[] noFlyZones) {
+        return new ReferenceData(restaurants, centralArea, noFlyZones,
+                PreRenderedJson.of(restaurants),
+                PreRenderedJson.of(centralArea),
+                PreRenderedJson.of(noFlyZones),
+                new MenuIndex(restaurants),
+                new RegionIndex(centralArea, noFlyZones));
+    }
+}
@@ -0,0 +1,99 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * a value derived from the current data snapshot, built once per snapshot.
+ * <p>
+ * The value is built when a snapshot is published or, if a request sees the new snapshot before the listener of the
+ * provider has run, by that request. Whoever comes first claims the snapshot with a compare-and-set and builds the
+ * value, everyone else waits for that build - so the value of a snapshot is never built twice
+ * @param <T> the type of the value
+ */
+public final class SnapshotMemo<T> {
+
+    /**
+     * the value claimed for one snapshot
+     * @param snapshot the data the value is built from
+     * @param value completed when the build has finished
+     */
+    private record Entry<T>(IlpDataSnapshot snapshot, CompletableFuture<T> value) {
+    }
+
+    private final IlpDataProvider dataProvider;
+    private final String name;
+    private final IlpMetrics metrics;
+    private final Function<IlpDataSnapshot, T> builder;
+    private final AtomicReference<Entry<T>> current = new AtomicReference<>();
+
+    /**
+     * build the value for the current snapshot and rebuild it whenever a new snapshot is published
+     * @param dataProvider the data provider
+     * @param name the name of the value in the cache metrics
+     * @param builder builds the value from a snapshot
+     * @param metrics the metrics the accesses are counted in
+     */
+    public SnapshotMemo(IlpDataProvider dataProvider, String name, Function<IlpDataSnapshot, T> builder, IlpMetrics metrics) {
+        this.dataProvider = dataProvider;
+        this.name = name;
+        this.metrics = metrics;
+        this.builder = builder;
+        join(claim(dataProvider.current()));
+        dataProvider.addListener(this::claim);
+    }
+
+    /**
+     * @return the value for the current snapshot (waits if it is still being built)
+     */
+    public T get() {
+        var snapshot = dataProvider.current();
+        var entry = current.get();
+        boolean hit = entry != null && entry.snapshot() == snapshot;
+        metrics.countCacheAccess(name, hit);
+        return join(hit ? entry : claim(snapshot));
+    }
+
+    /**
+     * get the entry for the snapshot, building the value if no one has claimed the snapshot yet
+     */
+    private Entry<T> claim(IlpDataSnapshot snapshot) {
+        while (true) {
+            var entry = current.get();
+            if (entry != null && entry.snapshot().version() >= snapshot.version()) {
+                // claimed for this snapshot or a newer one
+                return entry;
+            }
+
+            var claimed = new Entry<T>(snapshot, new CompletableFuture<>());
+            if (current.compareAndSet(entry, claimed)) {
+                try {
+                    claimed.value().complete(builder.apply(snapshot));
+                } catch (RuntimeException | Error e) {
+                    claimed.value().completeExceptionally(e);
+                    // let the next access try again
+                    current.compareAndSet(claimed, entry);
+                }
+                return claimed;
+            }
+        }
+    }
+
+    private static <T> T join(Entry<T> entry) {
+        try {
+            return entry.value().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
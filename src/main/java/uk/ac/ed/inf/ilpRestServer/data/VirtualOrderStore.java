@@ -0,0 +1,180 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * an order store without any order data: the orders of a day are generated on demand with the rules of the sample
+ * data generator from (seed, date), so the same seed always gives the same orders and any date range can be served
+ * with constant memory. The orders of the most recently used days are kept in a small LRU cache.
+ * <p>
+ * Every day has the same number of orders (one invalid order per reason code plus the valid orders), so the position
+ * of an order is (day, number within the day). The generator numbers the orders by this position (see
+ * {@link OrderNumbers}), so an order number is inverted to find an order without generating anything but its day
+ */
+public final class VirtualOrderStore implements OrderStore {
+
+    /**
+     * the settings of the virtual dataset
+     * @param startDate the first day
+     * @param days the number of days
+     * @param seed the dataset seed
+     * @param validOrdersPerDay the number of valid orders per day
+     * @param cachedDays how many days are kept in the cache
+     */
+    public record Settings(LocalDate startDate, int days, long seed, int validOrdersPerDay, int cachedDays) {
+
+        public Settings {
+            if (days <= 0 || validOrdersPerDay < 0 || cachedDays <= 0) {
+                throw new IllegalArgumentException("days and cached days must be positive and orders per day must not be negative");
+            }
+        }
+    }
+
+    /**
+     * the generated orders of one day
+     */
+    private record Day(List<Order> orders, List<Order> maskedOrders) {
+    }
+
+    private final Settings settings;
+    private final Restaurant[] restaurants;
+    private final long firstEpochDay;
+    private final int ordersPerDay;
+    private final OrderNumbers orderNumbers;
+    private final Map<Long, Day> cache;
+    private final List<Order> orders = new OrderView(false);
+    private final List<Order> maskedOrders = new OrderView(true);
+
+    /**
+     * create the store
+     * @param settings the dataset settings
+     * @param restaurants the restaurants to order from
+     */
+    public VirtualOrderStore(Settings settings, Restaurant[] restaurants) {
+        this.settings = settings;
+        this.restaurants = restaurants;
+        this.firstEpochDay = settings.startDate().toEpochDay();
+        this.ordersPerDay = IlpOrdersSampleDataGenerator.ordersPerDay(settings.validOrdersPerDay());
+        this.orderNumbers = new OrderNumbers(settings.seed());
+
+        if ((long) settings.days() * ordersPerDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many virtual orders");
+        }
+        if (firstEpochDay < 0 || (firstEpochDay + settings.days()) * (long) ordersPerDay - 1 > OrderNumbers.MAX_POSITION) {
+            throw new IllegalArgumentException("the virtual dataset exceeds the 32-bit order number range");
+        }
+
+        this.cache = new LinkedHashMap<>(settings.cachedDays() * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Day> eldest) {
+                return size() > settings.cachedDays();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return settings.days() * ordersPerDay;
+    }
+
+    @Override
+    public long epochDay(int index) {
+        return firstEpochDay + index / ordersPerDay;
+    }
+
+    @Override
+    public int indexOf(String orderNo) {
+        long position = orderNumbers.position(orderNo);
+        if (position < 0) {
+            return -1;
+        }
+        long index = position - firstEpochDay * ordersPerDay;
+        return index < 0 || index >= size() ? -1 : (int) index;
+    }
+
+    @Override
+    public List<Order> all(boolean masked) {
+        return masked ? maskedOrders : orders;
+    }
+
+    /**
+     * get the orders of a day (from the cache or generated)
+     */
+    private Day day(long epochDay) {
+        synchronized (cache) {
+            var day = cache.get(epochDay);
+            if (day != null) {
+                return day;
+            }
+        }
+
+        // generated outside the lock - two threads generating the same day just produce the same orders
+        var generated = IlpOrdersSampleDataGenerator.ordersForDay(LocalDate.ofEpochDay(epochDay), settings.seed(),
+                settings.validOrdersPerDay(), restaurants);
+        if (generated.size() != ordersPerDay) {
+            throw new IllegalStateException("expected " + ordersPerDay + " orders per day, but got " + generated.size());
+        }
+        var maskedOrdersOfDay = new Order[generated.size()];
+        for (int i = 0; i < maskedOrdersOfDay.length; i++) {
+            maskedOrdersOfDay[i] = maskedCopy(generated.get(i));
+        }
+
+        var day = new Day(List.copyOf(generated), List.of(maskedOrdersOfDay));
+        synchronized (cache) {
+            cache.put(epochDay, day);
+        }
+        return day;
+    }
+
+    private static Order maskedCopy(Order order) {
+        var copy = new Order();
+        copy.setOrderNo(order.getOrderNo());
+        copy.setOrderDate(order.getOrderDate());
+        copy.setOrderStatus(OrderStatus.UNDEFINED);
+        copy.setInvalidOrderReasonCode(order.getInvalidOrderReasonCode());
+        copy.setPriceTotalInPence(order.getPriceTotalInPence());
+        copy.setPizzasInOrder(order.getPizzasInOrder().clone());
+        copy.setCustomer(order.getCustomer());
+        copy.setCreditCardNumber(order.getCreditCardNumber());
+        copy.setCreditCardExpiry(order.getCreditCardExpiry());
+        copy.setCvv(order.getCvv());
+        return copy;
+    }
+
+    /**
+     * the list view of all virtual orders - an order is generated (with its day) when it is accessed
+     */
+    private final class OrderView extends AbstractList<Order> implements RandomAccess {
+
+        private final boolean masked;
+
+        OrderView(boolean masked) {
+            this.masked = masked;
+        }
+
+        @Override
+        public Order get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            var day = day(firstEpochDay + index / ordersPerDay);
+            var ordersOfDay = masked ? day.maskedOrders() : day.orders();
+            return ordersOfDay.get(index % ordersPerDay);
+        }
+
+        @Override
+        public int size() {
+            return VirtualOrderStore.this.size();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * checks a flightpath move by move, so a path of any length can be verified while it is read.
+ * <p>
+ * Every move is checked against the no-fly-zones (bounding box rejection first, then exact segment / edge
+ * intersection). For the central area the rule is: once the drone has come back into the central area during an
+ * order it must not leave it again before the order ends. Violations are reported as soon as they are found
+ */
+public final class FlightpathVerifier {
+
+    private final RegionIndex regionIndex;
+    private final Consumer<FlightpathViolation> violations;
+
+    private long moveCount;
+    private long violationCount;
+
+    // central area state of the current order
+    private String currentOrderNo;
+    private boolean hasReentered;
+
+    // the previous point when the path is given as a plain sequence of points
+    private boolean hasPreviousPoint;
+    private double previousLng;
+    private double previousLat;
+
+    /**
+     * @param regionIndex the geometry of the current data
+     * @param violations receives the violations as they are found
+     */
+    public FlightpathVerifier(RegionIndex regionIndex, Consumer<FlightpathViolation> violations) {
+        this.regionIndex = regionIndex;
+        this.violations = violations;
+    }
+
+    /**
+     * @return the number of moves checked
+     */
+    public long moveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @return the number of violations found
+     */
+    public long violationCount() {
+        return violationCount;
+    }
+
+    /**
+     * check one move
+     * @param orderNo the order the move belongs to (can be null)
+     * @param fromLng start longitude
+     * @param fromLat start latitude
+     * @param toLng end longitude
+     * @param toLat end latitude
+     */
+    public void move(String orderNo, double fromLng, double fromLat, double toLng, double toLat) {
+        long move = moveCount++;
+
+        if (Objects.equals(orderNo, currentOrderNo) == false) {
+            currentOrderNo = orderNo;
+            hasReentered = false;
+        }
+
+        // a hover does not move the drone
+        if (fromLng == toLng && fromLat == toLat) {
+            return;
+        }
+
+        int zone = regionIndex.noFlyZoneCrossed(fromLng, fromLat, toLng, toLat);
+        if (zone >= 0) {
+            report(new FlightpathViolation(FlightpathViolation.NO_FLY_ZONE, move, orderNo, regionIndex.noFlyZoneName(zone),
+                    fromLng, fromLat, toLng, toLat));
+        }
+
+        boolean fromInside = regionIndex.isInCentralArea(fromLng, fromLat);
+        boolean toInside = regionIndex.isInCentralArea(toLng, toLat);
+        if (fromInside && toInside == false) {
+            if (hasReentered) {
+                report(new FlightpathViolation(FlightpathViolation.CENTRAL_AREA_REENTRY, move, orderNo, null,
+                        fromLng, fromLat, toLng, toLat));
+            }
+        } else if (fromInside == false && toInside) {
+            hasReentered = true;
+        }
+    }
+
+    /**
+     * check the move from the previous point to this one (for paths given as a plain sequence of points)
+     * @param lng the longitude
+     * @param lat the latitude
+     */
+    public void point(double lng, double lat) {
+        if (hasPreviousPoint) {
+            move(null, previousLng, previousLat, lng, lat);
+        }
+        hasPreviousPoint = true;
+        previousLng = lng;
+        previousLat = lat;
+    }
+
+    /**
+     * read and check a JSON flightpath from a stream. The path is an array of either moves
+     * (orderNo, fromLongitude, fromLatitude, toLongitude, toLatitude) or points (lng, lat).
+     * Only the current element is held in memory
+     * @param reader the JSON input
+     * @throws IOException if the input cannot be read or is not a flightpath
+     */
+    public void verify(JsonReader reader) throws IOException {
+        verify(reader, element -> { });
+    }
+
+    /**
+     * read and check a JSON flightpath from a stream like {@link #verify(JsonReader)}
+     * @param reader the JSON input
+     * @param progress receives the number of elements read after every element
+     * @throws IOException if the input cannot be read or is not a flightpath
+     */
+    public void verify(JsonReader reader, LongConsumer progress) throws IOException {
+        long element = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String orderNo = null;
+            double fromLng = Double.NaN, fromLat = Double.NaN, toLng = Double.NaN, toLat = Double.NaN;
+            double lng = Double.NaN, lat = Double.NaN;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                var name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "orderNo" -> orderNo = reader.nextString();
+                    case "fromLongitude" -> fromLng = reader.nextDouble();
+                    case "fromLatitude" -> fromLat = reader.nextDouble();
+                    case "toLongitude" -> toLng = reader.nextDouble();
+                    case "toLatitude" -> toLat = reader.nextDouble();
+                    case "lng" -> lng = reader.nextDouble();
+                    case "lat" -> lat = reader.nextDouble();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (Double.isNaN(fromLng) == false && Double.isNaN(fromLat) == false
+                    && Double.isNaN(toLng) == false && Double.isNaN(toLat) == false) {
+                move(orderNo, fromLng, fromLat, toLng, toLat);
+            } else if (Double.isNaN(lng) == false && Double.isNaN(lat) == false) {
+                point(lng, lat);
+            } else {
+                throw new IOException("element " + element + " is neither a move nor a point");
+            }
+            element++;
+            progress.accept(element);
+        }
+        reader.endArray();
+    }
+
+    private void report(FlightpathViolation violation) {
+        violationCount++;
+        violations.accept(violation);
+    }
+}
@@ -0,0 +1,19 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+/**
+ * a rule violation found in a flightpath
+ * @param type NO_FLY_ZONE or CENTRAL_AREA_REENTRY
+ * @param move the zero based index of the offending move
+ * @param orderNo the order the move belongs to (null if the path has no order numbers)
+ * @param noFlyZone the name of the no-fly-zone entered (null for other violations)
+ * @param fromLng start longitude of the move
+ * @param fromLat start latitude of the move
+ * @param toLng end longitude of the move
+ * @param toLat end latitude of the move
+ */
+public record FlightpathViolation(String type, long move, String orderNo, String noFlyZone,
+                                  double fromLng, double fromLat, double toLng, double toLat) {
+
+    public static final String NO_FLY_ZONE = "NO_FLY_ZONE";
+    public static final String CENTRAL_AREA_REENTRY = "CENTRAL_AREA_REENTRY";
+}
@@ -0,0 +1,421 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+import com.google.gson.stream.JsonWriter;
+import org.springframework.http.MediaType;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.data.PreRenderedJson;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * the reference data as GeoJSON features (delivery base, central area, no-fly-zones, restaurants and the convex hull
+ * and bounding box of the no-fly-zones), built once per data snapshot.
+ * <p>
+ * Bounding box queries go through a uniform grid over the extent of all features, so only the features of the
+ * overlapping cells are tested. The rendered FeatureCollections (plain and gzipped) are cached by the set of features
+ * they contain and the coordinate precision, so all viewports showing the same features share one response
+ */
+public final class GeoJsonLayers {
+
+    public static final String DELIVERY_BASE = "deliveryBase";
+    public static final String CENTRAL_AREA = "centralArea";
+    public static final String NO_FLY_ZONES = "noFlyZones";
+    public static final String RESTAURANTS = "restaurants";
+    public static final String CONVEX_HULL = "convexHull";
+    public static final String BOUNDING_BOX = "boundingBox";
+
+    /**
+     * all layers in the order they are rendered
+     */
+    public static final List<String> LAYERS = List.of(DELIVERY_BASE, CENTRAL_AREA, NO_FLY_ZONES, RESTAURANTS, CONVEX_HULL, BOUNDING_BOX);
+
+    /**
+     * the layers returned if none are requested (the content of the former static all.geojson)
+     */
+    public static final Set<String> DEFAULT_LAYERS = Set.of(DELIVERY_BASE, CENTRAL_AREA, NO_FLY_ZONES, RESTAURANTS);
+
+    /**
+     * the highest coordinate precision (decimal places) - more than a double can hold for these coordinates
+     */
+    public static final int MAX_PRECISION = 15;
+
+    public static final MediaType GEO_JSON = MediaType.parseMediaType("application/geo+json");
+
+    /**
+     * number of grid cells along each axis
+     */
+    private static final int GRID_SIZE = 16;
+
+    /**
+     * the number of rendered responses kept - the feature sets of typical viewports repeat, so few are needed
+     */
+    private static final int MAX_CACHED_RESPONSES = 256;
+
+    /**
+     * one feature. A point has a single position, a polygon a closed ring
+     */
+    private record Feature(String layer, boolean point, double[] xs, double[] ys, Map<String, String> properties,
+                           double minX, double maxX, double minY, double maxY) {
+
+        static Feature of(String layer, boolean point, double[] xs, double[] ys, Map<String, String> properties) {
+            return new Feature(layer, point, xs, ys, properties,
+                    Arrays.stream(xs).min().orElse(0), Arrays.stream(xs).max().orElse(0),
+                    Arrays.stream(ys).min().orElse(0), Arrays.stream(ys).max().orElse(0));
+        }
+
+        boolean overlaps(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY) {
+            return maxX >= queryMinX && minX <= queryMaxX && maxY >= queryMinY && minY <= queryMaxY;
+        }
+    }
+
+    /**
+     * a cached response: the features contained and the precision they were rendered with (-1 for full precision)
+     */
+    private record Key(BitSet features, int precision) {
+    }
+
+    private final Feature[] features;
+
+    private final double gridMinX;
+    private final double gridMinY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int[] cellStart;
+    private final int[] cellFeatures;
+
+    // guarded by itself
+    private final Map<Key, PreRenderedJson> responses;
+    private final IlpMetrics metrics;
+
+    /**
+     * build the features and the index
+     * @param centralArea the central area
+     * @param noFlyZones the no-fly-zones
+     * @param restaurants the restaurants
+     * @param deliveryBase the delivery base
+     * @param metrics the metrics the response cache accesses are counted in
+     */
+    public GeoJsonLayers(NamedRegion centralArea, NamedRegion[] noFlyZones, Restaurant[] restaurants, LngLat deliveryBase,
+                         IlpMetrics metrics) {
+        this.metrics = metrics;
+        var list = new ArrayList<Feature>();
+        list.add(point(DELIVERY_BASE, deliveryBase, properties("Appleton Tower", "marker-symbol", "building", "marker-color", "#ffff00")));
+        // regions without vertices have no geometry
+        if (hasVertices(centralArea)) {
+            list.add(polygon(CENTRAL_AREA, centralArea.vertices(), properties(centralArea.name(), "fill", "none")));
+        }
+        var zoneVertices = new ArrayList<LngLat>();
+        for (var zone : noFlyZones) {
+            if (hasVertices(zone) == false) {
+                continue;
+            }
+            list.add(polygon(NO_FLY_ZONES, zone.vertices(), properties(zone.name(), "fill", "#ff0000")));
+            zoneVertices.addAll(List.of(zone.vertices()));
+        }
+        for (var restaurant : restaurants) {
+            list.add(point(RESTAURANTS, restaurant.location(), properties(restaurant.name(), "marker-color", "#0000ff", "marker-symbol", "building")));
+        }
+        if (zoneVertices.isEmpty() == false) {
+            list.add(polygon(CONVEX_HULL, convexHull(zoneVertices), properties("No-fly-zones convex hull", "fill", "none")));
+            list.add(polygon(BOUNDING_BOX, boundingBox(zoneVertices), properties("No-fly-zones bounding box", "fill", "none")));
+        }
+        features = list.toArray(new Feature[0]);
+
+        // the grid covers the extent of all features
+        double extentMinX = Double.POSITIVE_INFINITY, extentMaxX = Double.NEGATIVE_INFINITY;
+        double extentMinY = Double.POSITIVE_INFINITY, extentMaxY = Double.NEGATIVE_INFINITY;
+        for (var feature : features) {
+            extentMinX = Math.min(extentMinX, feature.minX());
+            extentMaxX = Math.max(extentMaxX, feature.maxX());
+            extentMinY = Math.min(extentMinY, feature.minY());
+            extentMaxY = Math.max(extentMaxY, feature.maxY());
+        }
+        gridMinX = extentMinX;
+        gridMinY = extentMinY;
+        cellWidth = Math.max(extentMaxX - extentMinX, 1e-12) / GRID_SIZE;
+        cellHeight = Math.max(extentMaxY - extentMinY, 1e-12) / GRID_SIZE;
+
+        // compressed cell -> feature lists
+        List<List<Integer>> cells = new ArrayList<>(GRID_SIZE * GRID_SIZE);
+        for (int c = 0; c < GRID_SIZE * GRID_SIZE; c++) {
+            cells.add(new ArrayList<>());
+        }
+        for (int f = 0; f < features.length; f++) {
+            for (int cx = cellX(features[f].minX()); cx <= cellX(features[f].maxX()); cx++) {
+                for (int cy = cellY(features[f].minY()); cy <= cellY(features[f].maxY()); cy++) {
+                    cells.get(cy * GRID_SIZE + cx).add(f);
+                }
+            }
+        }
+        cellStart = new int[cells.size() + 1];
+        cellFeatures = new int[cells.stream().mapToInt(List::size).sum()];
+        int position = 0;
+        for (int c = 0; c < cells.size(); c++) {
+            cellStart[c] = position;
+            for (var feature : cells.get(c)) {
+                cellFeatures[position++] = feature;
+            }
+        }
+        cellStart[cells.size()] = position;
+
+        responses = new LinkedHashMap<>(MAX_CACHED_RESPONSES * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreRenderedJson> eldest) {
+                return size() > MAX_CACHED_RESPONSES;
+            }
+        };
+    }
+
+    /**
+     * the features of some layers as a FeatureCollection
+     * @param layers the layers to include
+     * @param bbox optional bounding box (minLng, minLat, maxLng, maxLat) - only features overlapping it are included
+     * @param precision the number of decimal places of the coordinates (-1 for full precision)
+     * @return the rendered FeatureCollection
+     */
+    public PreRenderedJson featureCollection(Set<String> layers, double[] bbox, int precision) {
+        var selected = bbox == null ? all() : query(bbox[0], bbox[1], bbox[2], bbox[3]);
+        for (int f = selected.nextSetBit(0); f >= 0; f = selected.nextSetBit(f + 1)) {
+            if (layers.contains(features[f].layer()) == false) {
+                selected.clear(f);
+            }
+        }
+
+        var key = new Key(selected, precision);
+        PreRenderedJson response;
+        synchronized (responses) {
+            response = responses.get(key);
+        }
+        metrics.countCacheAccess("geojson", response != null);
+        if (response == null) {
+            // rendered outside the lock - two threads rendering the same response just produce the same bytes
+            response = PreRenderedJson.of(render(selected, precision), GEO_JSON);
+            synchronized (responses) {
+                responses.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    private BitSet all() {
+        var selected = new BitSet(features.length);
+        selected.set(0, features.length);
+        return selected;
+    }
+
+    /**
+     * find the features whose bounding box overlaps the query box
+     */
+    private BitSet query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY) {
+        var selected = new BitSet(features.length);
+        if (queryMaxX < gridMinX || queryMinX > gridMinX + cellWidth * GRID_SIZE
+                || queryMaxY < gridMinY || queryMinY > gridMinY + cellHeight * GRID_SIZE) {
+            return selected;
+        }
+
+        for (int cx = cellX(queryMinX); cx <= cellX(queryMaxX); cx++) {
+            for (int cy = cellY(queryMinY); cy <= cellY(queryMaxY); cy++) {
+                int cell = cy * GRID_SIZE + cx;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int f = cellFeatures[i];
+                    if (selected.get(f) == false && features[f].overlaps(queryMinX, queryMinY, queryMaxX, queryMaxY)) {
+                        selected.set(f);
+                    }
+                }
+            }
+        }
+        return selected;
+    }
+
+    private byte[] render(BitSet selected, int precision) {
+        var out = new ByteArrayOutputStream(1024);
+        try (var writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.beginObject();
+            writer.name("type").value("FeatureCollection");
+            writer.name("features").beginArray();
+            for (int f = selected.nextSetBit(0); f >= 0; f = selected.nextSetBit(f + 1)) {
+                writeFeature(writer, features[f], precision);
+            }
+            writer.endArray();
+            writer.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeFeature(JsonWriter writer, Feature feature, int precision) throws IOException {
+        writer.beginObject();
+        writer.name("type").value("Feature");
+        writer.name("geometry").beginObject();
+        if (feature.point()) {
+            writer.name("type").value("Point");
+            writer.name("coordinates");
+            writePosition(writer, round(feature.xs()[0], precision), round(feature.ys()[0], precision));
+        } else {
+            writer.name("type").value("Polygon");
+            writer.name("coordinates").beginArray();
+            writeRing(writer, feature, precision);
+            writer.endArray();
+        }
+        writer.endObject();
+
+        writer.name("properties").beginObject();
+        writer.name("layer").value(feature.layer());
+        for (var property : feature.properties().entrySet()) {
+            writer.name(property.getKey()).value(property.getValue());
+        }
+        writer.endObject();
+        writer.endObject();
+    }
+
+    /**
+     * write a closed ring. Positions which become equal to their predecessor by the rounding are left out, as long
+     * as the ring keeps enough positions to be a polygon
+     */
+    private static void writeRing(JsonWriter writer, Feature feature, int precision) throws IOException {
+        var xs = feature.xs();
+        var ys = feature.ys();
+        var roundedX = new double[xs.length];
+        var roundedY = new double[ys.length];
+        int count = 0;
+        for (int i = 0; i < xs.length; i++) {
+            double x = round(xs[i], precision);
+            double y = round(ys[i], precision);
+            if (count > 0 && x == roundedX[count - 1] && y == roundedY[count - 1]) {
+                continue;
+            }
+            roundedX[count] = x;
+            roundedY[count] = y;
+            count++;
+        }
+
+        writer.beginArray();
+        if (count >= 4) {
+            for (int i = 0; i < count; i++) {
+                writePosition(writer, roundedX[i], roundedY[i]);
+            }
+        } else {
+            for (int i = 0; i < xs.length; i++) {
+                writePosition(writer, round(xs[i], precision), round(ys[i], precision));
+            }
+        }
+        writer.endArray();
+    }
+
+    private static void writePosition(JsonWriter writer, double x, double y) throws IOException {
+        writer.beginArray();
+        writer.value(x);
+        writer.value(y);
+        writer.endArray();
+    }
+
+    private static double round(double value, int precision) {
+        if (precision < 0) {
+            return value;
+        }
+        double scale = Math.pow(10, precision);
+        return Math.round(value * scale) / scale;
+    }
+
+    private int cellX(double x) {
+        return Math.min(GRID_SIZE - 1, Math.max(0, (int) Math.floor((x - gridMinX) / cellWidth)));
+    }
+
+    private int cellY(double y) {
+        return Math.min(GRID_SIZE - 1, Math.max(0, (int) Math.floor((y - gridMinY) / cellHeight)));
+    }
+
+    private static Feature point(String layer, LngLat position, Map<String, String> properties) {
+        return Feature.of(layer, true, new double[]{position.lng()}, new double[]{position.lat()}, properties);
+    }
+
+    /**
+     * a polygon feature - the ring is closed if the vertices are not
+     * @param vertices at least one vertex
+     */
+    private static Feature polygon(String layer, LngLat[] vertices, Map<String, String> properties) {
+        boolean closed = vertices.length > 0 && vertices[0].lng() == vertices[vertices.length - 1].lng()
+                && vertices[0].lat() == vertices[vertices.length - 1].lat();
+        int length = closed ? vertices.length : vertices.length + 1;
+        var xs = new double[length];
+        var ys = new double[length];
+        for (int i = 0; i < length; i++) {
+            var vertex = vertices[i % vertices.length];
+            xs[i] = vertex.lng();
+            ys[i] = vertex.lat();
+        }
+        return Feature.of(layer, false, xs, ys, properties);
+    }
+
+    private static boolean hasVertices(NamedRegion region) {
+        return region != null && region.vertices() != null && region.vertices().length > 0;
+    }
+
+    private static Map<String, String> properties(String name, String... style) {
+        var properties = new LinkedHashMap<String, String>();
+        properties.put("name", name);
+        for (int i = 0; i + 1 < style.length; i += 2) {
+            properties.put(style[i], style[i + 1]);
+        }
+        return properties;
+    }
+
+    /**
+     * the convex hull (monotone chain), counter-clockwise and closed
+     */
+    private static LngLat[] convexHull(List<LngLat> points) {
+        var sorted = points.stream()
+                .sorted(Comparator.comparingDouble(LngLat::lng).thenComparingDouble(LngLat::lat))
+                .toArray(LngLat[]::new);
+        if (sorted.length < 3) {
+            return sorted;
+        }
+
+        var hull = new LngLat[2 * sorted.length];
+        int size = 0;
+        // lower hull
+        for (var point : sorted) {
+            while (size >= 2 && cross(hull[size - 2], hull[size - 1], point) <= 0) {
+                size--;
+            }
+            hull[size++] = point;
+        }
+        // upper hull
+        for (int i = sorted.length - 2, lower = size + 1; i >= 0; i--) {
+            while (size >= lower && cross(hull[size - 2], hull[size - 1], sorted[i]) <= 0) {
+                size--;
+            }
+            hull[size++] = sorted[i];
+        }
+        // the last point repeats the first, which closes the ring
+        return Arrays.copyOf(hull, size);
+    }
+
+    private static double cross(LngLat o, LngLat a, LngLat b) {
+        return (a.lng() - o.lng()) * (b.lat() - o.lat()) - (a.lat() - o.lat()) * (b.lng() - o.lng());
+    }
+
+    private static LngLat[] boundingBox(List<LngLat> points) {
+        double minX = points.stream().mapToDouble(LngLat::lng).min().orElse(0);
+        double maxX = points.stream().mapToDouble(LngLat::lng).max().orElse(0);
+        double minY = points.stream().mapToDouble(LngLat::lat).min().orElse(0);
+        double maxY = points.stream().mapToDouble(LngLat::lat).max().orElse(0);
+        return new LngLat[]{new LngLat(minX, maxY), new LngLat(maxX, maxY), new LngLat(maxX, minY), new LngLat(minX, minY), new LngLat(minX, maxY)};
+    }
+}
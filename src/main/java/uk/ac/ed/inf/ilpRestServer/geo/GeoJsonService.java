@@ -0,0 +1,38 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+import org.springframework.stereotype.Service;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataSnapshot;
+import uk.ac.ed.inf.ilpRestServer.data.SnapshotMemo;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+import uk.ac.ed.inf.ilpRestServer.routing.RoutePlanner;
+
+/**
+ * memoizes the GeoJSON layers for the current data snapshot. They are rebuilt when a snapshot is published, so the
+ * GeoJSON always shows the regions and restaurants the other endpoints serve
+ */
+@Service
+public class GeoJsonService {
+
+    private final IlpMetrics metrics;
+    private final SnapshotMemo<GeoJsonLayers> layers;
+
+    public GeoJsonService(IlpDataProvider dataProvider, IlpMetrics metrics) {
+        this.metrics = metrics;
+        this.layers = new SnapshotMemo<>(dataProvider, "geojsonLayers", this::build, metrics);
+    }
+
+    /**
+     * get the layers of the current data
+     * @return the layers
+     */
+    public GeoJsonLayers layers() {
+        return layers.get();
+    }
+
+    private GeoJsonLayers build(IlpDataSnapshot snapshot) {
+        var referenceData = snapshot.referenceData();
+        return new GeoJsonLayers(referenceData.centralArea(), referenceData.noFlyZones(), referenceData.restaurants(),
+                RoutePlanner.DELIVERY_BASE, metrics);
+    }
+}
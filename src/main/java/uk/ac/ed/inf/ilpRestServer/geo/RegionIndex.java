@@ -0,0 +1,290 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * geometry engine over the central area and the no-fly-zones, built once when the data is loaded.
+ * <p>
+ * All polygon vertices are flattened into primitive arrays and every polygon has a bounding box. Point queries for the
+ * no-fly-zones go through a uniform grid over the zones' extent, so a point only is tested against the polygons
+ * whose bounding box overlaps its cell. The query methods do not allocate.
+ * <p>
+ * Points on the border of a polygon count as inside
+ */
+public final class RegionIndex {
+
+    /**
+     * number of grid cells along each axis
+     */
+    private static final int GRID_SIZE = 32;
+
+    /**
+     * tolerance for the on-border test
+     */
+    private static final double EPSILON = 1e-12;
+
+    private final String[] zoneNames;
+    private final int zoneCount;
+
+    // polygon 0..zoneCount-1 are the no-fly-zones, polygon zoneCount is the central area
+    private final int[] polygonStart;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] minX;
+    private final double[] maxX;
+    private final double[] minY;
+    private final double[] maxY;
+
+    private final double gridMinX;
+    private final double gridMinY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int[] cellStart;
+    private final int[] cellZones;
+
+    /**
+     * build the index
+     * @param centralArea the central area
+     * @param noFlyZones the no-fly-zones
+     */
+    public RegionIndex(NamedRegion centralArea, NamedRegion[] noFlyZones) {
+        zoneCount = noFlyZones.length;
+        zoneNames = new String[zoneCount];
+
+        var polygons = new ArrayList<LngLat[]>(zoneCount + 1);
+        for (int i = 0; i < zoneCount; i++) {
+            zoneNames[i] = noFlyZones[i].name();
+            polygons.add(noFlyZones[i].vertices());
+        }
+        polygons.add(centralArea.vertices());
+
+        int vertexCount = polygons.stream().mapToInt(p -> p.length).sum();
+        polygonStart = new int[polygons.size() + 1];
+        xs = new double[vertexCount];
+        ys = new double[vertexCount];
+        minX = new double[polygons.size()];
+        maxX = new double[polygons.size()];
+        minY = new double[polygons.size()];
+        maxY = new double[polygons.size()];
+
+        int next = 0;
+        for (int p = 0; p < polygons.size(); p++) {
+            polygonStart[p] = next;
+            minX[p] = minY[p] = Double.POSITIVE_INFINITY;
+            maxX[p] = maxY[p] = Double.NEGATIVE_INFINITY;
+            for (var vertex : polygons.get(p)) {
+                xs[next] = vertex.lng();
+                ys[next] = vertex.lat();
+                minX[p] = Math.min(minX[p], vertex.lng());
+                maxX[p] = Math.max(maxX[p], vertex.lng());
+                minY[p] = Math.min(minY[p], vertex.lat());
+                maxY[p] = Math.max(maxY[p], vertex.lat());
+                next++;
+            }
+        }
+        polygonStart[polygons.size()] = next;
+
+        // the grid covers the extent of all no-fly-zones
+        double extentMinX = Double.POSITIVE_INFINITY, extentMaxX = Double.NEGATIVE_INFINITY;
+        double extentMinY = Double.POSITIVE_INFINITY, extentMaxY = Double.NEGATIVE_INFINITY;
+        for (int z = 0; z < zoneCount; z++) {
+            extentMinX = Math.min(extentMinX, minX[z]);
+            extentMaxX = Math.max(extentMaxX, maxX[z]);
+            extentMinY = Math.min(extentMinY, minY[z]);
+            extentMaxY = Math.max(extentMaxY, maxY[z]);
+        }
+        if (zoneCount == 0) {
+            extentMinX = extentMaxX = extentMinY = extentMaxY = 0;
+        }
+        gridMinX = extentMinX;
+        gridMinY = extentMinY;
+        cellWidth = Math.max(extentMaxX - extentMinX, EPSILON) / GRID_SIZE;
+        cellHeight = Math.max(extentMaxY - extentMinY, EPSILON) / GRID_SIZE;
+
+        // compressed cell -> zone lists
+        List<List<Integer>> cells = new ArrayList<>(GRID_SIZE * GRID_SIZE);
+        for (int c = 0; c < GRID_SIZE * GRID_SIZE; c++) {
+            cells.add(new ArrayList<>());
+        }
+        for (int z = 0; z < zoneCount; z++) {
+            for (int cx = cellX(minX[z]); cx <= cellX(maxX[z]); cx++) {
+                for (int cy = cellY(minY[z]); cy <= cellY(maxY[z]); cy++) {
+                    cells.get(cy * GRID_SIZE + cx).add(z);
+                }
+            }
+        }
+        cellStart = new int[cells.size() + 1];
+        cellZones = new int[cells.stream().mapToInt(List::size).sum()];
+        int position = 0;
+        for (int c = 0; c < cells.size(); c++) {
+            cellStart[c] = position;
+            for (var zone : cells.get(c)) {
+                cellZones[position++] = zone;
+            }
+        }
+        cellStart[cells.size()] = position;
+    }
+
+    /**
+     * @return the number of no-fly-zones
+     */
+    public int noFlyZoneCount() {
+        return zoneCount;
+    }
+
+    /**
+     * @param zone the zone index
+     * @return the name of the no-fly-zone
+     */
+    public String noFlyZoneName(int zone) {
+        return zoneNames[zone];
+    }
+
+    /**
+     * @param lng the longitude
+     * @param lat the latitude
+     * @return true if the point is in the central area (or on its border)
+     */
+    public boolean isInCentralArea(double lng, double lat) {
+        return contains(zoneCount, lng, lat);
+    }
+
+    /**
+     * @param lng the longitude
+     * @param lat the latitude
+     * @return the index of the first no-fly-zone containing the point or -1 if none does
+     */
+    public int noFlyZoneAt(double lng, double lat) {
+        if (zoneCount == 0) {
+            return -1;
+        }
+        int cx = (int) Math.floor((lng - gridMinX) / cellWidth);
+        int cy = (int) Math.floor((lat - gridMinY) / cellHeight);
+        if (cx < 0 || cy < 0 || cx > GRID_SIZE || cy > GRID_SIZE) {
+            return -1;
+        }
+
+        // points exactly on the upper extent belong to the last cell
+        int cell = Math.min(cy, GRID_SIZE - 1) * GRID_SIZE + Math.min(cx, GRID_SIZE - 1);
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            if (contains(cellZones[i], lng, lat)) {
+                return cellZones[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * locate a batch of points
+     * @param lng the longitudes
+     * @param lat the latitudes
+     * @param inCentralArea receives for each point if it is in the central area
+     * @param noFlyZone receives for each point the no-fly-zone index or -1
+     */
+    public void locate(double[] lng, double[] lat, boolean[] inCentralArea, int[] noFlyZone) {
+        for (int i = 0; i < lng.length; i++) {
+            inCentralArea[i] = isInCentralArea(lng[i], lat[i]);
+            noFlyZone[i] = noFlyZoneAt(lng[i], lat[i]);
+        }
+    }
+
+    /**
+     * find a no-fly-zone touched by a straight move. Zones whose bounding box does not overlap the move's bounding
+     * box are rejected before any exact test
+     * @param fromLng start longitude
+     * @param fromLat start latitude
+     * @param toLng end longitude
+     * @param toLat end latitude
+     * @return the index of the first no-fly-zone the move enters or crosses or -1 if none
+     */
+    public int noFlyZoneCrossed(double fromLng, double fromLat, double toLng, double toLat) {
+        double segMinX = Math.min(fromLng, toLng), segMaxX = Math.max(fromLng, toLng);
+        double segMinY = Math.min(fromLat, toLat), segMaxY = Math.max(fromLat, toLat);
+
+        for (int z = 0; z < zoneCount; z++) {
+            if (segMaxX < minX[z] || segMinX > maxX[z] || segMaxY < minY[z] || segMinY > maxY[z]) {
+                continue;
+            }
+            if (contains(z, fromLng, fromLat) || contains(z, toLng, toLat) || crossesEdge(z, fromLng, fromLat, toLng, toLat)) {
+                return z;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * point in polygon test (crossing number) including the border
+     */
+    private boolean contains(int polygon, double x, double y) {
+        if (x < minX[polygon] || x > maxX[polygon] || y < minY[polygon] || y > maxY[polygon]) {
+            return false;
+        }
+
+        int start = polygonStart[polygon];
+        int end = polygonStart[polygon + 1];
+        boolean inside = false;
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            double xi = xs[i], yi = ys[i], xj = xs[j], yj = ys[j];
+            if (isOnSegment(x, y, xj, yj, xi, yi)) {
+                return true;
+            }
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * check if a segment intersects any edge of the polygon
+     */
+    private boolean crossesEdge(int polygon, double ax, double ay, double bx, double by) {
+        int start = polygonStart[polygon];
+        int end = polygonStart[polygon + 1];
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            if (segmentsIntersect(ax, ay, bx, by, xs[j], ys[j], xs[i], ys[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsIntersect(double ax, double ay, double bx, double by,
+                                             double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        return isOnSegment(ax, ay, cx, cy, dx, dy) || isOnSegment(bx, by, cx, cy, dx, dy)
+                || isOnSegment(cx, cy, ax, ay, bx, by) || isOnSegment(dx, dy, ax, ay, bx, by);
+    }
+
+    /**
+     * cross product of (b - a) x (p - a)
+     */
+    private static double cross(double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    private static boolean isOnSegment(double px, double py, double ax, double ay, double bx, double by) {
+        return Math.abs(cross(ax, ay, bx, by, px, py)) <= EPSILON
+                && px >= Math.min(ax, bx) - EPSILON && px <= Math.max(ax, bx) + EPSILON
+                && py >= Math.min(ay, by) - EPSILON && py <= Math.max(ay, by) + EPSILON;
+    }
+
+    private int cellX(double x) {
+        return Math.min(GRID_SIZE - 1, Math.max(0, (int) Math.floor((x - gridMinX) / cellWidth)));
+    }
+
+    private int cellY(double y) {
+        return Math.min(GRID_SIZE - 1, Math.max(0, (int) Math.floor((y - gridMinY) / cellHeight)));
+    }
+}
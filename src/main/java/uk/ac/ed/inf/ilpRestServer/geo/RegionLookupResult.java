@@ -0,0 +1,10 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+/**
+ * the result of locating a batch of points (column per property, one entry per point)
+ * @param inCentralArea for each point if it is in the central area
+ * @param noFlyZone for each point the index into noFlyZones of the zone it is in or -1
+ * @param noFlyZones the names of the no-fly-zones
+ */
+public record RegionLookupResult(boolean[] inCentralArea, int[] noFlyZone, String[] noFlyZones) {
+}
@@ -0,0 +1,405 @@
+package uk.ac.ed.inf.ilpRestServer.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.IlpRestServerApplication;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * a load generator replaying a mix of typical ILP client requests against a running server.
+ * <p>
+ * The load follows an open model: requests arrive at a fixed average rate with exponentially distributed gaps
+ * (Poisson arrivals), no matter how fast the server answers. Latencies are measured from the intended start of a
+ * request, so a server falling behind shows up in the percentiles instead of silently lowering the load
+ * (no coordinated omission). The requests are sent with the asynchronous HttpClient, so few threads keep any number
+ * of requests in flight.
+ * <p>
+ * Usage: <code>LoadTestDriver [--url=http://localhost:8080] [--rate=N] [--duration=seconds] [--warmup=seconds]
+ * [--mix=orders:30,restaurants:15,...] [--max-in-flight=N] [--seed=N] [--output=file] [--start-server]</code>
+ * <p>
+ * The endpoints of the mix are orders, restaurants, noFlyZones, centralArea, orderDetails and isAlive.
+ * With --start-server the server is started in this JVM on a random port (with the default configuration).
+ * The summary (throughput and latency percentiles per endpoint in milliseconds) is written as JSON
+ */
+public class LoadTestDriver {
+
+    /**
+     * the traffic mix used if none is given
+     */
+    public static final String DEFAULT_MIX = "orders:30,restaurants:15,noFlyZones:10,centralArea:10,orderDetails:25,isAlive:10";
+
+    /**
+     * how many orders are fetched at the start to build the order numbers and dates to request
+     */
+    private static final int SAMPLE_ORDER_COUNT = 2000;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * latencies are tracked up to this value with 3 significant digits
+     */
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    /**
+     * the driver settings taken from the command line
+     * @param url the base URL of the server
+     * @param rate the average number of requests per second
+     * @param durationSeconds how long the load is measured
+     * @param warmupSeconds how long the load runs before the measurement starts
+     * @param mix the relative weight per endpoint
+     * @param maxInFlight requests which would exceed this number of outstanding requests are dropped and counted
+     * @param seed the seed for the arrival times and the request selection
+     * @param outputFile the JSON summary to write
+     * @param startServer if true the server is started in this JVM
+     */
+    record LoadTestOptions(String url, double rate, int durationSeconds, int warmupSeconds, Map<String, Integer> mix,
+                           int maxInFlight, long seed, String outputFile, boolean startServer) {
+
+        static LoadTestOptions parse(String[] args) {
+            var url = "http://localhost:8080";
+            double rate = 200;
+            int durationSeconds = 60;
+            int warmupSeconds = 10;
+            var mix = DEFAULT_MIX;
+            int maxInFlight = 10_000;
+            long seed = System.nanoTime();
+            var outputFile = "loadtest-result.json";
+            boolean startServer = false;
+
+            for (var arg : args) {
+                var separator = arg.indexOf('=');
+                var name = separator < 0 ? arg : arg.substring(0, separator);
+                var value = separator < 0 ? null : arg.substring(separator + 1);
+
+                switch (name) {
+                    case "--url" -> url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    case "--rate" -> rate = Double.parseDouble(value);
+                    case "--duration" -> durationSeconds = Integer.parseInt(value);
+                    case "--warmup" -> warmupSeconds = Integer.parseInt(value);
+                    case "--mix" -> mix = value;
+                    case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--output" -> outputFile = value;
+                    case "--start-server" -> startServer = true;
+                    default -> throw new IllegalArgumentException("unknown option: " + arg);
+                }
+            }
+
+            if (rate <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || maxInFlight <= 0) {
+                throw new IllegalArgumentException("rate, duration and max-in-flight must be positive and warmup must not be negative");
+            }
+            return new LoadTestOptions(url, rate, durationSeconds, warmupSeconds, parseMix(mix), maxInFlight, seed, outputFile, startServer);
+        }
+
+        private static Map<String, Integer> parseMix(String mix) {
+            var result = new LinkedHashMap<String, Integer>();
+            for (var entry : mix.split(",")) {
+                var parts = entry.trim().split(":");
+                if (parts.length != 2 || Endpoint.byName(parts[0]) == null) {
+                    throw new IllegalArgumentException("invalid mix entry: " + entry);
+                }
+                int weight = Integer.parseInt(parts[1]);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("invalid mix weight: " + entry);
+                }
+                if (weight > 0) {
+                    result.put(parts[0], weight);
+                }
+            }
+            if (result.isEmpty()) {
+                throw new IllegalArgumentException("the mix is empty");
+            }
+            return result;
+        }
+    }
+
+    /**
+     * the endpoints of the traffic mix
+     */
+    enum Endpoint {
+        ORDERS("orders"),
+        RESTAURANTS("restaurants"),
+        NO_FLY_ZONES("noFlyZones"),
+        CENTRAL_AREA("centralArea"),
+        ORDER_DETAILS("orderDetails"),
+        IS_ALIVE("isAlive");
+
+        final String mixName;
+
+        Endpoint(String mixName) {
+            this.mixName = mixName;
+        }
+
+        static Endpoint byName(String mixName) {
+            for (var endpoint : values()) {
+                if (endpoint.mixName.equals(mixName)) {
+                    return endpoint;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param sample the orders to pick order numbers and dates from
+         * @param random the random generator
+         * @return the path of a request
+         */
+        String path(Order[] sample, SplittableRandom random) {
+            return switch (this) {
+                case ORDERS -> "/orders/" + sample[random.nextInt(sample.length)].getOrderDate();
+                case RESTAURANTS -> "/restaurants";
+                case NO_FLY_ZONES -> "/noFlyZones";
+                case CENTRAL_AREA -> "/centralArea";
+                case ORDER_DETAILS -> "/orders/" + sample[random.nextInt(sample.length)].getOrderNo() + "/details";
+                case IS_ALIVE -> "/isAlive";
+            };
+        }
+
+        boolean needsOrders() {
+            return this == ORDERS || this == ORDER_DETAILS;
+        }
+    }
+
+    /**
+     * the measured values of one endpoint (or all endpoints)
+     */
+    static final class EndpointStatistics {
+        final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+
+        void record(long latencyNanos, boolean error, long responseBytes) {
+            latencies.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+            bytes.addAndGet(responseBytes);
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+
+        LatencySummary summary(double seconds) {
+            long count = latencies.getTotalCount();
+            return new LatencySummary(count, errors.get(), count / seconds, bytes.get(),
+                    millis(latencies.getMean()),
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+        }
+
+        private static double millis(double nanos) {
+            return Math.round(nanos / 1_000) / 1_000.0;
+        }
+    }
+
+    /**
+     * the result for one endpoint, latencies in milliseconds
+     */
+    record LatencySummary(long requests, long errors, double throughputPerSecond, long responseBytes,
+                          double mean, double p50, double p90, double p99, double p999, double max) {
+    }
+
+    /**
+     * the JSON summary of a run
+     */
+    record LoadTestResult(String startedAt, String url, double targetRate, int durationSeconds, int warmupSeconds,
+                          Map<String, Integer> mix, long seed, long sent, long dropped, long maxInFlightObserved,
+                          LatencySummary total, Map<String, LatencySummary> endpoints) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext server = null;
+        var url = options.url();
+        if (options.startServer()) {
+            server = SpringApplication.run(IlpRestServerApplication.class, "--server.port=0");
+            url = "http://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort();
+        }
+
+        var executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            var client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            var result = new LoadTestDriver(client, url, options).run();
+            Files.writeString(Path.of(options.outputFile()), IlpJson.PRETTY_GSON.toJson(result), StandardCharsets.UTF_8);
+
+            System.out.printf("%d requests sent (%d dropped), %.1f responses/s, p50 %.3f ms, p99 %.3f ms, %d errors - summary written to %s%n",
+                    result.sent(), result.dropped(), result.total().throughputPerSecond(), result.total().p50(),
+                    result.total().p99(), result.total().errors(), options.outputFile());
+        } finally {
+            shutdown(executor);
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private final HttpClient client;
+    private final String url;
+    private final LoadTestOptions options;
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong maxInFlightObserved = new AtomicLong();
+
+    private LoadTestDriver(HttpClient client, String url, LoadTestOptions options) {
+        this.client = client;
+        this.url = url;
+        this.options = options;
+    }
+
+    private LoadTestResult run() throws IOException, InterruptedException {
+        var sample = sampleOrders();
+        var endpoints = new ArrayList<Endpoint>();
+        var cumulativeWeights = new ArrayList<Integer>();
+        int totalWeight = 0;
+        for (var entry : options.mix().entrySet()) {
+            var endpoint = Endpoint.byName(entry.getKey());
+            if (endpoint.needsOrders() && sample.length == 0) {
+                System.out.printf("the server has no orders - %s is left out of the mix%n", entry.getKey());
+                continue;
+            }
+            totalWeight += entry.getValue();
+            endpoints.add(endpoint);
+            cumulativeWeights.add(totalWeight);
+        }
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("nothing left in the mix to request");
+        }
+
+        var statistics = new EnumMap<Endpoint, EndpointStatistics>(Endpoint.class);
+        for (var endpoint : endpoints) {
+            statistics.put(endpoint, new EndpointStatistics());
+        }
+        var total = new EndpointStatistics();
+
+        System.out.printf("%.1f requests/s against %s for %d s (plus %d s warmup)%n",
+                options.rate(), url, options.durationSeconds(), options.warmupSeconds());
+
+        var random = new SplittableRandom(options.seed());
+        var startedAt = Instant.now().toString();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        double meanGapNanos = 1e9 / options.rate();
+
+        long sent = 0;
+        long dropped = 0;
+        long intendedStart = start;
+        while (true) {
+            // exponentially distributed gaps give Poisson arrivals
+            intendedStart += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights.get(index) <= pick) {
+                index++;
+            }
+            var endpoint = endpoints.get(index);
+            var path = endpoint.path(sample, random);
+            boolean measured = intendedStart >= measureFrom;
+
+            long outstanding = inFlight.incrementAndGet();
+            if (outstanding > options.maxInFlight()) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    dropped++;
+                }
+                continue;
+            }
+            maxInFlightObserved.accumulateAndGet(outstanding, Math::max);
+            if (measured) {
+                sent++;
+            }
+            send(path, intendedStart, measured ? statistics.get(endpoint) : null, measured ? total : null);
+        }
+
+        // let the outstanding requests finish
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        double seconds = options.durationSeconds();
+        var endpointSummaries = new LinkedHashMap<String, LatencySummary>();
+        statistics.forEach((endpoint, endpointStatistics) -> endpointSummaries.put(endpoint.mixName, endpointStatistics.summary(seconds)));
+        return new LoadTestResult(startedAt, url, options.rate(), options.durationSeconds(), options.warmupSeconds(),
+                options.mix(), options.seed(), sent, dropped, maxInFlightObserved.get(), total.summary(seconds), endpointSummaries);
+    }
+
+    /**
+     * send a request asynchronously and record its latency from the intended start
+     */
+    private void send(String path, long intendedStart, EndpointStatistics statistics, EndpointStatistics total) {
+        var request = HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+
+        // the body is only counted, not kept
+        var bytes = new AtomicLong();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArrayConsumer(chunk -> chunk.ifPresent(data -> bytes.addAndGet(data.length))))
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    inFlight.decrementAndGet();
+                    if (statistics != null) {
+                        boolean error = failure != null || response.statusCode() >= 400;
+                        statistics.record(latency, error, bytes.get());
+                        total.record(latency, error, bytes.get());
+                    }
+                });
+    }
+
+    /**
+     * get some orders from the server to request existing order numbers and dates
+     */
+    private Order[] sampleOrders() throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(url + "/orders?limit=" + SAMPLE_ORDER_COUNT))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("fetching sample orders failed with HTTP " + response.statusCode());
+        }
+        var orders = IlpJson.GSON.fromJson(response.body(), Order[].class);
+        return orders == null ? new Order[0] : orders;
+    }
+
+    private static void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(10, TimeUnit.SECONDS) == false) {
+            executor.shutdownNow();
+        }
+    }
+}
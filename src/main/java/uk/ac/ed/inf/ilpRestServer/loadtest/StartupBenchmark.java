@@ -0,0 +1,259 @@
+package uk.ac.ed.inf.ilpRestServer.loadtest;
+
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+import uk.ac.ed.inf.ilpRestServer.IlpRestServerApplication;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures how long a new server process takes until it answers correctly - the time an autoscaled node needs
+ * before it is useful.
+ * <p>
+ * Every run starts the server in a new JVM (with the classpath of this JVM) on a free port and polls
+ * /orders/{date} until it returns the orders of that date. The time from starting the process to the first correct
+ * response is measured, then the time until the readiness probe reports UP. The runs are sequential, so they do not
+ * compete for the CPUs.
+ * <p>
+ * Usage: <code>StartupBenchmark [--runs=N] [--profile=fast] [--jvm-args="-XX:SharedArchiveFile=ilp.jsa ..."]
+ * [--date=YYYY-MM-DD] [--timeout=seconds] [--output=file] [--verbose]</code>
+ * <p>
+ * The summary (per run and min / median / max in milliseconds) is written as JSON
+ */
+public class StartupBenchmark {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * the pause between two polls of a starting server
+     */
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    /**
+     * the benchmark settings taken from the command line
+     * @param runs how many server starts are measured
+     * @param profile the Spring profile(s) to start the server with (empty for the default configuration)
+     * @param jvmArgs additional JVM arguments of the server
+     * @param date the order date to request
+     * @param timeoutSeconds how long a start may take before the run fails
+     * @param outputFile the JSON summary to write
+     * @param verbose if true the server output is shown
+     */
+    record StartupOptions(int runs, String profile, List<String> jvmArgs, LocalDate date, int timeoutSeconds,
+                          String outputFile, boolean verbose) {
+
+        static StartupOptions parse(String[] args) {
+            int runs = 5;
+            var profile = "";
+            List<String> jvmArgs = List.of();
+            var date = IlpOrdersSampleDataGenerator.START_DATE;
+            int timeoutSeconds = 120;
+            var outputFile = "startup-result.json";
+            boolean verbose = false;
+
+            for (var arg : args) {
+                var separator = arg.indexOf('=');
+                var name = separator < 0 ? arg : arg.substring(0, separator);
+                var value = separator < 0 ? null : arg.substring(separator + 1);
+
+                switch (name) {
+                    case "--runs" -> runs = Integer.parseInt(value);
+                    case "--profile" -> profile = value;
+                    case "--jvm-args" -> jvmArgs = value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+                    case "--date" -> date = LocalDate.parse(value);
+                    case "--timeout" -> timeoutSeconds = Integer.parseInt(value);
+                    case "--output" -> outputFile = value;
+                    case "--verbose" -> verbose = true;
+                    default -> throw new IllegalArgumentException("unknown option: " + arg);
+                }
+            }
+
+            if (runs <= 0 || timeoutSeconds <= 0) {
+                throw new IllegalArgumentException("runs and timeout must be positive");
+            }
+            return new StartupOptions(runs, profile, jvmArgs, date, timeoutSeconds, outputFile, verbose);
+        }
+    }
+
+    /**
+     * the result of one server start, times in milliseconds from starting the process
+     * @param firstCorrectResponse until the first correct response
+     * @param ready until the readiness probe reported UP (-1 if it is not available)
+     * @param requests the number of polls until the first correct response
+     */
+    record StartupRun(double firstCorrectResponse, double ready, int requests) {
+    }
+
+    /**
+     * min / median / max of the runs in milliseconds
+     */
+    record StartupStatistics(double min, double median, double max) {
+
+        static StartupStatistics of(List<Double> values) {
+            var sorted = values.stream().sorted().toList();
+            if (sorted.isEmpty()) {
+                return new StartupStatistics(-1, -1, -1);
+            }
+            int middle = sorted.size() / 2;
+            double median = sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+            return new StartupStatistics(sorted.get(0), median, sorted.get(sorted.size() - 1));
+        }
+    }
+
+    /**
+     * the JSON summary of all runs
+     */
+    record StartupResult(String startedAt, String profile, List<String> jvmArgs, String path,
+                         StartupStatistics firstCorrectResponse, StartupStatistics ready, List<StartupRun> runs) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var options = StartupOptions.parse(args);
+        var path = "/orders/" + options.date();
+        var client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        var startedAt = Instant.now().toString();
+
+        var runs = new ArrayList<StartupRun>();
+        for (int i = 0; i < options.runs(); i++) {
+            var run = measureStart(client, options, path);
+            System.out.printf("run %d: first correct response after %.1f ms, ready after %.1f ms%n",
+                    i + 1, run.firstCorrectResponse(), run.ready());
+            runs.add(run);
+        }
+
+        var result = new StartupResult(startedAt, options.profile(), options.jvmArgs(), path,
+                StartupStatistics.of(runs.stream().map(StartupRun::firstCorrectResponse).toList()),
+                StartupStatistics.of(runs.stream().map(StartupRun::ready).filter(ready -> ready >= 0).toList()),
+                runs);
+        Files.writeString(Path.of(options.outputFile()), IlpJson.PRETTY_GSON.toJson(result), StandardCharsets.UTF_8);
+        System.out.printf("first correct response: median %.1f ms (min %.1f, max %.1f) - summary written to %s%n",
+                result.firstCorrectResponse().median(), result.firstCorrectResponse().min(),
+                result.firstCorrectResponse().max(), options.outputFile());
+    }
+
+    /**
+     * start one server process and measure it
+     */
+    private static StartupRun measureStart(HttpClient client, StartupOptions options, String path)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        var baseUrl = "http://localhost:" + port;
+
+        var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(options.jvmArgs());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(IlpRestServerApplication.class.getName());
+        command.add("--server.port=" + port);
+        if (options.profile().isBlank() == false) {
+            command.add("--spring.profiles.active=" + options.profile());
+        }
+
+        var processBuilder = new ProcessBuilder(command);
+        if (options.verbose()) {
+            processBuilder.inheritIO();
+        } else {
+            processBuilder.redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(options.timeoutSeconds());
+        var process = processBuilder.start();
+        try {
+            int requests = 0;
+            while (true) {
+                requests++;
+                if (isCorrect(get(client, baseUrl + path), options.date())) {
+                    break;
+                }
+                waitForNextPoll(process, deadline);
+            }
+            double firstCorrectResponse = millisSince(start);
+
+            double ready = -1;
+            while (true) {
+                var response = get(client, baseUrl + "/actuator/health/readiness");
+                if (response != null && response.statusCode() == 200) {
+                    ready = millisSince(start);
+                    break;
+                }
+                if (response != null && response.statusCode() == 404) {
+                    // no readiness probe in this configuration
+                    break;
+                }
+                waitForNextPoll(process, deadline);
+            }
+            return new StartupRun(firstCorrectResponse, ready, requests);
+        } finally {
+            process.destroy();
+            if (process.waitFor(30, TimeUnit.SECONDS) == false) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * @return the response or null if the server does not accept connections yet
+     */
+    private static HttpResponse<String> get(HttpClient client, String url) throws InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * a response is correct if it is a non-empty JSON array of orders which are all of the requested date
+     */
+    private static boolean isCorrect(HttpResponse<String> response, LocalDate date) {
+        if (response == null || response.statusCode() != 200) {
+            return false;
+        }
+        try {
+            var orders = IlpJson.GSON.fromJson(response.body(), Order[].class);
+            // an empty array is what a server without (or before loading) the orders returns
+            return orders != null && orders.length > 0 && Arrays.stream(orders).allMatch(order -> date.equals(order.getOrderDate()));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void waitForNextPoll(Process process, long deadline) throws IOException, InterruptedException {
+        if (process.isAlive() == false) {
+            throw new IOException("the server exited with " + process.exitValue() + " before it was ready");
+        }
+        if (System.nanoTime() > deadline) {
+            throw new IOException("the server was not ready within the timeout");
+        }
+        Thread.sleep(POLL_INTERVAL_MILLIS);
+    }
+
+    private static double millisSince(long start) {
+        return Math.round((System.nanoTime() - start) / 100_000.0) / 10.0;
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package uk.ac.ed.inf.ilpRestServer.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * the application specific metrics, recorded in the actuator registry. The meters are created once per tag value
+ * and then reused, so recording does not go through the registry lookup on every request.
+ * <p>
+ * Cache hits and misses are counters (tagged result=hit/miss) - the hit ratio is the ratio of their rates, which a
+ * gauge of the last value could not give
+ */
+@Component
+public class IlpMetrics {
+
+    /**
+     * the hit and miss counters of one cache
+     */
+    private record CacheCounters(Counter hits, Counter misses) {
+    }
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> loadTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> serializationTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> responseSizes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> notFound = new ConcurrentHashMap<>();
+    private final Map<String, CacheCounters> cacheRequests = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cacheEvictions = new ConcurrentHashMap<>();
+    private final Map<String, Counter> throttled = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry the registry the metrics are published in
+     */
+    public IlpMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * time the loading of a data file
+     * @param data which data is loaded (orders, restaurants, ...)
+     * @param loader the loading code
+     * @return the loaded data
+     */
+    public <T> T timeLoad(String data, Supplier<T> loader) {
+        return loadTimers.computeIfAbsent(data, tag -> Timer.builder("ilp.data.load")
+                .description("time to load and index a data file")
+                .tag("data", tag)
+                .register(registry))
+                .record(loader);
+    }
+
+    /**
+     * @param endpoint the endpoint writing the response
+     * @return the timer for writing (serializing) the response
+     */
+    public Timer serializationTimer(String endpoint) {
+        return serializationTimers.computeIfAbsent(endpoint, tag -> Timer.builder("ilp.response.serialization")
+                .description("time to serialize a streamed response")
+                .tag("endpoint", tag)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+    }
+
+    /**
+     * record the size of a response body
+     * @param endpoint the endpoint
+     * @param bytes the number of bytes sent
+     */
+    public void recordResponseSize(String endpoint, long bytes) {
+        responseSizes.computeIfAbsent(endpoint, tag -> DistributionSummary.builder("ilp.response.size")
+                .description("size of the response body")
+                .baseUnit("bytes")
+                .tag("endpoint", tag)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry))
+                .record(bytes);
+    }
+
+    /**
+     * count a request for an order which does not exist
+     * @param endpoint the endpoint
+     */
+    public void countNotFound(String endpoint) {
+        notFound.computeIfAbsent(endpoint, tag -> registry.counter("ilp.orders.not.found", "endpoint", tag)).increment();
+    }
+
+    /**
+     * count a cache access
+     * @param cache the name of the cache
+     * @param hit true for a hit
+     */
+    public void countCacheAccess(String cache, boolean hit) {
+        var counters = cacheRequests.computeIfAbsent(cache, tag -> new CacheCounters(
+                registry.counter("ilp.cache.requests", "cache", tag, "result", "hit"),
+                registry.counter("ilp.cache.requests", "cache", tag, "result", "miss")));
+        (hit ? counters.hits() : counters.misses()).increment();
+    }
+
+    /**
+     * count entries evicted from a cache because it is full
+     * @param cache the name of the cache
+     * @param count the number of evicted entries
+     */
+    public void countCacheEvictions(String cache, int count) {
+        cacheEvictions.computeIfAbsent(cache, tag -> registry.counter("ilp.cache.evictions", "cache", tag)).increment(count);
+    }
+
+    /**
+     * register the size of a cache in bytes
+     * @param cache the name of the cache
+     * @param state the cache (only weakly referenced)
+     * @param bytes gets the current size from the cache
+     */
+    public <T> void gaugeCacheSize(String cache, T state, ToDoubleFunction<T> bytes) {
+        Gauge.builder("ilp.cache.size", state, bytes)
+                .description("size of the cached entries")
+                .baseUnit("bytes")
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    /**
+     * count a request rejected by the admission control
+     * @param group the route group
+     */
+    public void countThrottled(String group) {
+        throttled.computeIfAbsent(group, tag -> registry.counter("ilp.admission.throttled", "group", tag)).increment();
+    }
+
+    /**
+     * count an error handled by the error page
+     * @param status the HTTP status code
+     */
+    public void countError(Integer status) {
+        var tag = status == null ? "unknown" : status.toString();
+        errors.computeIfAbsent(tag, value -> registry.counter("ilp.errors", "status", value)).increment();
+    }
+}
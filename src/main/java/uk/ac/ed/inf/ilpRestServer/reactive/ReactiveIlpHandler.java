@@ -0,0 +1,248 @@
+package uk.ac.ed.inf.ilpRestServer.reactive;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.TestItem;
+import uk.ac.ed.inf.ilpRestServer.controller.IlpRestService;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataSnapshot;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+import uk.ac.ed.inf.ilpRestServer.data.OrderPage;
+import uk.ac.ed.inf.ilpRestServer.data.PreRenderedJson;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * the non-blocking variant of {@link IlpRestService} for the reactive mode.
+ * Orders are emitted as a {@link Flux} which is only pulled as fast as the client reads, so a slow client holds
+ * neither a thread nor a rendered response. The reference data is served from {@link Mono}s cached per data snapshot
+ */
+public class ReactiveIlpHandler {
+
+    /**
+     * the cached reference data responses of one snapshot
+     */
+    private record ReferenceMonos(IlpDataSnapshot snapshot, Mono<PreRenderedJson> restaurants,
+                                  Mono<PreRenderedJson> centralArea, Mono<PreRenderedJson> noFlyZones) {
+
+        static ReferenceMonos of(IlpDataSnapshot snapshot) {
+            var referenceData = snapshot.referenceData();
+            return new ReferenceMonos(snapshot,
+                    Mono.just(referenceData.restaurantsJson()),
+                    Mono.just(referenceData.centralAreaJson()),
+                    Mono.just(referenceData.noFlyZonesJson()));
+        }
+    }
+
+    private static final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    private final IlpDataProvider dataProvider;
+    private final IlpMetrics metrics;
+    private volatile ReferenceMonos referenceMonos;
+
+    public ReactiveIlpHandler(IlpDataProvider dataProvider, IlpMetrics metrics) {
+        this.dataProvider = dataProvider;
+        this.metrics = metrics;
+        this.referenceMonos = ReferenceMonos.of(dataProvider.current());
+        dataProvider.addListener(snapshot -> referenceMonos = ReferenceMonos.of(snapshot));
+    }
+
+    /**
+     * the orders (masked) of all days or of the day in the path variable orderDate
+     */
+    public Mono<ServerResponse> orders(ServerRequest request) {
+        return streamOrders(request, true);
+    }
+
+    /**
+     * the orders (with outcome) of all days or of the day in the path variable orderDate
+     */
+    public Mono<ServerResponse> ordersWithOutcome(ServerRequest request) {
+        return streamOrders(request, false);
+    }
+
+    /**
+     * the details of the order in the path variable orderNo (404 if not found)
+     */
+    public Mono<ServerResponse> orderDetails(ServerRequest request) {
+        var order = dataProvider.current().orders().byOrderNo(request.pathVariable("orderNo"));
+        if (order == null) {
+            metrics.countNotFound("orderDetails");
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "order not found"));
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(order);
+    }
+
+    /**
+     * check the outcome of the order in the path variable orderNo against statusToCheck
+     */
+    public Mono<ServerResponse> isOrderOutcomeValid(ServerRequest request) {
+        OrderStatus statusToCheck;
+        try {
+            statusToCheck = OrderStatus.valueOf(request.pathVariable("statusToCheck"));
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid order status"));
+        }
+
+        var orderStore = dataProvider.current().orders();
+        var index = orderStore.indexOf(request.pathVariable("orderNo"));
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(index >= 0 && orderStore.orderStatus(index) == statusToCheck);
+    }
+
+    /**
+     * the outcome of the order in the path variable orderNo (404 if not found)
+     */
+    public Mono<ServerResponse> orderOutcome(ServerRequest request) {
+        var orderStore = dataProvider.current().orders();
+        var index = orderStore.indexOf(request.pathVariable("orderNo"));
+        if (index < 0) {
+            metrics.countNotFound("orderOutcome");
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "order not found"));
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(orderStore.orderStatus(index));
+    }
+
+    /**
+     * the restaurants (pre-rendered, supports If-None-Match and gzip)
+     */
+    public Mono<ServerResponse> restaurants(ServerRequest request) {
+        return referenceResponse(request, currentReferenceMonos().restaurants());
+    }
+
+    /**
+     * the central area (pre-rendered, supports If-None-Match and gzip)
+     */
+    public Mono<ServerResponse> centralArea(ServerRequest request) {
+        return referenceResponse(request, currentReferenceMonos().centralArea());
+    }
+
+    /**
+     * the no-fly-zones (pre-rendered, supports If-None-Match and gzip)
+     */
+    public Mono<ServerResponse> noFlyZones(ServerRequest request) {
+        return referenceResponse(request, currentReferenceMonos().noFlyZones());
+    }
+
+    /**
+     * echo the optional path variable input
+     */
+    public Mono<ServerResponse> test(ServerRequest request) {
+        var input = request.pathVariables().get("input");
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TestItem(String.format("Hello from the ILP-REST-Service. Your provided value was: %s", input == null ? "not provided" : input)));
+    }
+
+    /**
+     * a simple alive check (always true)
+     */
+    public Mono<ServerResponse> isAlive(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(true);
+    }
+
+    private ReferenceMonos currentReferenceMonos() {
+        var monos = referenceMonos;
+        var snapshot = dataProvider.current();
+        if (monos.snapshot() != snapshot) {
+            // the listener has not run yet for a just published snapshot
+            monos = ReferenceMonos.of(snapshot);
+            referenceMonos = monos;
+        }
+        return monos;
+    }
+
+    /**
+     * select the requested page of orders and stream it (same parameters and headers as the servlet variant).
+     * The virtual order store generates a whole day on a cache miss, so the orders are looked up and iterated
+     * on the bounded elastic scheduler and never on the event loop
+     */
+    private Mono<ServerResponse> streamOrders(ServerRequest request, boolean masked) {
+        var orderDate = request.pathVariables().get("orderDate");
+        var cursor = request.queryParam("cursor").orElse(null);
+        boolean ndjson = request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::includes);
+
+        return Mono.fromCallable(() -> {
+                    var orderStore = dataProvider.current().orders();
+                    var orders = orderDate != null ? orderStore.byDate(parseDate(orderDate), masked) : orderStore.all(masked);
+                    return OrderPage.of(orders, cursor, parseLimit(request));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(orderPage -> {
+                    var response = ServerResponse.ok().contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON);
+                    if (orderPage.nextCursor() != null) {
+                        response.header(IlpRestService.NEXT_CURSOR_HEADER, orderPage.nextCursor());
+                    }
+
+                    // the page of all orders is a view that generates the days as they are reached
+                    Flux<Order> page = Flux.fromIterable(orderPage.orders()).subscribeOn(Schedulers.boundedElastic());
+                    return response.body(BodyInserters.fromDataBuffers(ndjson ? encodeNdjson(page) : encodeJsonArray(page)));
+                });
+    }
+
+    /**
+     * the orders as newline delimited JSON, one buffer per order
+     */
+    private static Flux<DataBuffer> encodeNdjson(Flux<Order> orders) {
+        return orders.map(order -> buffer(IlpJson.GSON.toJson(order, Order.class) + '\n'));
+    }
+
+    /**
+     * the orders as a JSON array, one buffer per order
+     */
+    private static Flux<DataBuffer> encodeJsonArray(Flux<Order> orders) {
+        var elements = orders.index()
+                .map(indexed -> buffer((indexed.getT1() == 0 ? "" : ",") + IlpJson.GSON.toJson(indexed.getT2(), Order.class)));
+        return Flux.concat(Mono.fromSupplier(() -> buffer("[")), elements, Mono.fromSupplier(() -> buffer("]")));
+    }
+
+    private static DataBuffer buffer(String text) {
+        return bufferFactory.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * serve pre-rendered reference data with the same ETag and gzip handling as the servlet variant
+     */
+    private Mono<ServerResponse> referenceResponse(ServerRequest request, Mono<PreRenderedJson> json) {
+        var headers = request.headers();
+        return json.flatMap(preRendered -> {
+            var entity = preRendered.toResponse(headers.firstHeader(HttpHeaders.IF_NONE_MATCH), headers.firstHeader(HttpHeaders.ACCEPT_ENCODING));
+            metrics.countCacheAccess("etag", HttpStatus.NOT_MODIFIED.equals(entity.getStatusCode()));
+
+            var response = ServerResponse.status(entity.getStatusCode()).headers(h -> h.addAll(entity.getHeaders()));
+            return entity.getBody() == null ? response.build() : response.bodyValue(entity.getBody());
+        });
+    }
+
+    private static LocalDate parseDate(String orderDate) {
+        try {
+            return LocalDate.parse(orderDate);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid order date");
+        }
+    }
+
+    private static Integer parseLimit(ServerRequest request) {
+        var limit = request.queryParam("limit").orElse(null);
+        try {
+            return limit == null ? null : Integer.valueOf(limit);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid limit");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package uk.ac.ed.inf.ilpRestServer.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+/**
+ * the reactive mode (profile "reactive" or spring.main.web-application-type=reactive).
+ * The order and reference data routes are served by functional endpoints on Netty instead of the
+ * {@link uk.ac.ed.inf.ilpRestServer.controller.IlpRestService} controller on Tomcat
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfiguration {
+
+    /**
+     * Tomcat is on the classpath as well and would otherwise be preferred as the reactive server
+     * @return the Netty server factory
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveIlpHandler reactiveIlpHandler(IlpDataProvider dataProvider, IlpMetrics metrics) {
+        return new ReactiveIlpHandler(dataProvider, metrics);
+    }
+
+    /**
+     * the same routes as the servlet controller
+     * @param handler the handler
+     * @return the router
+     */
+    @Bean
+    public RouterFunction<ServerResponse> ilpRoutes(ReactiveIlpHandler handler) {
+        return RouterFunctions.route()
+                .GET("/orders", handler::orders)
+                .GET("/orders/{orderDate}", handler::orders)
+                .GET("/ordersWithOutcome", handler::ordersWithOutcome)
+                .GET("/ordersWithOutcome/{orderDate}", handler::ordersWithOutcome)
+                .GET("/orders/{orderNo}/details", handler::orderDetails)
+                .GET("/orders/{orderNo}/isOrderOutcomeValid/{statusToCheck}", handler::isOrderOutcomeValid)
+                .GET("/orders/{orderNo}/status", handler::orderOutcome)
+                .GET("/restaurants", handler::restaurants)
+                .GET("/centralArea", handler::centralArea)
+                .GET("/centralarea", handler::centralArea)
+                .GET("/noFlyZones", handler::noFlyZones)
+                .GET("/noflyzones", handler::noFlyZones)
+                .GET("/test", handler::test)
+                .GET("/test/{input}", handler::test)
+                .GET("/isAlive", handler::isAlive)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package uk.ac.ed.inf.ilpRestServer.routing;
+
+import java.util.Arrays;
+
+/**
+ * binary min-heap of (priority, node) pairs in primitive arrays - the open set of the route search
+ */
+final class NodeHeap {
+
+    private double[] priorities = new double[1024];
+    private int[] nodes = new int[1024];
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(double priority, int node) {
+        if (size == nodes.length) {
+            priorities = Arrays.copyOf(priorities, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            priorities[position] = priorities[parent];
+            nodes[position] = nodes[parent];
+            position = parent;
+        }
+        priorities[position] = priority;
+        nodes[position] = node;
+    }
+
+    /**
+     * @return the node with the lowest priority (removed from the heap)
+     */
+    int pop() {
+        int result = nodes[0];
+        size--;
+        double priority = priorities[size];
+        int node = nodes[size];
+
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            priorities[position] = priorities[child];
+            nodes[position] = nodes[child];
+            position = child;
+        }
+        priorities[position] = priority;
+        nodes[position] = node;
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package uk.ac.ed.inf.ilpRestServer.routing;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+/**
+ * a planned drone route
+ * @param restaurant the name of the restaurant the route starts at
+ * @param moveCount the number of moves
+ * @param angles the angle of every move (0 = east, counter-clockwise)
+ * @param path the positions, starting at the restaurant (moveCount + 1 entries)
+ */
+public record PlannedRoute(String restaurant, int moveCount, double[] angles, LngLat[] path) {
+}
@@ -0,0 +1,202 @@
+package uk.ac.ed.inf.ilpRestServer.routing;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilpRestServer.geo.RegionIndex;
+
+import java.util.Arrays;
+
+/**
+ * A* search for drone routes over the fixed move set (16 compass directions, fixed step length).
+ * <p>
+ * Positions are quantized into a long key (plus one bit recording if the drone has entered the central area), the
+ * visited set is a primitive long to int map and the open set a primitive binary heap, so a search does not box
+ * anything. Moves must not touch a no-fly-zone and once the drone has entered the central area it must not leave it
+ */
+public final class RoutePlanner {
+
+    /**
+     * the length of one move in degrees
+     */
+    public static final double MOVE_DISTANCE = 0.00015;
+
+    /**
+     * a position closer than this to the target counts as arrived
+     */
+    public static final double CLOSE_DISTANCE = 0.00015;
+
+    /**
+     * the delivery base (Appleton Tower)
+     */
+    public static final LngLat DELIVERY_BASE = new LngLat(-3.186874, 55.944494);
+
+    /**
+     * the search gives up after expanding this many positions
+     */
+    private static final int MAX_EXPANDED_NODES = 2_000_000;
+
+    private static final int DIRECTIONS = 16;
+    private static final double KEY_RESOLUTION = MOVE_DISTANCE / 4;
+    private static final double[] ANGLES = new double[DIRECTIONS];
+    private static final double[] STEP_LNG = new double[DIRECTIONS];
+    private static final double[] STEP_LAT = new double[DIRECTIONS];
+
+    static {
+        for (int i = 0; i < DIRECTIONS; i++) {
+            ANGLES[i] = i * 360.0 / DIRECTIONS;
+            STEP_LNG[i] = MOVE_DISTANCE * Math.cos(Math.toRadians(ANGLES[i]));
+            STEP_LAT[i] = MOVE_DISTANCE * Math.sin(Math.toRadians(ANGLES[i]));
+        }
+    }
+
+    private final RegionIndex regionIndex;
+
+    /**
+     * @param regionIndex the geometry the routes have to respect
+     */
+    public RoutePlanner(RegionIndex regionIndex) {
+        this.regionIndex = regionIndex;
+    }
+
+    /**
+     * plan a route
+     * @param name the name of the route (the restaurant)
+     * @param from the start
+     * @param to the target
+     * @return the route or null if no route was found
+     */
+    public PlannedRoute plan(String name, LngLat from, LngLat to) {
+        var search = new Search(to.lng(), to.lat());
+        int goal = search.run(from.lng(), from.lat());
+        return goal < 0 ? null : search.route(name, goal);
+    }
+
+    /**
+     * the state of one search - node data lives in parallel primitive arrays indexed by node number
+     */
+    private final class Search {
+        private final double targetLng;
+        private final double targetLat;
+
+        private double[] lng = new double[1024];
+        private double[] lat = new double[1024];
+        private double[] cost = new double[1024];
+        private int[] parent = new int[1024];
+        private byte[] direction = new byte[1024];
+        private boolean[] entered = new boolean[1024];
+        private boolean[] closed = new boolean[1024];
+        private int nodeCount;
+
+        private final LongIntHashMap nodeByKey = new LongIntHashMap(1 << 14);
+        private final NodeHeap open = new NodeHeap();
+
+        Search(double targetLng, double targetLat) {
+            this.targetLng = targetLng;
+            this.targetLat = targetLat;
+        }
+
+        /**
+         * @return the node which reached the target or -1
+         */
+        int run(double startLng, double startLat) {
+            int start = addNode(startLng, startLat, 0, -1, (byte) -1, regionIndex.isInCentralArea(startLng, startLat));
+            nodeByKey.put(key(startLng, startLat, entered[start]), start);
+            open.push(heuristic(startLng, startLat), start);
+
+            int expanded = 0;
+            while (open.isEmpty() == false && expanded < MAX_EXPANDED_NODES) {
+                int node = open.pop();
+                if (closed[node]) {
+                    continue;
+                }
+                closed[node] = true;
+                expanded++;
+
+                if (distance(lng[node], lat[node], targetLng, targetLat) < CLOSE_DISTANCE) {
+                    return node;
+                }
+
+                for (int d = 0; d < DIRECTIONS; d++) {
+                    double nextLng = lng[node] + STEP_LNG[d];
+                    double nextLat = lat[node] + STEP_LAT[d];
+                    boolean nextInside = regionIndex.isInCentralArea(nextLng, nextLat);
+
+                    // once in the central area the drone has to stay there
+                    if (entered[node] && nextInside == false) {
+                        continue;
+                    }
+                    if (regionIndex.noFlyZoneCrossed(lng[node], lat[node], nextLng, nextLat) >= 0) {
+                        continue;
+                    }
+
+                    boolean nextEntered = entered[node] || nextInside;
+                    double nextCost = cost[node] + MOVE_DISTANCE;
+                    long key = key(nextLng, nextLat, nextEntered);
+                    int existing = nodeByKey.get(key);
+                    if (existing >= 0 && (closed[existing] || cost[existing] <= nextCost)) {
+                        continue;
+                    }
+
+                    int next = addNode(nextLng, nextLat, nextCost, node, (byte) d, nextEntered);
+                    nodeByKey.put(key, next);
+                    open.push(nextCost + heuristic(nextLng, nextLat), next);
+                }
+            }
+            return -1;
+        }
+
+        PlannedRoute route(String name, int goal) {
+            int moveCount = 0;
+            for (int node = goal; parent[node] >= 0; node = parent[node]) {
+                moveCount++;
+            }
+
+            var angles = new double[moveCount];
+            var path = new LngLat[moveCount + 1];
+            int position = moveCount;
+            for (int node = goal; node >= 0; node = parent[node]) {
+                path[position] = new LngLat(lng[node], lat[node]);
+                if (parent[node] >= 0) {
+                    angles[position - 1] = ANGLES[direction[node]];
+                }
+                position--;
+            }
+            return new PlannedRoute(name, moveCount, angles, path);
+        }
+
+        private int addNode(double nodeLng, double nodeLat, double nodeCost, int nodeParent, byte nodeDirection, boolean nodeEntered) {
+            if (nodeCount == lng.length) {
+                int capacity = nodeCount * 2;
+                lng = Arrays.copyOf(lng, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                cost = Arrays.copyOf(cost, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                direction = Arrays.copyOf(direction, capacity);
+                entered = Arrays.copyOf(entered, capacity);
+                closed = Arrays.copyOf(closed, capacity);
+            }
+            lng[nodeCount] = nodeLng;
+            lat[nodeCount] = nodeLat;
+            cost[nodeCount] = nodeCost;
+            parent[nodeCount] = nodeParent;
+            direction[nodeCount] = nodeDirection;
+            entered[nodeCount] = nodeEntered;
+            return nodeCount++;
+        }
+
+        private double heuristic(double fromLng, double fromLat) {
+            return Math.max(0, distance(fromLng, fromLat, targetLng, targetLat) - CLOSE_DISTANCE);
+        }
+    }
+
+    private static long key(double lng, double lat, boolean entered) {
+        long x = Math.round(lng / KEY_RESOLUTION);
+        long y = Math.round(lat / KEY_RESOLUTION);
+        return (x << 33) ^ ((y & 0xFFFFFFFFL) << 1) ^ (entered ? 1 : 0);
+    }
+
+    private static double distance(double lng1, double lat1, double lng2, double lat2) {
+        double dLng = lng1 - lng2;
+        double dLat = lat1 - lat2;
+        return Math.sqrt(dLng * dLng + dLat * dLat);
+    }
+}
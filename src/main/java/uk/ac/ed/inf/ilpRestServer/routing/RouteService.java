@@ -0,0 +1,56 @@
+package uk.ac.ed.inf.ilpRestServer.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataSnapshot;
+import uk.ac.ed.inf.ilpRestServer.data.SnapshotMemo;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * memoizes the route from every restaurant to the delivery base for the current data snapshot.
+ * The routes are planned in parallel in the background as soon as a snapshot is published (including the one
+ * loaded at startup), a request only waits if its route is not finished yet
+ */
+@Service
+public class RouteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteService.class);
+
+    private final SnapshotMemo<Map<String, CompletableFuture<PlannedRoute>>> routes;
+
+    public RouteService(IlpDataProvider dataProvider, IlpMetrics metrics) {
+        this.routes = new SnapshotMemo<>(dataProvider, "routes", RouteService::planAll, metrics);
+    }
+
+    /**
+     * get the routes of all restaurants for the current data
+     * @return the planning per restaurant name (in restaurant order)
+     */
+    public Map<String, CompletableFuture<PlannedRoute>> routes() {
+        return routes.get();
+    }
+
+    private static Map<String, CompletableFuture<PlannedRoute>> planAll(IlpDataSnapshot snapshot) {
+        var referenceData = snapshot.referenceData();
+        var planner = new RoutePlanner(referenceData.regionIndex());
+        var routes = new LinkedHashMap<String, CompletableFuture<PlannedRoute>>();
+
+        for (var restaurant : referenceData.restaurants()) {
+            routes.put(restaurant.name(), CompletableFuture.supplyAsync(() -> {
+                var route = planner.plan(restaurant.name(), restaurant.location(), RoutePlanner.DELIVERY_BASE);
+                if (route == null) {
+                    logger.warn("no route found from {} to the delivery base", restaurant.name());
+                }
+                return route;
+            }));
+        }
+        return Collections.unmodifiableMap(routes);
+    }
+}
@@ -0,0 +1,146 @@
+package uk.ac.ed.inf.ilpRestServer.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpJson;
+import uk.ac.ed.inf.ilpRestServer.data.OrderJsonWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * warms the server up before it reports readiness: the data is loaded, the JSON serialization paths are run until
+ * they are compiled and every main endpoint is requested once over HTTP, so lazily created beans, the dispatcher,
+ * the analytics, the GeoJSON layers, the routes and the response cache of the first day with orders are ready too.
+ * <p>
+ * Spring Boot publishes the readiness (ACCEPTING_TRAFFIC) only after all application runners have finished, so a
+ * node only gets traffic once the warm-up is done. With ilp.startup.exit-after-warm-up the application exits right
+ * after the warm-up - this is the training run for a class data sharing archive
+ */
+@Component
+@ConditionalOnProperty(value = "ilp.startup.warm-up.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    /**
+     * the serialization is warmed up on at most this many orders, so the warm-up time does not grow with the data
+     */
+    static final int MAX_WARM_UP_ORDERS = 10_000;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final IlpDataProvider dataProvider;
+    private final ConfigurableApplicationContext context;
+    private final int iterations;
+    private final boolean exitAfterWarmUp;
+
+    public WarmUpRunner(IlpDataProvider dataProvider,
+                        ConfigurableApplicationContext context,
+                        @Value("${ilp.startup.warm-up.iterations:20}") int iterations,
+                        @Value("${ilp.startup.exit-after-warm-up:false}") boolean exitAfterWarmUp) {
+        this.dataProvider = dataProvider;
+        this.context = context;
+        this.iterations = iterations;
+        this.exitAfterWarmUp = exitAfterWarmUp;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        warmUpSerialization();
+        long serialized = System.nanoTime();
+        warmUpEndpoints();
+        long end = System.nanoTime();
+
+        logger.info("warm-up finished in {} ms (serialization {} ms, endpoints {} ms)",
+                TimeUnit.NANOSECONDS.toMillis(end - start),
+                TimeUnit.NANOSECONDS.toMillis(serialized - start),
+                TimeUnit.NANOSECONDS.toMillis(end - serialized));
+
+        if (exitAfterWarmUp) {
+            logger.info("exiting after the warm-up");
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * write (both variants, both formats) and read back a sample of the orders
+     */
+    private void warmUpSerialization() throws IOException {
+        var orders = dataProvider.current().orders();
+        int count = Math.min(orders.size(), MAX_WARM_UP_ORDERS);
+        List<Order> maskedOrders = orders.all(true).subList(0, count);
+        List<Order> ordersWithOutcome = orders.all(false).subList(0, count);
+
+        var rendered = new ByteArrayOutputStream();
+        OrderJsonWriter.writeJsonArray(ordersWithOutcome, rendered);
+        var json = rendered.toByteArray();
+
+        for (int i = 0; i < iterations; i++) {
+            OrderJsonWriter.writeJsonArray(maskedOrders, OutputStream.nullOutputStream());
+            OrderJsonWriter.writeJsonArray(ordersWithOutcome, OutputStream.nullOutputStream());
+            OrderJsonWriter.writeNdjson(ordersWithOutcome, OutputStream.nullOutputStream());
+            try (var reader = new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)) {
+                IlpJson.GSON.fromJson(reader, Order[].class);
+            }
+        }
+    }
+
+    /**
+     * request the main endpoints once, which also fills the response cache for the first day with orders
+     */
+    private void warmUpEndpoints() throws InterruptedException {
+        var webServer = context instanceof WebServerApplicationContext webContext ? webContext.getWebServer() : null;
+        if (webServer == null) {
+            return;
+        }
+        var baseUrl = "http://localhost:" + webServer.getPort();
+        var paths = new ArrayList<>(List.of("/isAlive", "/restaurants", "/centralArea", "/noFlyZones", "/orders?limit=100",
+                "/analytics/orders", "/analytics/orders/daily", "/analytics/revenue", "/analytics/pizzas",
+                "/geojson", "/geojson?layers=convexHull,boundingBox", "/routes"));
+        var orders = dataProvider.current().orders();
+        if (orders.size() > 0) {
+            // today usually has no orders, which would leave the order rendering cold
+            var firstDate = LocalDate.ofEpochDay(orders.epochDay(0));
+            paths.add("/orders/" + firstDate);
+            paths.add("/ordersWithOutcome/" + firstDate);
+        }
+
+        var client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        for (var path : paths) {
+            var request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+            try {
+                var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    logger.warn("warm-up request {} returned {}", path, response.statusCode());
+                }
+            } catch (IOException e) {
+                logger.warn("warm-up request {} failed", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+/**
+ * how far the analysis of a part has got
+ * @param part the part (deliveries, flightpath or drone)
+ * @param items the number of deliveries / moves / points read so far
+ * @param bytesRead the number of bytes read so far
+ * @param bytesTotal the size of the part (-1 if unknown)
+ */
+public record AnalysisProgress(String part, long items, long bytesRead, long bytesTotal) {
+}
@@ -0,0 +1,13 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * the final event of a submission analysis
+ * @param date the day the submission was checked against
+ * @param dataVersion the version of the data used
+ * @param parts the results of the submitted parts
+ */
+public record AnalysisSummary(LocalDate date, long dataVersion, List<PartSummary> parts) {
+}
@@ -0,0 +1,19 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+/**
+ * a delivery which does not match the orders of the day
+ * @param orderNo the order number (null if the delivery has none)
+ * @param problem what is wrong (one of the constants)
+ * @param expected the expected value (null if not applicable)
+ * @param actual the submitted value (null if not applicable)
+ */
+public record DeliveryProblem(String orderNo, String problem, String expected, String actual) {
+
+    public static final String MISSING_ORDER_NO = "MISSING_ORDER_NO";
+    public static final String UNKNOWN_ORDER = "UNKNOWN_ORDER";
+    public static final String DUPLICATE_ORDER = "DUPLICATE_ORDER";
+    public static final String WRONG_STATUS = "WRONG_STATUS";
+    public static final String WRONG_REASON_CODE = "WRONG_REASON_CODE";
+    public static final String WRONG_COST = "WRONG_COST";
+    public static final String MISSING_DELIVERY = "MISSING_DELIVERY";
+}
@@ -0,0 +1,11 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+/**
+ * the result of analyzing one part of a submission
+ * @param part the part (deliveries, flightpath or drone)
+ * @param items the number of deliveries / moves / points checked
+ * @param problems the number of problems found (only the first ones are sent as events)
+ * @param error why the part could not be read completely (null if it was)
+ */
+public record PartSummary(String part, long items, long problems, String error) {
+}
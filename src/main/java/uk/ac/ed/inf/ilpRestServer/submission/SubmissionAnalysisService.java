@@ -0,0 +1,133 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * analyzes submissions in the background: the parts of a submission are read and checked in parallel on a
+ * dedicated pool, so neither a request thread nor the common pool is blocked by reading large uploads
+ */
+@Service
+public class SubmissionAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionAnalysisService.class);
+
+    /**
+     * more analyses are rejected instead of queued - a queued analysis would only hold its upload longer
+     */
+    static final int MAX_CONCURRENT_ANALYSES = 16;
+
+    /**
+     * one submitted part
+     * @param content the content (closed when the part has been analyzed)
+     * @param size the size in bytes (-1 if unknown)
+     */
+    public record Part(InputStream content, long size) {
+    }
+
+    private final IlpDataProvider dataProvider;
+    private final Semaphore running = new Semaphore(MAX_CONCURRENT_ANALYSES);
+    private final ExecutorService executor;
+
+    public SubmissionAnalysisService(IlpDataProvider dataProvider) {
+        this.dataProvider = dataProvider;
+        var threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            var thread = new Thread(runnable, "ilp-submission-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * start the analysis of a submission. The parts are checked against the data current at the start
+     * @param date the day of the submission
+     * @param deliveries the deliveries JSON (null if not submitted)
+     * @param flightpath the flightpath JSON (null if not submitted)
+     * @param drone the drone GeoJSON (null if not submitted)
+     * @param events receives the problems and the progress of all parts followed by a final "summary" event
+     * @return completes when all parts have been analyzed (exceptionally if the client is gone)
+     * @throws IllegalStateException if too many analyses are running (the parts are closed then)
+     */
+    public CompletableFuture<AnalysisSummary> analyze(LocalDate date, Part deliveries, Part flightpath, Part drone,
+                                                      SubmissionEvents events) {
+        if (running.tryAcquire() == false) {
+            close(deliveries, flightpath, drone);
+            throw new IllegalStateException("too many submissions are being analyzed");
+        }
+
+        var snapshot = dataProvider.current();
+        var regionIndex = snapshot.referenceData().regionIndex();
+        var parts = new ArrayList<CompletableFuture<PartSummary>>(3);
+        if (deliveries != null) {
+            var ordersOfDay = snapshot.orders().byDate(date, false);
+            parts.add(submit(SubmissionAnalyzer.DELIVERIES, deliveries, events, analyzer -> analyzer.deliveries(ordersOfDay)));
+        }
+        if (flightpath != null) {
+            parts.add(submit(SubmissionAnalyzer.FLIGHTPATH, flightpath, events, analyzer -> analyzer.flightpath(regionIndex)));
+        }
+        if (drone != null) {
+            parts.add(submit(SubmissionAnalyzer.DRONE, drone, events, analyzer -> analyzer.drone(regionIndex)));
+        }
+
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    List<PartSummary> summaries = parts.stream().map(CompletableFuture::join).toList();
+                    var summary = new AnalysisSummary(date, snapshot.version(), summaries);
+                    events.send("summary", summary);
+                    return summary;
+                })
+                .whenComplete((summary, failure) -> running.release());
+    }
+
+    /**
+     * close parts which are not analyzed
+     * @param parts the parts (null entries are skipped)
+     */
+    public static void close(Part... parts) {
+        for (var part : parts) {
+            if (part == null) {
+                continue;
+            }
+            try {
+                part.content().close();
+            } catch (IOException e) {
+                logger.debug("closing a part failed", e);
+            }
+        }
+    }
+
+    private CompletableFuture<PartSummary> submit(String name, Part part, SubmissionEvents events,
+                                                  Function<SubmissionAnalyzer, PartSummary> analysis) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (var content = part.content()) {
+                var summary = analysis.apply(new SubmissionAnalyzer(name, content, part.size(), events));
+                logger.debug("analyzed {}: {} items, {} problems", name, summary.items(), summary.problems());
+                return summary;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+}
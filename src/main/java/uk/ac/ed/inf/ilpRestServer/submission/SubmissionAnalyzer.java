@@ -0,0 +1,252 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.geo.FlightpathVerifier;
+import uk.ac.ed.inf.ilpRestServer.geo.RegionIndex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * checks one part of a submission while it is read. Only the current delivery / move / point is held in memory
+ * (plus the order numbers of the day for the deliveries), so the size of a part does not matter.
+ * <p>
+ * Problems are sent as events named after the part as soon as they are found, progress events at most every
+ * {@link #PROGRESS_INTERVAL_MILLIS}. An analyzer is used by one thread only
+ */
+final class SubmissionAnalyzer {
+
+    static final String DELIVERIES = "deliveries";
+    static final String FLIGHTPATH = "flightpath";
+    static final String DRONE = "drone";
+
+    /**
+     * at most this many problems of a part are sent, the rest is only counted
+     */
+    static final int MAX_REPORTED_PROBLEMS = 1000;
+
+    static final long PROGRESS_INTERVAL_MILLIS = 250;
+
+    private final String part;
+    private final CountingInputStream input;
+    private final long size;
+    private final SubmissionEvents events;
+
+    private long items;
+    private long problems;
+    private long lastProgress = System.nanoTime();
+
+    /**
+     * @param part the part name
+     * @param input the content of the part
+     * @param size the size of the part (-1 if unknown)
+     * @param events receives the events
+     */
+    SubmissionAnalyzer(String part, InputStream input, long size, SubmissionEvents events) {
+        this.part = part;
+        this.input = new CountingInputStream(input);
+        this.size = size;
+        this.events = events;
+    }
+
+    /**
+     * check the deliveries (a JSON array of orderNo, orderStatus, orderValidationCode, costInPence) against the orders
+     * of the day: every order must be delivered exactly once with the status, reason code and total of the order
+     * @param ordersOfDay the orders of the submission day
+     * @return the summary
+     */
+    PartSummary deliveries(List<Order> ordersOfDay) {
+        var expected = new HashMap<String, Order>(ordersOfDay.size() * 4 / 3 + 1);
+        for (var order : ordersOfDay) {
+            expected.put(order.getOrderNo(), order);
+        }
+        var delivered = new HashSet<String>(expected.size() * 4 / 3 + 1);
+
+        return analyze(reader -> {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                checkDelivery(reader, expected, delivered);
+                item();
+            }
+            reader.endArray();
+
+            for (var order : ordersOfDay) {
+                if (delivered.contains(order.getOrderNo()) == false) {
+                    problem(new DeliveryProblem(order.getOrderNo(), DeliveryProblem.MISSING_DELIVERY, null, null));
+                }
+            }
+        });
+    }
+
+    /**
+     * check a flightpath (a JSON array of moves or points) against the no-fly-zones and the central area rule
+     * @param regionIndex the geometry of the data
+     * @return the summary
+     */
+    PartSummary flightpath(RegionIndex regionIndex) {
+        return analyze(reader -> new FlightpathVerifier(regionIndex, this::problem).verify(reader, element -> item()));
+    }
+
+    /**
+     * check the drone path of a GeoJSON document: the positions of every LineString geometry are checked as a path
+     * against the no-fly-zones and the central area rule. Other geometries are skipped
+     * @param regionIndex the geometry of the data
+     * @return the summary
+     */
+    PartSummary drone(RegionIndex regionIndex) {
+        return analyze(reader -> {
+            // walk the tokens instead of recursing into the document, so the nesting depth of the input does not matter
+            while (true) {
+                switch (reader.peek()) {
+                    case BEGIN_OBJECT -> reader.beginObject();
+                    case END_OBJECT -> reader.endObject();
+                    case BEGIN_ARRAY -> reader.beginArray();
+                    case END_ARRAY -> reader.endArray();
+                    case NAME -> {
+                        if ("coordinates".equals(reader.nextName())) {
+                            checkCoordinates(reader, regionIndex);
+                        }
+                    }
+                    case END_DOCUMENT -> {
+                        return;
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface PartReader {
+        void read(JsonReader reader) throws IOException;
+    }
+
+    private PartSummary analyze(PartReader partReader) {
+        String error = null;
+        try (var reader = new JsonReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)))) {
+            partReader.read(reader);
+        } catch (CancellationException e) {
+            // an IllegalStateException, but it aborts the analysis instead of ending the part with an error
+            throw e;
+        } catch (IOException | IllegalStateException | JsonParseException | NumberFormatException e) {
+            error = e.getMessage();
+        }
+        events.send("progress", new AnalysisProgress(part, items, input.count(), size));
+        return new PartSummary(part, items, problems, error);
+    }
+
+    private void checkDelivery(JsonReader reader, HashMap<String, Order> expected, HashSet<String> delivered) throws IOException {
+        String orderNo = null;
+        String status = null;
+        String reasonCode = null;
+        Integer cost = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            var name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "orderNo" -> orderNo = reader.nextString();
+                case "orderStatus" -> status = reader.nextString();
+                case "orderValidationCode", "invalidOrderReasonCode" -> reasonCode = reader.nextString();
+                case "costInPence", "priceTotalInPence" -> cost = reader.nextInt();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (orderNo == null) {
+            problem(new DeliveryProblem(null, DeliveryProblem.MISSING_ORDER_NO, null, null));
+            return;
+        }
+        var order = expected.get(orderNo);
+        if (order == null) {
+            problem(new DeliveryProblem(orderNo, DeliveryProblem.UNKNOWN_ORDER, null, null));
+            return;
+        }
+        if (delivered.add(orderNo) == false) {
+            problem(new DeliveryProblem(orderNo, DeliveryProblem.DUPLICATE_ORDER, null, null));
+            return;
+        }
+
+        var expectedStatus = order.getOrderStatus() == null ? null : order.getOrderStatus().name();
+        if (Objects.equals(expectedStatus, status) == false) {
+            problem(new DeliveryProblem(orderNo, DeliveryProblem.WRONG_STATUS, expectedStatus, status));
+        }
+        var expectedReasonCode = order.getInvalidOrderReasonCode() == null ? null : order.getInvalidOrderReasonCode().name();
+        if (Objects.equals(expectedReasonCode, reasonCode) == false) {
+            problem(new DeliveryProblem(orderNo, DeliveryProblem.WRONG_REASON_CODE, expectedReasonCode, reasonCode));
+        }
+        if (cost != null && cost != order.getPriceTotalInPence()) {
+            problem(new DeliveryProblem(orderNo, DeliveryProblem.WRONG_COST, Integer.toString(order.getPriceTotalInPence()), cost.toString()));
+        }
+    }
+
+    /**
+     * check the value of a coordinates member. Only a list of positions (a LineString) is a path - single positions
+     * and deeper nested rings (polygons) are skipped
+     */
+    private void checkCoordinates(JsonReader reader, RegionIndex regionIndex) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginArray();
+        // every line is a path of its own
+        var verifier = new FlightpathVerifier(regionIndex, this::problem);
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            if (reader.hasNext() && reader.peek() == JsonToken.NUMBER) {
+                double lng = reader.nextDouble();
+                double lat = reader.nextDouble();
+                verifier.point(lng, lat);
+                item();
+            }
+            // an altitude or the rest of a ring
+            while (reader.hasNext()) {
+                reader.skipValue();
+            }
+            reader.endArray();
+        }
+        reader.endArray();
+    }
+
+    private void item() {
+        items++;
+        if ((items & 1023) == 0) {
+            if (events.cancelled()) {
+                throw new CancellationException("analysis of " + part + " cancelled");
+            }
+            long now = System.nanoTime();
+            if (now - lastProgress >= TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MILLIS)) {
+                lastProgress = now;
+                events.send("progress", new AnalysisProgress(part, items, input.count(), size));
+            }
+        }
+    }
+
+    private void problem(Object problem) {
+        if (problems++ < MAX_REPORTED_PROBLEMS) {
+            events.send(part, problem);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+/**
+ * receives the events of a running submission analysis. The parts are analyzed in parallel, so an implementation
+ * must accept events from several threads
+ */
+public interface SubmissionEvents {
+
+    /**
+     * send an event to the client
+     * @param name the event name
+     * @param data the event data (serialized as JSON)
+     * @throws java.util.concurrent.CancellationException if the client is gone - the analysis is aborted then
+     */
+    void send(String name, Object data);
+
+    /**
+     * @return true if the client is gone and the analysis should stop
+     */
+    boolean cancelled();
+}
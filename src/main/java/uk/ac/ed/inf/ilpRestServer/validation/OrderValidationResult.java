@@ -0,0 +1,14 @@
+package uk.ac.ed.inf.ilpRestServer.validation;
+
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+
+/**
+ * the outcome of validating one order
+ * @param orderNo the order number
+ * @param orderStatus INVALID or (for a valid order) DELIVERED as in the sample data
+ * @param invalidOrderReasonCode the reason why the order is invalid (NO_ERROR for a valid order, null if the order
+ *                               has no date)
+ */
+public record OrderValidationResult(String orderNo, OrderStatus orderStatus, InvalidOrderReasonCode invalidOrderReasonCode) {
+}
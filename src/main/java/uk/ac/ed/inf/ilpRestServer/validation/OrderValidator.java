@@ -0,0 +1,141 @@
+package uk.ac.ed.inf.ilpRestServer.validation;
+
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilpRestServer.data.MenuIndex;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+/**
+ * validates orders against the rules the sample data generator encodes in the InvalidOrderReasonCode mutations
+ */
+public final class OrderValidator {
+
+    /**
+     * the maximum number of pizzas in one order
+     */
+    public static final int MAX_PIZZAS_PER_ORDER = 4;
+
+    /**
+     * below this batch size the orders are validated on the calling thread
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final MenuIndex menuIndex;
+
+    /**
+     * @param menuIndex the index over the current restaurant menus
+     */
+    public OrderValidator(MenuIndex menuIndex) {
+        this.menuIndex = menuIndex;
+    }
+
+    /**
+     * validate a batch of orders (in parallel for larger batches)
+     * @param orders the orders
+     * @return the results in the same order as the orders
+     */
+    public OrderValidationResult[] validate(Order[] orders) {
+        var results = new OrderValidationResult[orders.length];
+        var indexes = IntStream.range(0, orders.length);
+        if (orders.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = validate(orders[i]));
+        return results;
+    }
+
+    /**
+     * validate a single order. An order without a date cannot be checked against the card expiry and the opening
+     * days, so it is INVALID without a reason code
+     * @param order the order
+     * @return the validation result
+     */
+    public OrderValidationResult validate(Order order) {
+        if (order.getOrderDate() == null) {
+            return new OrderValidationResult(order.getOrderNo(), OrderStatus.INVALID, null);
+        }
+
+        var reason = findReason(order);
+        var status = reason == InvalidOrderReasonCode.NO_ERROR ? OrderStatus.DELIVERED : OrderStatus.INVALID;
+        return new OrderValidationResult(order.getOrderNo(), status, reason);
+    }
+
+    /**
+     * find the first rule the order breaks
+     */
+    private InvalidOrderReasonCode findReason(Order order) {
+        var orderDate = order.getOrderDate();
+
+        if (isDigits(order.getCreditCardNumber(), 16) == false) {
+            return InvalidOrderReasonCode.CARD_NUMBER;
+        }
+        if (isExpiryValid(order.getCreditCardExpiry(), orderDate) == false) {
+            return InvalidOrderReasonCode.EXPIRY_DATE;
+        }
+        if (isDigits(order.getCvv(), 3) == false) {
+            return InvalidOrderReasonCode.CVV;
+        }
+
+        var pizzas = order.getPizzasInOrder() != null ? order.getPizzasInOrder() : new Pizza[0];
+        if (pizzas.length > MAX_PIZZAS_PER_ORDER) {
+            return InvalidOrderReasonCode.MAX_PIZZA_COUNT_EXCEEDED;
+        }
+
+        int restaurant = -1;
+        int total = SystemConstants.ORDER_CHARGE_IN_PENCE;
+        for (var pizza : pizzas) {
+            int pizzaRestaurant = menuIndex.restaurantOf(pizza.name());
+            if (pizzaRestaurant < 0) {
+                return InvalidOrderReasonCode.PIZZA_NOT_DEFINED;
+            }
+            if (restaurant >= 0 && pizzaRestaurant != restaurant) {
+                return InvalidOrderReasonCode.MULTIPLE_RESTAURANTS;
+            }
+            restaurant = pizzaRestaurant;
+            total += pizza.priceInPence();
+        }
+
+        if (restaurant >= 0 && menuIndex.isOpen(restaurant, orderDate.getDayOfWeek()) == false) {
+            return InvalidOrderReasonCode.RESTAURANT_CLOSED;
+        }
+        if (total != order.getPriceTotalInPence()) {
+            return InvalidOrderReasonCode.TOTAL;
+        }
+        return InvalidOrderReasonCode.NO_ERROR;
+    }
+
+    private static boolean isDigits(String value, int length) {
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * the expiry (MM/YY) is valid up to the last day of the month
+     */
+    private static boolean isExpiryValid(String expiry, LocalDate orderDate) {
+        if (expiry == null || expiry.length() != 5 || expiry.charAt(2) != '/'
+                || isDigits(expiry.substring(0, 2), 2) == false || isDigits(expiry.substring(3), 2) == false) {
+            return false;
+        }
+
+        int month = Integer.parseInt(expiry, 0, 2, 10);
+        int year = 2000 + Integer.parseInt(expiry, 3, 5, 10);
+        if (month < 1 || month > 12) {
+            return false;
+        }
+        return LocalDate.of(year, month, 1).plusMonths(1).isAfter(orderDate);
+    }
+}
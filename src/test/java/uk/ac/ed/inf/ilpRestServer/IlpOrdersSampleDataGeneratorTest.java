@@ -0,0 +1,55 @@
+package uk.ac.ed.inf.ilpRestServer;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IlpOrdersSampleDataGeneratorTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    void orderNumbersAreUniqueWithinADataset() {
+        var restaurants = TestData.restaurants();
+        var orderNumbers = new HashSet<String>();
+        int count = 0;
+        for (int day = 0; day < 60; day++) {
+            for (var order : IlpOrdersSampleDataGenerator.ordersForDay(IlpOrdersSampleDataGenerator.START_DATE.plusDays(day), SEED, 500, restaurants)) {
+                orderNumbers.add(order.getOrderNo());
+                count++;
+            }
+        }
+        assertEquals(60 * IlpOrdersSampleDataGenerator.ordersPerDay(500), count);
+        assertEquals(count, orderNumbers.size());
+    }
+
+    @Test
+    void sameSeedGivesTheSameOrders() {
+        var restaurants = TestData.restaurants();
+        var date = IlpOrdersSampleDataGenerator.START_DATE.plusDays(3);
+        var first = IlpOrdersSampleDataGenerator.ordersForDay(date, SEED, 20, restaurants);
+        var second = IlpOrdersSampleDataGenerator.ordersForDay(date, SEED, 20, restaurants);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(describe(first.get(i)), describe(second.get(i)));
+        }
+        assertNotEquals(describe(first.get(0)), describe(IlpOrdersSampleDataGenerator.ordersForDay(date, SEED + 1, 20, restaurants).get(0)));
+    }
+
+    @Test
+    void datasetsWithoutOrderNumbersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> IlpOrdersSampleDataGenerator.GeneratorOptions.parse(new String[]{"--start=1969-12-31"}));
+        assertThrows(IllegalArgumentException.class, () -> IlpOrdersSampleDataGenerator.GeneratorOptions.parse(new String[]{"--orders-per-day=1000000"}));
+    }
+
+    private static String describe(Order order) {
+        return String.join("|", order.getOrderNo(), String.valueOf(order.getOrderDate()), String.valueOf(order.getOrderStatus()),
+                String.valueOf(order.getInvalidOrderReasonCode()), String.valueOf(order.getPriceTotalInPence()),
+                order.getCustomer(), order.getCreditCardNumber(), order.getCreditCardExpiry(), order.getCvv(),
+                String.valueOf(order.getPizzasInOrder().length));
+    }
+}
@@ -0,0 +1,61 @@
+package uk.ac.ed.inf.ilpRestServer;
+
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * small, fixed data objects shared by the tests
+ */
+public final class TestData {
+
+    private TestData() {
+    }
+
+    /**
+     * @return three restaurants - on every day of the week at least one of them is closed
+     */
+    public static Restaurant[] restaurants() {
+        return new Restaurant[]{
+                new Restaurant("Civerinos Slice", new LngLat(-3.1912869215011597, 55.945535152517735),
+                        new DayOfWeek[]{DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY},
+                        new Pizza[]{new Pizza("R1: Margarita", 1000), new Pizza("R1: Calzone", 1400)}),
+                new Restaurant("Sora Lella Vegan Restaurant", new LngLat(-3.202541470527649, 55.943284737579376),
+                        new DayOfWeek[]{DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY},
+                        new Pizza[]{new Pizza("R2: Meat Lover", 1400), new Pizza("R2: Vegan Delight", 1100)}),
+                new Restaurant("Domino's Pizza - Edinburgh - Southside", new LngLat(-3.1838572025299072, 55.94449876875712),
+                        new DayOfWeek[]{DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY},
+                        new Pizza[]{new Pizza("R3: Super Cheese", 1400), new Pizza("R3: All Shrooms", 900)})
+        };
+    }
+
+    /**
+     * create a delivered order
+     * @param orderNo the order number
+     * @param date the order date
+     * @param pizzas the pizzas (the total is their sum plus the order charge)
+     * @return the order
+     */
+    public static Order order(String orderNo, LocalDate date, Pizza... pizzas) {
+        var order = new Order();
+        order.setOrderNo(orderNo);
+        order.setOrderDate(date);
+        order.setOrderStatus(OrderStatus.DELIVERED);
+        order.setInvalidOrderReasonCode(InvalidOrderReasonCode.NO_ERROR);
+        order.setPizzasInOrder(pizzas);
+        order.setPriceTotalInPence(Arrays.stream(pizzas).mapToInt(Pizza::priceInPence).sum() + SystemConstants.ORDER_CHARGE_IN_PENCE);
+        order.setCustomer("Customer " + orderNo);
+        order.setCreditCardNumber("4111111111111111");
+        order.setCreditCardExpiry("12/28");
+        order.setCvv("123");
+        return order;
+    }
+}
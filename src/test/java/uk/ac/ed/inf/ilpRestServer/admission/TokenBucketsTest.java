@@ -0,0 +1,120 @@
+package uk.ac.ed.inf.ilpRestServer.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    /**
+     * the fake System.nanoTime() - deliberately close to the overflow to check the wrap around
+     */
+    private long now = Long.MAX_VALUE - 10 * SECOND - 12_345;
+
+    @Test
+    void burstThenSustainedRate() {
+        // 10 per second, so one token every 100 ms
+        var buckets = new TokenBuckets(10, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, buckets.tryAcquire("client", now));
+        }
+        assertEquals(SECOND / 10, buckets.tryAcquire("client", now));
+
+        now += SECOND / 20;
+        assertEquals(SECOND / 20, buckets.tryAcquire("client", now));
+        now += SECOND / 20;
+        assertEquals(0L, buckets.tryAcquire("client", now));
+        assertEquals(SECOND / 10, buckets.tryAcquire("client", now));
+
+        // after a pause the full burst is available again, but not more
+        now += 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, buckets.tryAcquire("client", now));
+        }
+        assertTrue(buckets.tryAcquire("client", now) > 0);
+    }
+
+    @Test
+    void rejectedRequestsDoNotTakeTokens() {
+        var buckets = new TokenBuckets(1, 1, 100);
+        assertEquals(0L, buckets.tryAcquire("client", now));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(SECOND, buckets.tryAcquire("client", now));
+        }
+        now += SECOND;
+        assertEquals(0L, buckets.tryAcquire("client", now));
+    }
+
+    @Test
+    void clientsHaveOwnBuckets() {
+        var buckets = new TokenBuckets(1, 1, 100);
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        assertEquals(0L, buckets.tryAcquire("b", now));
+        assertTrue(buckets.tryAcquire("a", now) > 0);
+        assertEquals(2, buckets.size());
+    }
+
+    @Test
+    void clientsBeyondTheLimitShareTheOverflowBucket() {
+        var buckets = new TokenBuckets(1, 2, 2);
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        assertEquals(0L, buckets.tryAcquire("b", now));
+
+        assertEquals(0L, buckets.tryAcquire("c", now));
+        assertEquals(0L, buckets.tryAcquire("d", now));
+        assertEquals(SECOND, buckets.tryAcquire("e", now));
+        assertEquals(SECOND, buckets.tryAcquire("c", now));
+        assertEquals(2, buckets.size());
+
+        // the own buckets are not affected
+        assertEquals(0L, buckets.tryAcquire("a", now));
+    }
+
+    @Test
+    void idleBucketsAreEvicted() {
+        var buckets = new TokenBuckets(1, 2, 2);
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        now += 5 * SECOND;
+        assertEquals(0L, buckets.tryAcquire("b", now));
+
+        // the bucket of a is full since 3 seconds, the one of b is in use
+        assertEquals(1, buckets.evictIdle(now, 2 * SECOND));
+        assertEquals(1, buckets.size());
+        assertEquals(0, buckets.evictIdle(now, 2 * SECOND));
+
+        // a gets a new bucket instead of the overflow bucket, with the full burst
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        assertEquals(2, buckets.size());
+        assertTrue(buckets.tryAcquire("a", now) > 0);
+    }
+
+    @Test
+    void recentlyUsedBucketsAreKept() {
+        var buckets = new TokenBuckets(1, 1, 100);
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        now += SECOND;
+        assertEquals(0, buckets.evictIdle(now, 2 * SECOND));
+        // the limit still applies
+        assertEquals(0L, buckets.tryAcquire("a", now));
+        assertEquals(SECOND, buckets.tryAcquire("a", now));
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        assertEquals(1L, TokenBuckets.retryAfterSeconds(1));
+        assertEquals(1L, TokenBuckets.retryAfterSeconds(SECOND / 10));
+        assertEquals(1L, TokenBuckets.retryAfterSeconds(SECOND));
+        assertEquals(2L, TokenBuckets.retryAfterSeconds(SECOND + 1));
+        assertEquals(3L, TokenBuckets.retryAfterSeconds(3 * SECOND));
+    }
+
+    @Test
+    void invalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(0, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(1, 0, 100));
+    }
+}
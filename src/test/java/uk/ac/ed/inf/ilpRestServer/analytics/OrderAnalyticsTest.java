@@ -0,0 +1,210 @@
+package uk.ac.ed.inf.ilpRestServer.analytics;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+import uk.ac.ed.inf.ilpRestServer.data.MenuIndex;
+import uk.ac.ed.inf.ilpRestServer.data.OrderRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderAnalyticsTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2023, 9, 1);
+    private static final LocalDate LAST_DATE = FIRST_DATE.plusDays(4);
+
+    private final Restaurant[] restaurants = TestData.restaurants();
+    private final Pizza margarita = restaurants[0].menu()[0];
+    private final Pizza calzone = restaurants[0].menu()[1];
+    private final Pizza meatLover = restaurants[1].menu()[0];
+    private final Pizza veganDelight = restaurants[1].menu()[1];
+    private final Pizza superCheese = restaurants[2].menu()[0];
+
+    /**
+     * orders on the first, third and fifth day - the second and fourth day have none
+     */
+    private final List<Order> orders = List.of(
+            TestData.order("0000000A", FIRST_DATE, margarita, margarita),
+            order("0000000B", FIRST_DATE, OrderStatus.INVALID, InvalidOrderReasonCode.CVV, meatLover),
+            // no reason code - counted in the extra slot
+            order("0000000C", FIRST_DATE, OrderStatus.VALID_BUT_NOT_DELIVERED, null, superCheese),
+            TestData.order("0000000D", FIRST_DATE.plusDays(2), calzone),
+            order("0000000E", FIRST_DATE.plusDays(2), OrderStatus.INVALID, InvalidOrderReasonCode.TOTAL, margarita, superCheese),
+            // no status - not counted by status, but in the revenue
+            order("0000000F", FIRST_DATE.plusDays(2), null, null, margarita),
+            order("0000000G", LAST_DATE, OrderStatus.INVALID, InvalidOrderReasonCode.PIZZA_NOT_DEFINED, new Pizza("Unknown", 500)),
+            TestData.order("0000000H", LAST_DATE),
+            TestData.order("0000000I", LAST_DATE, veganDelight, superCheese));
+
+    private final OrderAnalytics analytics = OrderAnalytics.of(OrderRepository.of(orders.toArray(new Order[0])),
+            new MenuIndex(restaurants));
+
+    @Test
+    void dateRange() {
+        assertEquals(FIRST_DATE, analytics.firstDate());
+        assertEquals(LAST_DATE, analytics.lastDate());
+    }
+
+    @Test
+    void matchesABruteForceCountForEveryRange() {
+        for (var from = FIRST_DATE.minusDays(3); from.isBefore(LAST_DATE.plusDays(4)); from = from.plusDays(1)) {
+            for (var to = FIRST_DATE.minusDays(3); to.isBefore(LAST_DATE.plusDays(4)); to = to.plusDays(1)) {
+                var range = from + " - " + to;
+                assertEquals(expectedOrderCounts(from, to), analytics.orderCounts(from, to), range);
+                assertEquals(expectedDailyOrderCounts(from, to), analytics.dailyOrderCounts(from, to), range);
+                assertEquals(expectedRestaurantRevenue(from, to), analytics.restaurantRevenue(from, to), range);
+                for (int limit = 1; limit <= 8; limit++) {
+                    assertEquals(expectedPizzaPopularity(from, to, limit), analytics.pizzaPopularity(from, to, limit), range);
+                }
+            }
+        }
+    }
+
+    @Test
+    void ordersWithoutReasonCode() {
+        var counts = analytics.orderCounts(FIRST_DATE, FIRST_DATE);
+        assertEquals(3L, counts.total());
+        assertEquals(1L, (long) counts.byStatus().get(OrderStatus.VALID_BUT_NOT_DELIVERED));
+        assertEquals(Map.of(InvalidOrderReasonCode.NO_ERROR, 1L, InvalidOrderReasonCode.CVV, 1L), counts.byReason());
+        assertFalse(counts.byStatusAndReason().containsKey(OrderStatus.VALID_BUT_NOT_DELIVERED));
+    }
+
+    @Test
+    void rangesOutsideTheOrders() {
+        assertEquals(0L, analytics.orderCounts(FIRST_DATE.minusDays(10), FIRST_DATE.minusDays(1)).total());
+        assertEquals(0L, analytics.orderCounts(LAST_DATE.plusDays(1), LAST_DATE.plusDays(10)).total());
+        assertEquals(List.of(), analytics.dailyOrderCounts(LAST_DATE.plusDays(1), LAST_DATE.plusDays(10)));
+        assertEquals(List.of(), analytics.pizzaPopularity(FIRST_DATE.minusDays(10), FIRST_DATE.minusDays(1), 10));
+
+        // the controller fills a missing "to" with the last date, so "from" can be after "to"
+        var afterLast = LAST_DATE.plusDays(3);
+        assertEquals(0L, analytics.orderCounts(afterLast, analytics.lastDate()).total());
+        assertEquals(List.of(), analytics.dailyOrderCounts(afterLast, analytics.lastDate()));
+        for (var revenue : analytics.restaurantRevenue(afterLast, analytics.lastDate())) {
+            assertEquals(0L, revenue.orders());
+        }
+
+        // clamped to the days with orders
+        assertEquals((long) orders.size() - 1, analytics.orderCounts(FIRST_DATE.minusDays(100), LAST_DATE.plusDays(100)).total());
+    }
+
+    @Test
+    void validRevenue() {
+        var revenue = analytics.restaurantRevenue(FIRST_DATE, LAST_DATE);
+        assertEquals(List.of("Civerinos Slice", "Sora Lella Vegan Restaurant", "Domino's Pizza - Edinburgh - Southside"),
+                revenue.stream().map(RestaurantRevenue::restaurant).toList());
+        // A, D, E and F - E is invalid
+        var civerinos = revenue.get(0);
+        assertEquals(4L, civerinos.orders());
+        assertEquals(3L, civerinos.validOrders());
+        assertEquals(civerinos.totalInPence() - orders.get(4).getPriceTotalInPence(), civerinos.validTotalInPence());
+    }
+
+    @Test
+    void pizzaTiesAreOrderedByName() {
+        assertEquals(List.of(new PizzaPopularity("R1: Margarita", 4), new PizzaPopularity("R3: Super Cheese", 3),
+                        new PizzaPopularity("R1: Calzone", 1), new PizzaPopularity("R2: Meat Lover", 1)),
+                analytics.pizzaPopularity(FIRST_DATE, LAST_DATE, 4));
+    }
+
+    @Test
+    void noOrders() {
+        var empty = OrderAnalytics.of(OrderRepository.empty(), new MenuIndex(restaurants));
+        assertNull(empty.firstDate());
+        assertNull(empty.lastDate());
+        assertEquals(0L, empty.orderCounts(FIRST_DATE, LAST_DATE).total());
+        assertEquals(List.of(), empty.dailyOrderCounts(FIRST_DATE, LAST_DATE));
+        assertEquals(List.of(), empty.pizzaPopularity(FIRST_DATE, LAST_DATE, 10));
+        assertEquals(3, empty.restaurantRevenue(FIRST_DATE, LAST_DATE).size());
+    }
+
+    private List<Order> ordersIn(LocalDate from, LocalDate to) {
+        return orders.stream().filter(order -> order.getOrderDate().isBefore(from) == false && order.getOrderDate().isAfter(to) == false).toList();
+    }
+
+    private OrderCounts expectedOrderCounts(LocalDate from, LocalDate to) {
+        long total = 0;
+        var byStatus = new HashMap<OrderStatus, Long>();
+        var byReason = new HashMap<InvalidOrderReasonCode, Long>();
+        var byStatusAndReason = new HashMap<OrderStatus, Map<InvalidOrderReasonCode, Long>>();
+        for (var order : ordersIn(from, to)) {
+            if (order.getOrderStatus() == null) {
+                continue;
+            }
+            total++;
+            byStatus.merge(order.getOrderStatus(), 1L, Long::sum);
+            if (order.getInvalidOrderReasonCode() != null) {
+                byReason.merge(order.getInvalidOrderReasonCode(), 1L, Long::sum);
+                byStatusAndReason.computeIfAbsent(order.getOrderStatus(), status -> new HashMap<>())
+                        .merge(order.getInvalidOrderReasonCode(), 1L, Long::sum);
+            }
+        }
+        return new OrderCounts(from, to, total, byStatus, byReason, byStatusAndReason);
+    }
+
+    private List<DailyOrderCounts> expectedDailyOrderCounts(LocalDate from, LocalDate to) {
+        var days = new TreeMap<LocalDate, Map<OrderStatus, Long>>();
+        for (var order : ordersIn(from, to)) {
+            if (order.getOrderStatus() != null) {
+                days.computeIfAbsent(order.getOrderDate(), date -> new HashMap<>()).merge(order.getOrderStatus(), 1L, Long::sum);
+            }
+        }
+        var result = new ArrayList<DailyOrderCounts>();
+        days.forEach((date, byStatus) -> result.add(new DailyOrderCounts(date,
+                byStatus.values().stream().mapToLong(Long::longValue).sum(), byStatus)));
+        return result;
+    }
+
+    private List<RestaurantRevenue> expectedRestaurantRevenue(LocalDate from, LocalDate to) {
+        var result = new ArrayList<RestaurantRevenue>();
+        for (var restaurant : restaurants) {
+            long count = 0, total = 0, validCount = 0, validTotal = 0;
+            for (var order : ordersIn(from, to)) {
+                if (order.getPizzasInOrder().length == 0 || List.of(restaurant.menu()).contains(order.getPizzasInOrder()[0]) == false) {
+                    continue;
+                }
+                count++;
+                total += order.getPriceTotalInPence();
+                if (order.getOrderStatus() != OrderStatus.INVALID) {
+                    validCount++;
+                    validTotal += order.getPriceTotalInPence();
+                }
+            }
+            result.add(new RestaurantRevenue(restaurant.name(), count, total, validCount, validTotal));
+        }
+        return result;
+    }
+
+    private List<PizzaPopularity> expectedPizzaPopularity(LocalDate from, LocalDate to, int limit) {
+        var counts = new HashMap<String, Long>();
+        for (var order : ordersIn(from, to)) {
+            for (var pizza : order.getPizzasInOrder()) {
+                counts.merge(pizza.name(), 1L, Long::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new PizzaPopularity(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(PizzaPopularity::count).reversed().thenComparing(PizzaPopularity::pizza))
+                .limit(limit)
+                .toList();
+    }
+
+    private static Order order(String orderNo, LocalDate date, OrderStatus status, InvalidOrderReasonCode reason, Pizza... pizzas) {
+        var order = TestData.order(orderNo, date, pizzas);
+        order.setOrderStatus(status);
+        order.setInvalidOrderReasonCode(reason);
+        return order;
+    }
+}
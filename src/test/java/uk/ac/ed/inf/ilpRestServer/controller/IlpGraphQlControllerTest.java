@@ -0,0 +1,159 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataSnapshot;
+import uk.ac.ed.inf.ilpRestServer.data.OrderRepository;
+import uk.ac.ed.inf.ilpRestServer.data.ReferenceData;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+
+@GraphQlTest(IlpGraphQlController.class)
+class IlpGraphQlControllerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 9, 1);
+
+    private static final String CIVERINOS = "Civerinos Slice";
+    private static final String DOMINOS = "Domino's Pizza - Edinburgh - Southside";
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @MockBean
+    private IlpDataProvider dataProvider;
+
+    @BeforeEach
+    void setUp() {
+        var restaurants = TestData.restaurants();
+        var invalid = TestData.order("0000000B", DATE, restaurants[1].menu()[0]);
+        invalid.setOrderStatus(OrderStatus.INVALID);
+        invalid.setInvalidOrderReasonCode(InvalidOrderReasonCode.CVV);
+        var orders = new Order[]{
+                TestData.order("0000000A", DATE, restaurants[0].menu()[0], restaurants[0].menu()[1]),
+                invalid,
+                TestData.order("0000000C", DATE.plusDays(1), restaurants[0].menu()[1]),
+                TestData.order("0000000D", DATE.plusDays(1), restaurants[2].menu()[0]),
+                TestData.order("0000000E", DATE.plusDays(2), new Pizza("Unknown", 500)),
+                TestData.order("0000000F", DATE.plusDays(3), restaurants[0].menu()[0])
+        };
+        var centralArea = new NamedRegion("central", new LngLat[]{new LngLat(0, 0), new LngLat(1, 0), new LngLat(1, 1), new LngLat(0, 1)});
+        var snapshot = new IlpDataSnapshot(1, Instant.now(), OrderRepository.of(orders),
+                ReferenceData.of(restaurants, centralArea, new NamedRegion[0]));
+        when(dataProvider.current()).thenReturn(snapshot);
+    }
+
+    @Test
+    void allOrders() {
+        graphQlTester.document("{ orders { orderNo orderDate orderStatus } }")
+                .execute()
+                .path("orders[*].orderNo").entityList(String.class)
+                .containsExactly("0000000A", "0000000B", "0000000C", "0000000D", "0000000E", "0000000F")
+                .path("orders[1].orderDate").entity(String.class).isEqualTo("2023-09-01")
+                .path("orders[1].orderStatus").entity(String.class).isEqualTo("INVALID");
+    }
+
+    @Test
+    void ordersByDateRange() {
+        graphQlTester.document("{ orders(from: \"2023-09-02\", to: \"2023-09-03\") { orderNo } }")
+                .execute()
+                .path("orders[*].orderNo").entityList(String.class).containsExactly("0000000C", "0000000D", "0000000E");
+        graphQlTester.document("{ orders(from: \"2023-09-03\") { orderNo } }")
+                .execute()
+                .path("orders[*].orderNo").entityList(String.class).containsExactly("0000000E", "0000000F");
+        graphQlTester.document("{ orders(to: \"2023-09-01\") { orderNo } }")
+                .execute()
+                .path("orders[*].orderNo").entityList(String.class).containsExactly("0000000A", "0000000B");
+    }
+
+    @Test
+    void ordersByStatusAndRestaurant() {
+        graphQlTester.document("{ orders(status: \"INVALID\") { orderNo invalidOrderReasonCode } }")
+                .execute()
+                .path("orders[*].orderNo").entityList(String.class).containsExactly("0000000B")
+                .path("orders[0].invalidOrderReasonCode").entity(String.class).isEqualTo("CVV");
+        graphQlTester.document("""
+                        { orders(from: "2023-09-01", to: "2023-09-02", status: "DELIVERED", restaurant: "Civerinos Slice") { orderNo } }
+                        """)
+                .execute()
+                .path("orders[*].orderNo").entityList(String.class).containsExactly("0000000A", "0000000C");
+        graphQlTester.document("{ orders(restaurant: \"No such restaurant\") { orderNo } }")
+                .execute()
+                .path("orders").entityList(Object.class).hasSize(0);
+    }
+
+    @Test
+    void ordersLimit() {
+        graphQlTester.document("{ orders(limit: 2) { orderNo } }")
+                .execute()
+                .path("orders[*].orderNo").entityList(String.class).containsExactly("0000000A", "0000000B");
+        graphQlTester.document("{ orders(limit: 0) { orderNo } }")
+                .execute()
+                .path("orders").entityList(Object.class).hasSize(0);
+    }
+
+    @Test
+    void limitAboveTheMaximumIsABadRequest() {
+        graphQlTester.document("{ orders(limit: " + (IlpGraphQlController.MAX_ORDER_LIMIT + 1) + ") { orderNo } }")
+                .execute()
+                .errors()
+                .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST && error.getMessage().contains("limit"))
+                .verify();
+    }
+
+    @Test
+    void invalidStatusIsABadRequest() {
+        graphQlTester.document("{ orders(status: \"LOST\") { orderNo } }")
+                .execute()
+                .errors()
+                .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST)
+                .verify();
+    }
+
+    @Test
+    void orderRestaurants() {
+        graphQlTester.document("{ orders(from: \"2023-09-01\", to: \"2023-09-03\") { orderNo restaurant { name } } }")
+                .execute()
+                .path("orders[0].restaurant.name").entity(String.class).isEqualTo(CIVERINOS)
+                .path("orders[1].restaurant.name").entity(String.class).isEqualTo("Sora Lella Vegan Restaurant")
+                .path("orders[3].restaurant.name").entity(String.class).isEqualTo(DOMINOS)
+                // the pizza is on no menu
+                .path("orders[4].restaurant").valueIsNull();
+    }
+
+    @Test
+    void pizzaRestaurants() {
+        graphQlTester.document("{ order(orderNo: \"0000000A\") { pizzasInOrder { name restaurant { name } } } }")
+                .execute()
+                .path("order.pizzasInOrder[*].name").entityList(String.class).containsExactly("R1: Margarita", "R1: Calzone")
+                .path("order.pizzasInOrder[*].restaurant.name").entityList(String.class).containsExactly(CIVERINOS, CIVERINOS);
+        graphQlTester.document("{ order(orderNo: \"0000000E\") { pizzasInOrder { restaurant { name } } } }")
+                .execute()
+                .path("order.pizzasInOrder[0].restaurant").valueIsNull();
+        graphQlTester.document("{ restaurant(name: \"" + DOMINOS + "\") { menu { restaurant { name } } } }")
+                .execute()
+                .path("restaurant.menu[*].restaurant.name").entityList(String.class).containsExactly(DOMINOS, DOMINOS);
+    }
+
+    @Test
+    void unknownOrder() {
+        graphQlTester.document("{ order(orderNo: \"XYZ\") { orderNo } }")
+                .execute()
+                .path("order").valueIsNull();
+    }
+}
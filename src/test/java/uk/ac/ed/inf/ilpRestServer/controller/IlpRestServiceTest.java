@@ -0,0 +1,161 @@
+package uk.ac.ed.inf.ilpRestServer.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataProvider;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataSnapshot;
+import uk.ac.ed.inf.ilpRestServer.data.OrderRepository;
+import uk.ac.ed.inf.ilpRestServer.data.OrderResponseCache;
+import uk.ac.ed.inf.ilpRestServer.data.ReferenceData;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(IlpRestService.class)
+class IlpRestServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 9, 1);
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        IlpMetrics ilpMetrics() {
+            return new IlpMetrics(new SimpleMeterRegistry());
+        }
+
+        @Bean
+        OrderResponseCache orderResponseCache(IlpDataProvider dataProvider, IlpMetrics metrics) {
+            return new OrderResponseCache(dataProvider, 1 << 20, metrics);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IlpDataProvider dataProvider;
+
+    @BeforeEach
+    void setUp() {
+        var restaurants = TestData.restaurants();
+        var orders = new Order[]{
+                TestData.order("0000000A", DATE, restaurants[0].menu()[0]),
+                TestData.order("0000000B", DATE, restaurants[1].menu()[0]),
+                TestData.order("0000000C", DATE, restaurants[0].menu()[1]),
+                TestData.order("0000000D", DATE, restaurants[2].menu()[0]),
+                TestData.order("0000000E", DATE, restaurants[2].menu()[1]),
+                TestData.order("0000000F", DATE.plusDays(1), restaurants[0].menu()[0])
+        };
+        var centralArea = new NamedRegion("central", new LngLat[]{new LngLat(0, 0), new LngLat(1, 0), new LngLat(1, 1), new LngLat(0, 1)});
+        var snapshot = new IlpDataSnapshot(1, Instant.now(), OrderRepository.of(orders),
+                ReferenceData.of(restaurants, centralArea, new NamedRegion[0]));
+        when(dataProvider.current()).thenReturn(snapshot);
+    }
+
+    @Test
+    void ndjsonPages() throws Exception {
+        var first = perform(get("/ordersWithOutcome/2023-09-01").param("limit", "2").accept(MediaType.APPLICATION_NDJSON));
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, first.getResponse().getContentType());
+        assertEquals("2", first.getResponse().getHeader(IlpRestService.NEXT_CURSOR_HEADER));
+        assertOrderLines(first, "0000000A", "0000000B");
+
+        var middle = perform(get("/ordersWithOutcome/2023-09-01").param("cursor", "2").param("limit", "2")
+                .header("Accept", "application/json;q=0.5, application/x-ndjson"));
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, middle.getResponse().getContentType());
+        assertEquals("4", middle.getResponse().getHeader(IlpRestService.NEXT_CURSOR_HEADER));
+        assertOrderLines(middle, "0000000C", "0000000D");
+
+        var last = perform(get("/ordersWithOutcome/2023-09-01").param("cursor", "4").param("limit", "2").accept(MediaType.APPLICATION_NDJSON));
+        assertNull(last.getResponse().getHeader(IlpRestService.NEXT_CURSOR_HEADER));
+        assertOrderLines(last, "0000000E");
+    }
+
+    @Test
+    void jsonArrayByDefault() throws Exception {
+        var result = perform(get("/orders").param("limit", "4"));
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, result.getResponse().getContentType());
+        assertEquals("4", result.getResponse().getHeader(IlpRestService.NEXT_CURSOR_HEADER));
+        var content = result.getResponse().getContentAsString();
+        assertTrue(content.startsWith("["));
+        assertOrderNumbers(content, "0000000A", "0000000B", "0000000C", "0000000D");
+
+        result = perform(get("/orders").param("cursor", "4"));
+        assertNull(result.getResponse().getHeader(IlpRestService.NEXT_CURSOR_HEADER));
+        assertOrderNumbers(result.getResponse().getContentAsString(), "0000000E", "0000000F");
+    }
+
+    @Test
+    void cachedNdjsonDay() throws Exception {
+        var result = perform(get("/ordersWithOutcome/2023-09-01").accept(MediaType.APPLICATION_NDJSON));
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        assertNull(result.getResponse().getHeader(IlpRestService.NEXT_CURSOR_HEADER));
+        assertOrderLines(result, "0000000A", "0000000B", "0000000C", "0000000D", "0000000E");
+
+        var json = perform(get("/ordersWithOutcome/2023-09-01"));
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, json.getResponse().getContentType());
+        assertTrue(json.getResponse().getContentAsString().startsWith("["));
+    }
+
+    @Test
+    void invalidCursorOrLimitIsABadRequest() throws Exception {
+        mockMvc.perform(get("/orders").param("cursor", "abc")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/orders").param("cursor", "99")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/orders/2023-09-01").param("limit", "0").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/ordersWithOutcome").param("limit", "-1")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * perform a request that returns a streamed body and wait for the body
+     * @param requestBuilder the request
+     * @return the completed result
+     */
+    private MvcResult perform(RequestBuilder requestBuilder) throws Exception {
+        var result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static void assertOrderLines(MvcResult result, String... orderNumbers) throws Exception {
+        var lines = result.getResponse().getContentAsString().lines().filter(line -> line.isBlank() == false).toList();
+        assertEquals(orderNumbers.length, lines.size());
+        for (int i = 0; i < orderNumbers.length; i++) {
+            assertTrue(lines.get(i).startsWith("{"), lines.get(i));
+            assertTrue(lines.get(i).contains("\"" + orderNumbers[i] + "\""), lines.get(i));
+        }
+    }
+
+    private static void assertOrderNumbers(String content, String... orderNumbers) {
+        int position = -1;
+        for (var orderNo : orderNumbers) {
+            int next = content.indexOf("\"" + orderNo + "\"");
+            assertTrue(next > position, orderNo + " missing or out of order");
+            position = next;
+        }
+        assertEquals(orderNumbers.length, content.split("\"orderNo\"").length - 1);
+    }
+}
@@ -0,0 +1,98 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IlpJsonTest {
+
+    /**
+     * the properties Jackson writes for an order
+     */
+    private static final Set<String> ORDER_FIELDS = Set.of("orderNo", "orderDate", "orderStatus", "invalidOrderReasonCode",
+            "priceTotalInPence", "pizzasInOrder", "customer", "creditCardNumber", "creditCardExpiry", "cvv");
+
+    private final Restaurant[] restaurants = TestData.restaurants();
+
+    @Test
+    void orderRoundTrip() {
+        var order = TestData.order("0000ABCD", LocalDate.of(2023, 9, 1), restaurants[0].menu());
+        order.setOrderStatus(OrderStatus.INVALID);
+        order.setInvalidOrderReasonCode(InvalidOrderReasonCode.CVV);
+        var restored = IlpJson.GSON.fromJson(IlpJson.GSON.toJson(order), Order.class);
+
+        assertEquals(order.getOrderNo(), restored.getOrderNo());
+        assertEquals(order.getOrderDate(), restored.getOrderDate());
+        assertEquals(order.getOrderStatus(), restored.getOrderStatus());
+        assertEquals(order.getInvalidOrderReasonCode(), restored.getInvalidOrderReasonCode());
+        assertEquals(order.getPriceTotalInPence(), restored.getPriceTotalInPence());
+        assertArrayEquals(order.getPizzasInOrder(), restored.getPizzasInOrder());
+        assertEquals(order.getCustomer(), restored.getCustomer());
+        assertEquals(order.getCreditCardNumber(), restored.getCreditCardNumber());
+        assertEquals(order.getCreditCardExpiry(), restored.getCreditCardExpiry());
+        assertEquals(order.getCvv(), restored.getCvv());
+    }
+
+    @Test
+    void nullFieldsAreWrittenAsNull() {
+        var json = JsonParser.parseString(IlpJson.GSON.toJson(new Order())).getAsJsonObject();
+
+        assertEquals(ORDER_FIELDS, json.keySet());
+        for (var field : ORDER_FIELDS) {
+            if (field.equals("priceTotalInPence") == false) {
+                assertTrue(json.get(field).isJsonNull(), field);
+            }
+        }
+    }
+
+    @Test
+    void nullFieldsAreWrittenAsNullWhenStreamed() throws IOException {
+        var order = TestData.order("0000ABCD", LocalDate.of(2023, 9, 1), restaurants[0].menu());
+        order.setCustomer(null);
+        order.setOrderStatus(null);
+
+        var out = new ByteArrayOutputStream();
+        OrderJsonWriter.writeJsonArray(List.of(order), out);
+        var json = JsonParser.parseString(out.toString(StandardCharsets.UTF_8)).getAsJsonArray().get(0).getAsJsonObject();
+        assertNullField(json, "customer");
+        assertNullField(json, "orderStatus");
+
+        out.reset();
+        OrderJsonWriter.writeNdjson(List.of(order), out);
+        json = JsonParser.parseString(out.toString(StandardCharsets.UTF_8).trim()).getAsJsonObject();
+        assertNullField(json, "customer");
+        assertNullField(json, "orderStatus");
+    }
+
+    @Test
+    void referenceDataNullFieldsAreWrittenAsNull() {
+        var restaurant = JsonParser.parseString(IlpJson.GSON.toJson(new Restaurant("R", null, null, null))).getAsJsonObject();
+        assertNullField(restaurant, "location");
+        assertNullField(restaurant, "openingDays");
+        assertNullField(restaurant, "menu");
+
+        var region = JsonParser.parseString(IlpJson.GSON.toJson(new NamedRegion(null, null))).getAsJsonObject();
+        assertNullField(region, "name");
+        assertNullField(region, "vertices");
+    }
+
+    private static void assertNullField(JsonObject json, String field) {
+        assertTrue(json.has(field), field);
+        assertTrue(json.get(field).isJsonNull(), field);
+    }
+}
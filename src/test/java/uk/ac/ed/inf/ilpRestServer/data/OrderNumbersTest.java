@@ -0,0 +1,55 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderNumbersTest {
+
+    private final OrderNumbers orderNumbers = new OrderNumbers(42);
+
+    @Test
+    void orderNumberRoundTrip() {
+        for (long position : new long[]{0, 1, 57, 1_000_000, 0x7FFFFFFFL, 0x80000000L, OrderNumbers.MAX_POSITION}) {
+            var orderNo = orderNumbers.orderNo(position);
+            assertEquals(8, orderNo.length());
+            assertEquals(orderNo.toUpperCase(), orderNo);
+            assertEquals(position, orderNumbers.position(orderNo));
+        }
+    }
+
+    @Test
+    void consecutivePositionsHaveDistinctNumbers() {
+        var seen = new HashSet<String>();
+        for (long position = 1_130_000; position < 1_330_000; position++) {
+            assertTrue(seen.add(orderNumbers.orderNo(position)), "duplicate order number at " + position);
+        }
+    }
+
+    @Test
+    void numberingDependsOnTheSeed() {
+        assertEquals(new OrderNumbers(42).orderNo(1234), orderNumbers.orderNo(1234));
+        assertNotEquals(new OrderNumbers(43).orderNo(1234), orderNumbers.orderNo(1234));
+    }
+
+    @Test
+    void onlyUpperCaseHexNumbersHavePositions() {
+        assertEquals(-1, orderNumbers.position("abcdef12"));
+        assertEquals(-1, orderNumbers.position("ABCDEFGH"));
+        assertEquals(-1, orderNumbers.position("+1234567"));
+        assertEquals(-1, orderNumbers.position("1234567"));
+        assertEquals(-1, orderNumbers.position("123456789"));
+        assertEquals(-1, orderNumbers.position(null));
+    }
+
+    @Test
+    void positionOutsideTheNumberRange() {
+        assertEquals(57L * 100 + 3, OrderNumbers.position(100, 57, 3));
+        assertThrows(IllegalArgumentException.class, () -> OrderNumbers.position(-1, 57, 0));
+        assertThrows(IllegalArgumentException.class, () -> OrderNumbers.position(100, 57, 57));
+        assertThrows(IllegalArgumentException.class, () -> OrderNumbers.position(OrderNumbers.MAX_POSITION / 57 + 1, 57, 0));
+        assertThrows(IllegalArgumentException.class, () -> orderNumbers.orderNo(OrderNumbers.MAX_POSITION + 1));
+    }
+}
@@ -0,0 +1,110 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderPageTest {
+
+    private final List<Order> orders = orders(5);
+
+    @Test
+    void allOrdersWithoutLimit() {
+        var page = OrderPage.of(orders, null, null);
+        assertEquals(orders, page.orders());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void firstPage() {
+        var page = OrderPage.of(orders, null, 2);
+        assertEquals(orders.subList(0, 2), page.orders());
+        assertEquals("2", page.nextCursor());
+    }
+
+    @Test
+    void middlePage() {
+        var page = OrderPage.of(orders, "2", 2);
+        assertEquals(orders.subList(2, 4), page.orders());
+        assertEquals("4", page.nextCursor());
+    }
+
+    @Test
+    void lastPageHasNoNextCursor() {
+        var page = OrderPage.of(orders, "4", 2);
+        assertEquals(orders.subList(4, 5), page.orders());
+        assertNull(page.nextCursor());
+
+        // a page ending exactly at the last order
+        page = OrderPage.of(orders, "3", 2);
+        assertEquals(orders.subList(3, 5), page.orders());
+        assertNull(page.nextCursor());
+
+        // the rest without a limit
+        page = OrderPage.of(orders, "1", null);
+        assertEquals(orders.subList(1, 5), page.orders());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void walkingThePagesReturnsEveryOrderOnce() {
+        var seen = new ArrayList<Order>();
+        String cursor = null;
+        do {
+            var page = OrderPage.of(orders, cursor, 2);
+            seen.addAll(page.orders());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertEquals(orders, seen);
+    }
+
+    @Test
+    void cursorAtTheEndGivesAnEmptyPage() {
+        var page = OrderPage.of(orders, "5", 2);
+        assertTrue(page.orders().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void hugeLimitDoesNotOverflow() {
+        var page = OrderPage.of(orders, "3", Integer.MAX_VALUE);
+        assertEquals(orders.subList(3, 5), page.orders());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void invalidCursor() {
+        assertBadRequest("abc", 2);
+        assertBadRequest("-1", 2);
+        assertBadRequest("6", 2);
+        assertBadRequest("99999999999", 2);
+    }
+
+    @Test
+    void invalidLimit() {
+        assertBadRequest(null, 0);
+        assertBadRequest("2", -1);
+    }
+
+    private void assertBadRequest(String cursor, Integer limit) {
+        var e = assertThrows(ResponseStatusException.class, () -> OrderPage.of(orders, cursor, limit));
+        assertEquals(HttpStatus.BAD_REQUEST.value(), e.getStatusCode().value());
+    }
+
+    private static List<Order> orders(int count) {
+        var orders = new ArrayList<Order>();
+        var pizza = TestData.restaurants()[0].menu()[0];
+        for (int i = 0; i < count; i++) {
+            orders.add(TestData.order("0000000" + i, LocalDate.of(2023, 9, 1), pizza));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,43 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 9, 1);
+
+    @Test
+    void ordersAreSortedByDateAndFoundByNumber() {
+        var pizza = TestData.restaurants()[0].menu()[0];
+        var repository = OrderRepository.of(new Order[]{
+                TestData.order("00000003", DAY.plusDays(2), pizza),
+                TestData.order("00000001", DAY, pizza),
+                TestData.order("00000002", DAY, pizza)});
+
+        assertEquals(3, repository.size());
+        assertEquals("00000001", repository.all(false).get(0).getOrderNo());
+        assertEquals("00000002", repository.all(false).get(1).getOrderNo());
+        assertEquals(2, repository.indexOf("00000003"));
+        assertEquals(-1, repository.indexOf("00000004"));
+        assertEquals(2, repository.byDate(DAY, false).size());
+        assertEquals(0, repository.byDate(DAY.plusDays(1), false).size());
+        assertEquals(OrderStatus.UNDEFINED, repository.byDate(DAY, true).get(0).getOrderStatus());
+        assertEquals(OrderStatus.DELIVERED, repository.byOrderNo("00000001").getOrderStatus());
+    }
+
+    @Test
+    void duplicateOrderNumbersAreRejected() {
+        var pizza = TestData.restaurants()[0].menu()[0];
+        var orders = new Order[]{
+                TestData.order("0000ABCD", DAY, pizza),
+                TestData.order("0000ABCD", DAY.plusDays(1), pizza)};
+        assertThrows(IllegalArgumentException.class, () -> OrderRepository.of(orders));
+    }
+}
@@ -0,0 +1,199 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderResponseCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 9, 1);
+
+    private final IlpMetrics metrics = new IlpMetrics(new SimpleMeterRegistry());
+    private final IlpDataProvider dataProvider = new IlpDataProvider(null, null, null, metrics);
+    private final OrderResponseCache cache = new OrderResponseCache(dataProvider, 100, metrics);
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void renderedOnce() {
+        var body = cache.get(1, false, false, DATE, renderer(40));
+        assertSame(body, cache.get(1, false, false, DATE, renderer(40)));
+        assertEquals(1, renders.get());
+        assertEquals(40L, cache.bytes());
+    }
+
+    @Test
+    void variantsAreCachedSeparately() {
+        cache.get(1, false, false, DATE, renderer(10));
+        cache.get(1, true, false, DATE, renderer(10));
+        cache.get(1, false, true, DATE, renderer(10));
+        cache.get(1, false, false, DATE.plusDays(1), renderer(10));
+        cache.get(2, false, false, DATE, renderer(10));
+        assertEquals(5, renders.get());
+        assertEquals(5, cache.size());
+        assertEquals(50L, cache.bytes());
+    }
+
+    @Test
+    void leastRecentlyUsedAreEvictedAtTheByteBound() {
+        var first = cache.get(1, false, false, DATE, renderer(40));
+        cache.get(1, false, false, DATE.plusDays(1), renderer(40));
+        // the first day is used again, so the second is the eldest
+        assertSame(first, cache.get(1, false, false, DATE, renderer(40)));
+
+        cache.get(1, false, false, DATE.plusDays(2), renderer(40));
+        assertEquals(2, cache.size());
+        assertEquals(80L, cache.bytes());
+        assertSame(first, cache.get(1, false, false, DATE, renderer(40)));
+        assertEquals(3, renders.get());
+
+        cache.get(1, false, false, DATE.plusDays(1), renderer(40));
+        assertEquals(4, renders.get());
+        assertEquals(80L, cache.bytes());
+    }
+
+    @Test
+    void responsesBiggerThanTheCacheAreNotKept() {
+        var small = cache.get(1, false, false, DATE, renderer(40));
+        assertEquals(150, cache.get(1, false, false, DATE.plusDays(1), renderer(150)).length);
+        assertEquals(1, cache.size());
+        assertEquals(40L, cache.bytes());
+        assertSame(small, cache.get(1, false, false, DATE, renderer(40)));
+
+        cache.get(1, false, false, DATE.plusDays(1), renderer(150));
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void concurrentMissesRenderOnce() throws Exception {
+        var rendering = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Supplier<byte[]> slowRenderer = () -> {
+            rendering.countDown();
+            await(release);
+            return renderer(40).get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            var first = executor.submit(() -> cache.get(1, false, false, DATE, slowRenderer));
+            assertTrue(rendering.await(10, TimeUnit.SECONDS));
+            var others = new ArrayList<Future<byte[]>>();
+            for (int i = 0; i < 6; i++) {
+                others.add(executor.submit(() -> cache.get(1, false, false, DATE, slowRenderer)));
+            }
+            // the pending response takes no space yet
+            assertEquals(0L, cache.bytes());
+            release.countDown();
+
+            var body = first.get(10, TimeUnit.SECONDS);
+            for (var other : others) {
+                assertSame(body, other.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, renders.get());
+            assertEquals(40L, cache.bytes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedRenderingIsRetried() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1, false, false, DATE, () -> {
+            throw new IllegalStateException("broken data");
+        }));
+        assertEquals(0, cache.size());
+        assertEquals(40, cache.get(1, false, false, DATE, renderer(40)).length);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void failedRenderingWithAnErrorIsRetried() throws Exception {
+        var rendering = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = executor.submit(() -> cache.get(1, false, false, DATE, () -> {
+                rendering.countDown();
+                await(release);
+                throw new OutOfMemoryError("day too big");
+            }));
+            assertTrue(rendering.await(10, TimeUnit.SECONDS));
+            // waits for the failing rendering
+            var waiting = executor.submit(() -> cache.get(1, false, false, DATE, renderer(40)));
+            release.countDown();
+
+            var failure = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(OutOfMemoryError.class, failure.getCause());
+            try {
+                // either it waited for the failed rendering or it came after it and rendered itself
+                assertEquals(40, waiting.get(10, TimeUnit.SECONDS).length);
+            } catch (ExecutionException e) {
+                assertInstanceOf(OutOfMemoryError.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the failed entry is gone, the next request renders again instead of waiting
+        assertEquals(40, cache.get(1, false, false, DATE, renderer(40)).length);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void clearedOnReload() {
+        cache.get(1, false, false, DATE, renderer(40));
+        cache.get(1, true, false, DATE, renderer(40));
+        assertEquals(2, cache.size());
+
+        assertTrue(dataProvider.reload());
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.bytes());
+        cache.get(1, false, false, DATE, renderer(40));
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void responseRenderedDuringAReloadIsNotKept() {
+        var body = cache.get(1, false, false, DATE, () -> {
+            assertTrue(dataProvider.reload());
+            return renderer(40).get();
+        });
+        assertEquals(40, body.length);
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.bytes());
+    }
+
+    @Test
+    void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderResponseCache(dataProvider, 0, metrics));
+    }
+
+    private Supplier<byte[]> renderer(int size) {
+        return () -> {
+            renders.incrementAndGet();
+            return new byte[size];
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSnapshotTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 9, 1);
+
+    @TempDir
+    Path directory;
+
+    private final Restaurant[] restaurants = TestData.restaurants();
+
+    @Test
+    void ordersRoundTrip() throws IOException {
+        var orders = List.of(
+                TestData.order("0000000A", DAY, restaurants[0].menu()),
+                TestData.order("FFFFFFFF", DAY, restaurants[1].menu()[0]),
+                TestData.order("80000000", DAY.plusDays(2), restaurants[0].menu()[1], new Pizza("Pizza-Surprise ", 4711)),
+                TestData.order("00000001", DAY.plusDays(3)));
+        var snapshot = write(orders);
+
+        assertEquals(orders.size(), snapshot.size());
+        for (int i = 0; i < orders.size(); i++) {
+            assertOrderEquals(orders.get(i), snapshot.all(false).get(i));
+        }
+        assertEquals(0, snapshot.all(false).get(3).getPizzasInOrder().length);
+        // pizzas not on a menu are kept as they are
+        assertEquals(new Pizza("Pizza-Surprise ", 4711), snapshot.all(false).get(2).getPizzasInOrder()[1]);
+    }
+
+    @Test
+    void lookupByOrderNumber() throws IOException {
+        var orders = new ArrayList<Order>();
+        for (int i = 0; i < 100; i++) {
+            // signed and unsigned order of the keys differ for the upper half
+            orders.add(TestData.order(String.format("%08X", i * 0x0A3D70A3), DAY.plusDays(i / 10), restaurants[0].menu()[0]));
+        }
+        var snapshot = write(orders);
+
+        for (int i = 0; i < orders.size(); i++) {
+            assertEquals(i, snapshot.indexOf(orders.get(i).getOrderNo()));
+            assertEquals(orders.get(i).getOrderNo(), snapshot.byOrderNo(orders.get(i).getOrderNo()).getOrderNo());
+        }
+        assertEquals(-1, snapshot.indexOf("00000002"));
+        assertEquals(-1, snapshot.indexOf("XYZ"));
+        assertEquals(-1, snapshot.indexOf(null));
+        assertNull(snapshot.byOrderNo("00000002"));
+    }
+
+    @Test
+    void lookupByDate() throws IOException {
+        var pizza = restaurants[0].menu()[0];
+        var snapshot = write(List.of(
+                TestData.order("00000001", DAY, pizza),
+                TestData.order("00000002", DAY, pizza),
+                TestData.order("00000003", DAY.plusDays(2), pizza),
+                TestData.order("00000004", DAY.plusDays(5), pizza)));
+
+        assertEquals(List.of("00000001", "00000002"), orderNumbers(snapshot.byDate(DAY, false)));
+        assertEquals(List.of(), orderNumbers(snapshot.byDate(DAY.plusDays(1), false)));
+        assertEquals(List.of("00000003", "00000004"), orderNumbers(snapshot.byDateRange(DAY.plusDays(1), DAY.plusDays(5), false)));
+        assertEquals(List.of(), orderNumbers(snapshot.byDate(DAY.minusDays(1), false)));
+        assertEquals(List.of(), orderNumbers(snapshot.byDate(DAY.plusDays(6), false)));
+        assertEquals(OrderStatus.UNDEFINED, snapshot.byDate(DAY, true).get(0).getOrderStatus());
+        assertEquals(OrderStatus.DELIVERED, snapshot.orderStatus(0));
+    }
+
+    @Test
+    void nullStringsAreReadAsEmptyStrings() throws IOException {
+        var order = TestData.order("00000001", DAY, restaurants[0].menu()[0]);
+        order.setCustomer(null);
+        order.setCreditCardNumber(null);
+        order.setCreditCardExpiry("");
+        order.setCvv(null);
+        var restored = write(List.of(order)).all(false).get(0);
+
+        assertEquals("", restored.getCustomer());
+        assertEquals("", restored.getCreditCardNumber());
+        assertEquals("", restored.getCreditCardExpiry());
+        assertEquals("", restored.getCvv());
+    }
+
+    @Test
+    void statusAndReasonCodesRoundTrip() throws IOException {
+        var orders = new ArrayList<Order>();
+        var reasonCodes = InvalidOrderReasonCode.values();
+        for (int i = 0; i < reasonCodes.length; i++) {
+            var order = TestData.order(String.format("%08X", i), DAY, restaurants[0].menu()[0]);
+            order.setOrderStatus(OrderStatus.values()[i % OrderStatus.values().length]);
+            order.setInvalidOrderReasonCode(reasonCodes[i]);
+            orders.add(order);
+        }
+        var withoutOutcome = TestData.order("000000FF", DAY, restaurants[0].menu()[0]);
+        withoutOutcome.setOrderStatus(null);
+        withoutOutcome.setInvalidOrderReasonCode(null);
+        orders.add(withoutOutcome);
+
+        var snapshot = write(orders);
+        for (int i = 0; i < reasonCodes.length; i++) {
+            assertEquals(reasonCodes[i], snapshot.all(false).get(i).getInvalidOrderReasonCode());
+            assertEquals(orders.get(i).getOrderStatus(), snapshot.all(false).get(i).getOrderStatus());
+        }
+        assertNull(snapshot.all(false).get(reasonCodes.length).getOrderStatus());
+        assertNull(snapshot.all(false).get(reasonCodes.length).getInvalidOrderReasonCode());
+    }
+
+    @Test
+    void onlyUpperCaseOrderNumbersAreStored() throws IOException {
+        // the snapshot restores order numbers as upper-case hex, so other spellings would come back changed
+        var writer = new OrderSnapshotWriter(restaurants);
+        for (var orderNo : new String[]{"0000abcd", "+0000001", "1234567", "123456789", "GHIJKLMN", null}) {
+            assertThrows(IllegalArgumentException.class, () -> writer.add(TestData.order(orderNo, DAY, restaurants[0].menu()[0])));
+        }
+        assertEquals(0, writer.size());
+
+        var snapshot = write(List.of(TestData.order("0000ABCD", DAY, restaurants[0].menu()[0])));
+        assertEquals("0000ABCD", snapshot.all(false).get(0).getOrderNo());
+        assertEquals(0, snapshot.indexOf("0000ABCD"));
+        assertEquals(-1, snapshot.indexOf("0000abcd"));
+    }
+
+    @Test
+    void invalidInputIsRejected() {
+        var writer = new OrderSnapshotWriter(restaurants);
+        writer.add(TestData.order("00000002", DAY.plusDays(1), restaurants[0].menu()[0]));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(TestData.order("00000001", DAY, restaurants[0].menu()[0])));
+
+        writer.add(TestData.order("00000002", DAY.plusDays(1), restaurants[0].menu()[0]));
+        assertThrows(IllegalArgumentException.class, () -> writer.write(directory.resolve("duplicate.bin")));
+    }
+
+    private OrderSnapshot write(List<Order> orders) throws IOException {
+        var writer = new OrderSnapshotWriter(restaurants);
+        orders.forEach(writer::add);
+        var file = directory.resolve("orders.bin");
+        writer.write(file);
+        return OrderSnapshot.map(file);
+    }
+
+    private static List<String> orderNumbers(List<Order> orders) {
+        return orders.stream().map(Order::getOrderNo).toList();
+    }
+
+    private static void assertOrderEquals(Order expected, Order actual) {
+        assertEquals(expected.getOrderNo(), actual.getOrderNo());
+        assertEquals(expected.getOrderDate(), actual.getOrderDate());
+        assertEquals(expected.getOrderStatus(), actual.getOrderStatus());
+        assertEquals(expected.getInvalidOrderReasonCode(), actual.getInvalidOrderReasonCode());
+        assertEquals(expected.getPriceTotalInPence(), actual.getPriceTotalInPence());
+        assertArrayEquals(expected.getPizzasInOrder(), actual.getPizzasInOrder());
+        assertEquals(expected.getCustomer(), actual.getCustomer());
+        assertEquals(expected.getCreditCardNumber(), actual.getCreditCardNumber());
+        assertEquals(expected.getCreditCardExpiry(), actual.getCreditCardExpiry());
+        assertEquals(expected.getCvv(), actual.getCvv());
+    }
+}
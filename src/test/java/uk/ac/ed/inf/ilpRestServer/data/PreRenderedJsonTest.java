@@ -0,0 +1,75 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreRenderedJsonTest {
+
+    private final PreRenderedJson json = PreRenderedJson.of(new String[]{"a", "b"});
+
+    @Test
+    void plainAndGzippedBodiesHaveDifferentStrongEtags() {
+        assertTrue(json.etag().startsWith("\""));
+        assertTrue(json.gzippedEtag().startsWith("\""));
+        assertNotEquals(json.etag(), json.gzippedEtag());
+
+        var plain = json.toResponse(null, null);
+        assertEquals(HttpStatus.OK, plain.getStatusCode());
+        assertEquals(json.etag(), plain.getHeaders().getETag());
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("[\"a\",\"b\"]", new String(plain.getBody(), StandardCharsets.UTF_8));
+
+        var gzipped = json.toResponse(null, "gzip, deflate");
+        assertEquals(HttpStatus.OK, gzipped.getStatusCode());
+        assertEquals(json.gzippedEtag(), gzipped.getHeaders().getETag());
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(plain.getBody(), gunzip(gzipped.getBody()));
+    }
+
+    @Test
+    void notModifiedOnlyForTheEtagOfTheSelectedCoding() {
+        var plain = json.toResponse(json.etag(), null);
+        assertEquals(HttpStatus.NOT_MODIFIED, plain.getStatusCode());
+        assertEquals(json.etag(), plain.getHeaders().getETag());
+
+        var gzipped = json.toResponse(json.gzippedEtag(), "gzip");
+        assertEquals(HttpStatus.NOT_MODIFIED, gzipped.getStatusCode());
+        assertEquals(json.gzippedEtag(), gzipped.getHeaders().getETag());
+
+        // a client which has the other coding gets the full response
+        assertEquals(HttpStatus.OK, json.toResponse(json.etag(), "gzip").getStatusCode());
+        assertEquals(HttpStatus.OK, json.toResponse(json.gzippedEtag(), null).getStatusCode());
+    }
+
+    @Test
+    void ifNoneMatchListsWeakTagsAndWildcard() {
+        assertEquals(HttpStatus.NOT_MODIFIED, json.toResponse("\"other\", W/" + json.etag(), null).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, json.toResponse("*", "gzip").getStatusCode());
+        assertEquals(HttpStatus.OK, json.toResponse("\"other\"", null).getStatusCode());
+    }
+
+    @Test
+    void gzipExcludedWithQualityZero() {
+        assertTrue(PreRenderedJson.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(PreRenderedJson.acceptsGzip("gzip;q=0"));
+        assertFalse(PreRenderedJson.acceptsGzip("gzip; q=0.000"));
+        assertFalse(PreRenderedJson.acceptsGzip("br"));
+        assertFalse(PreRenderedJson.acceptsGzip(null));
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
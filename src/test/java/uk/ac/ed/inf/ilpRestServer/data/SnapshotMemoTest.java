@@ -0,0 +1,124 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotMemoTest {
+
+    private final IlpMetrics metrics = new IlpMetrics(new SimpleMeterRegistry());
+    private final IlpDataProvider dataProvider = new IlpDataProvider(null, null, null, metrics);
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    void builtOncePerSnapshot() {
+        var memo = new SnapshotMemo<>(dataProvider, "test", this::build, metrics);
+        assertEquals(1, builds.get());
+        assertEquals(dataProvider.current().version(), (long) memo.get());
+        assertEquals(dataProvider.current().version(), (long) memo.get());
+        assertEquals(1, builds.get());
+
+        assertTrue(dataProvider.reload());
+        assertEquals(2, builds.get());
+        assertEquals(dataProvider.current().version(), (long) memo.get());
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void requestBeforeTheListenerBuildsOnlyOnce() {
+        // this listener runs before the one of the memo and reads the new snapshot first
+        var memo = new AtomicReference<SnapshotMemo<Long>>();
+        var seen = new AtomicReference<Long>();
+        dataProvider.addListener(snapshot -> seen.set(memo.get().get()));
+        memo.set(new SnapshotMemo<>(dataProvider, "test", this::build, metrics));
+
+        assertTrue(dataProvider.reload());
+        assertEquals(dataProvider.current().version(), (long) seen.get());
+        assertEquals(dataProvider.current().version(), (long) memo.get().get());
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void concurrentRequestsWaitForTheBuild() throws Exception {
+        var building = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var memo = new SnapshotMemo<>(dataProvider, "test", snapshot -> {
+            if (snapshot.version() > 1) {
+                building.countDown();
+                await(release);
+            }
+            return build(snapshot);
+        }, metrics);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            var reload = executor.submit(dataProvider::reload);
+            assertTrue(building.await(10, TimeUnit.SECONDS));
+
+            var results = new ArrayList<Future<Long>>();
+            for (int i = 0; i < 6; i++) {
+                results.add(executor.submit(memo::get));
+            }
+            release.countDown();
+
+            assertTrue(reload.get(10, TimeUnit.SECONDS));
+            for (var result : results) {
+                assertEquals(2L, (long) result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(2, builds.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedBuildIsRetried() {
+        var fail = new AtomicReference<>(false);
+        var memo = new SnapshotMemo<>(dataProvider, "test", snapshot -> {
+            if (fail.get()) {
+                throw new IllegalStateException("broken data");
+            }
+            return build(snapshot);
+        }, metrics);
+
+        fail.set(true);
+        // the failure does not stop the reload, the memo builds again on the next access
+        assertTrue(dataProvider.reload());
+        assertThrows(IllegalStateException.class, memo::get);
+
+        fail.set(false);
+        assertEquals(dataProvider.current().version(), (long) memo.get());
+    }
+
+    @Test
+    void failedInitialBuildIsThrown() {
+        assertThrows(IllegalStateException.class, () -> new SnapshotMemo<>(dataProvider, "test", snapshot -> {
+            throw new IllegalStateException("broken data");
+        }, metrics));
+    }
+
+    private long build(IlpDataSnapshot snapshot) {
+        builds.incrementAndGet();
+        return snapshot.version();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package uk.ac.ed.inf.ilpRestServer.data;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualOrderStoreTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2023, 9, 1);
+
+    private final Restaurant[] restaurants = TestData.restaurants();
+    private final int ordersPerDay = IlpOrdersSampleDataGenerator.ordersPerDay(5);
+
+    @Test
+    void sameSeedGivesTheSameOrders() {
+        var store = store(42, 2);
+        var other = store(42, 1);
+        assertEquals(4 * ordersPerDay, store.size());
+
+        // read in a different order, so the other store generates its days in a different order and evicts them
+        for (int i = store.size() - 1; i >= 0; i--) {
+            assertSameOrder(store.all(false).get(i), other.all(false).get(i));
+        }
+        for (int i = 0; i < store.size(); i++) {
+            assertSameOrder(store.all(false).get(i), other.all(false).get(i));
+        }
+    }
+
+    @Test
+    void ordersMatchTheGenerator() {
+        var store = store(42, 2);
+        var date = START_DATE.plusDays(2);
+        var generated = IlpOrdersSampleDataGenerator.ordersForDay(date, 42, 5, restaurants);
+        var stored = store.byDate(date, false);
+
+        assertEquals(generated.size(), stored.size());
+        for (int i = 0; i < generated.size(); i++) {
+            assertSameOrder(generated.get(i), stored.get(i));
+        }
+    }
+
+    @Test
+    void otherSeedGivesOtherOrders() {
+        var store = store(42, 2);
+        var other = store(43, 2);
+        for (int i = 0; i < ordersPerDay; i++) {
+            assertNotEquals(store.all(false).get(i).getOrderNo(), other.all(false).get(i).getOrderNo());
+            assertEquals(-1, other.indexOf(store.all(false).get(i).getOrderNo()));
+        }
+    }
+
+    @Test
+    void orderNumberRoundTrip() {
+        var store = store(42, 2);
+        var orderNumbers = new HashSet<String>();
+        for (int i = 0; i < store.size(); i++) {
+            var order = store.all(false).get(i);
+            assertTrue(orderNumbers.add(order.getOrderNo()), order.getOrderNo());
+            assertEquals(i, store.indexOf(order.getOrderNo()));
+            assertEquals(order.getOrderDate().toEpochDay(), store.epochDay(i));
+            assertSame(order, store.byOrderNo(order.getOrderNo()));
+        }
+    }
+
+    @Test
+    void unknownOrderNumbers() {
+        var store = store(42, 2);
+        assertEquals(-1, store.indexOf("not an order number"));
+        assertEquals(-1, store.indexOf("0000000G"));
+        assertNull(store.byOrderNo("XYZ"));
+
+        // the numbers of the days before and after the dataset belong to the same numbering, but not to the store
+        var before = new OrderNumbers(42).orderNo(OrderNumbers.position(START_DATE.toEpochDay() - 1, ordersPerDay, 0));
+        var after = new OrderNumbers(42).orderNo(OrderNumbers.position(START_DATE.toEpochDay() + 4, ordersPerDay, 0));
+        assertEquals(-1, store.indexOf(before));
+        assertEquals(-1, store.indexOf(after));
+    }
+
+    @Test
+    void maskedOrders() {
+        var store = store(42, 2);
+        for (int i = 0; i < store.size(); i++) {
+            var order = store.all(false).get(i);
+            var masked = store.all(true).get(i);
+            assertEquals(order.getOrderNo(), masked.getOrderNo());
+            assertEquals(OrderStatus.UNDEFINED, masked.getOrderStatus());
+            assertNotEquals(OrderStatus.UNDEFINED, order.getOrderStatus());
+            assertEquals(order.getOrderStatus(), store.orderStatus(i));
+        }
+    }
+
+    @Test
+    void ordersByDate() {
+        var store = store(42, 2);
+        assertEquals(ordersPerDay, store.byDate(START_DATE, false).size());
+        assertEquals(2 * ordersPerDay, store.byDateRange(START_DATE.plusDays(2), START_DATE.plusDays(10), true).size());
+        assertTrue(store.byDate(START_DATE.minusDays(1), false).isEmpty());
+        assertTrue(store.byDate(START_DATE.plusDays(4), false).isEmpty());
+        for (var order : store.byDate(START_DATE.plusDays(1), false)) {
+            assertEquals(START_DATE.plusDays(1), order.getOrderDate());
+        }
+    }
+
+    @Test
+    void indexOutOfRange() {
+        var store = store(42, 2);
+        assertThrows(IndexOutOfBoundsException.class, () -> store.all(false).get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.all(false).get(store.size()));
+    }
+
+    @Test
+    void invalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new VirtualOrderStore.Settings(START_DATE, 0, 42, 5, 2));
+        assertThrows(IllegalArgumentException.class, () -> new VirtualOrderStore.Settings(START_DATE, 4, 42, -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new VirtualOrderStore.Settings(START_DATE, 4, 42, 5, 0));
+        // beyond the 32-bit order number range
+        assertThrows(IllegalArgumentException.class, () -> new VirtualOrderStore(
+                new VirtualOrderStore.Settings(START_DATE, 4, 42, 1_000_000, 2), restaurants));
+    }
+
+    private VirtualOrderStore store(long seed, int cachedDays) {
+        return new VirtualOrderStore(new VirtualOrderStore.Settings(START_DATE, 4, seed, 5, cachedDays), restaurants);
+    }
+
+    private static void assertSameOrder(Order expected, Order actual) {
+        assertEquals(expected.getOrderNo(), actual.getOrderNo());
+        assertEquals(expected.getOrderDate(), actual.getOrderDate());
+        assertEquals(expected.getOrderStatus(), actual.getOrderStatus());
+        assertEquals(expected.getInvalidOrderReasonCode(), actual.getInvalidOrderReasonCode());
+        assertEquals(expected.getPriceTotalInPence(), actual.getPriceTotalInPence());
+        assertArrayEquals(expected.getPizzasInOrder(), actual.getPizzasInOrder());
+        assertEquals(expected.getCustomer(), actual.getCustomer());
+        assertEquals(expected.getCreditCardNumber(), actual.getCreditCardNumber());
+        assertEquals(expected.getCreditCardExpiry(), actual.getCreditCardExpiry());
+        assertEquals(expected.getCvv(), actual.getCvv());
+    }
+}
@@ -0,0 +1,105 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightpathVerifierTest {
+
+    private final List<FlightpathViolation> violations = new ArrayList<>();
+    private final FlightpathVerifier verifier = new FlightpathVerifier(
+            new RegionIndex(RegionIndexTest.CENTRAL_AREA, RegionIndexTest.NO_FLY_ZONES), violations::add);
+
+    @Test
+    void movesThroughNoFlyZonesAreReported() {
+        verifier.move("A", 1, 1, 1, 5);
+        verifier.move("A", 1, 5, 1, 3);
+        verifier.move("A", 1, 3, 5, 3);
+
+        assertEquals(3, verifier.moveCount());
+        assertEquals(1, verifier.violationCount());
+        assertEquals(new FlightpathViolation(FlightpathViolation.NO_FLY_ZONE, 2, "A", "square", 1, 3, 5, 3), violations.get(0));
+    }
+
+    @Test
+    void hoverIsNotChecked() {
+        // hovering on the border of a zone is not a move into it
+        verifier.move("A", 2, 3, 2, 3);
+        assertEquals(1, verifier.moveCount());
+        assertEquals(0, verifier.violationCount());
+    }
+
+    @Test
+    void leavingTheCentralAreaAfterComingBack() {
+        verifier.move("A", 5, 9, 11, 9);
+        verifier.move("A", 11, 9, 12, 9);
+        verifier.move("A", 12, 9, 5, 9);
+        // moving around inside after coming back is fine
+        verifier.move("A", 5, 9, 1, 9);
+        assertEquals(0, verifier.violationCount());
+
+        verifier.move("A", 1, 9, -1, 9);
+        assertEquals(1, verifier.violationCount());
+        assertEquals(FlightpathViolation.CENTRAL_AREA_REENTRY, violations.get(0).type());
+        assertEquals(4, violations.get(0).move());
+        assertNull(violations.get(0).noFlyZone());
+    }
+
+    @Test
+    void orderStartingOutsideMustNotLeaveAgain() {
+        verifier.move("A", 12, 9, 5, 9);
+        verifier.move("A", 5, 9, 11, 9);
+        assertEquals(1, verifier.violationCount());
+    }
+
+    @Test
+    void centralAreaRuleStartsAgainForEveryOrder() {
+        verifier.move("A", 12, 9, 5, 9);
+        verifier.move("B", 5, 9, 11, 9);
+        verifier.move("B", 11, 9, 5, 9);
+        assertEquals(0, verifier.violationCount());
+
+        verifier.move("B", 5, 9, 11, 9);
+        assertEquals(1, verifier.violationCount());
+        assertEquals("B", violations.get(0).orderNo());
+    }
+
+    @Test
+    void streamOfMoves() throws IOException {
+        var json = """
+                [
+                  {"orderNo": "A", "fromLongitude": 1, "fromLatitude": 1, "toLongitude": 1, "toLatitude": 3, "angle": 90},
+                  {"orderNo": "A", "fromLongitude": 1, "fromLatitude": 3, "toLongitude": 5, "toLatitude": 3, "angle": null}
+                ]""";
+        var progress = new ArrayList<Long>();
+        verifier.verify(new JsonReader(new StringReader(json)), progress::add);
+
+        assertEquals(List.of(1L, 2L), progress);
+        assertEquals(2, verifier.moveCount());
+        assertEquals(1, violations.size());
+        assertEquals(1, violations.get(0).move());
+    }
+
+    @Test
+    void streamOfPoints() throws IOException {
+        var json = "[{\"lng\": 1, \"lat\": 3}, {\"lng\": 5, \"lat\": 3}, {\"lng\": 5, \"lat\": 9}, {\"lng\": 7, \"lat\": 9}]";
+        verifier.verify(new JsonReader(new StringReader(json)));
+
+        assertEquals(3, verifier.moveCount());
+        assertEquals(1, violations.size());
+        assertEquals(new FlightpathViolation(FlightpathViolation.NO_FLY_ZONE, 0, null, "square", 1, 3, 5, 3), violations.get(0));
+    }
+
+    @Test
+    void elementsWhichAreNeitherMovesNorPointsAreRejected() {
+        var json = "[{\"lng\": 1, \"lat\": 3}, {\"lng\": 5}]";
+        assertThrows(IOException.class, () -> verifier.verify(new JsonReader(new StringReader(json))));
+        assertEquals(0, verifier.moveCount());
+    }
+}
@@ -0,0 +1,229 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.metrics.IlpMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoJsonLayersTest {
+
+    private static final NamedRegion CENTRAL_AREA = region("central", 0, 0, 10, 0, 10, 10, 0, 10);
+    private static final NamedRegion SQUARE = region("square", 2, 2, 4, 2, 4, 4, 2, 4);
+
+    /**
+     * the first two vertices are equal at two decimal places
+     */
+    private static final NamedRegion SMALL = region("small", 7, 7, 7.001, 7, 8, 7, 8, 8, 7, 8);
+
+    private static final Restaurant[] RESTAURANTS = {
+            new Restaurant("west", new LngLat(1, 1), null, null),
+            new Restaurant("east", new LngLat(9, 1), null, null)
+    };
+
+    private static final LngLat DELIVERY_BASE = new LngLat(5, 5);
+
+    private static final Set<String> ALL_LAYERS = Set.copyOf(GeoJsonLayers.LAYERS);
+
+    private final IlpMetrics metrics = new IlpMetrics(new SimpleMeterRegistry());
+    private final GeoJsonLayers layers = new GeoJsonLayers(CENTRAL_AREA, new NamedRegion[]{SQUARE, SMALL}, RESTAURANTS,
+            DELIVERY_BASE, metrics);
+
+    @Test
+    void allLayers() {
+        var features = features(layers, ALL_LAYERS, null, -1);
+        assertEquals(List.of("Appleton Tower", "central", "square", "small", "west", "east",
+                "No-fly-zones convex hull", "No-fly-zones bounding box"), names(features));
+
+        var base = features.get(0).getAsJsonObject().getAsJsonObject("geometry");
+        assertEquals("Point", base.get("type").getAsString());
+        assertEquals(5.0, base.getAsJsonArray("coordinates").get(0).getAsDouble());
+
+        // the rings are closed
+        var square = ring(features.get(2).getAsJsonObject());
+        assertEquals(5, square.size());
+        assertEquals(square.get(0), square.get(4));
+    }
+
+    @Test
+    void defaultLayers() {
+        assertEquals(List.of("Appleton Tower", "central", "square", "small", "west", "east"),
+                names(features(layers, GeoJsonLayers.DEFAULT_LAYERS, null, -1)));
+        assertEquals(List.of("west", "east"), names(features(layers, Set.of(GeoJsonLayers.RESTAURANTS), null, -1)));
+    }
+
+    @Test
+    void boundingBoxQuery() {
+        var zonesAndRestaurants = Set.of(GeoJsonLayers.NO_FLY_ZONES, GeoJsonLayers.RESTAURANTS);
+        assertEquals(List.of("square"), names(features(layers, zonesAndRestaurants, new double[]{1.5, 1.5, 3, 3}, -1)));
+        assertEquals(List.of("west"), names(features(layers, zonesAndRestaurants, new double[]{0.5, 0.5, 1.5, 1.5}, -1)));
+        // touching counts as overlapping
+        assertEquals(List.of("square", "small"), names(features(layers, zonesAndRestaurants, new double[]{4, 4, 7, 7}, -1)));
+        assertEquals(List.of(), names(features(layers, ALL_LAYERS, new double[]{20, 20, 30, 30}, -1)));
+        assertEquals(List.of(), names(features(layers, ALL_LAYERS, new double[]{-3, -3, -1, -1}, -1)));
+    }
+
+    @Test
+    void boundingBoxQueryMatchesAFullScan() {
+        var all = features(layers, ALL_LAYERS, null, -1);
+        var random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            double x1 = random.nextDouble(-2, 12), x2 = random.nextDouble(-2, 12);
+            double y1 = random.nextDouble(-2, 12), y2 = random.nextDouble(-2, 12);
+            var box = new double[]{Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2)};
+
+            var expected = new ArrayList<String>();
+            for (var feature : all) {
+                if (overlaps(feature.getAsJsonObject(), box)) {
+                    expected.add(name(feature.getAsJsonObject()));
+                }
+            }
+            assertEquals(expected, names(features(layers, ALL_LAYERS, box, -1)));
+        }
+    }
+
+    @Test
+    void sameFeaturesShareTheResponse() {
+        var zones = Set.of(GeoJsonLayers.NO_FLY_ZONES);
+        var response = layers.featureCollection(zones, new double[]{1.5, 1.5, 3, 3}, -1);
+        assertSame(response, layers.featureCollection(zones, new double[]{2.5, 2.5, 3.5, 3.5}, -1));
+        assertNotSame(response, layers.featureCollection(zones, new double[]{2.5, 2.5, 3.5, 3.5}, 3));
+    }
+
+    @Test
+    void fullPrecision() {
+        var small = ring(feature(features(layers, Set.of(GeoJsonLayers.NO_FLY_ZONES), null, -1), "small"));
+        assertEquals(6, small.size());
+        assertEquals(7.001, small.get(1).getAsJsonArray().get(0).getAsDouble());
+    }
+
+    @Test
+    void roundedPositionsAreDeduplicated() {
+        var small = ring(feature(features(layers, Set.of(GeoJsonLayers.NO_FLY_ZONES), null, 2), "small"));
+        // the second vertex is equal to the first after rounding
+        assertEquals(positions(7, 7, 8, 7, 8, 8, 7, 8, 7, 7), small);
+    }
+
+    @Test
+    void roundingKeepsAPolygon() {
+        var tiny = region("tiny", 3, 3, 3.001, 3, 3.001, 3.001, 3, 3.001);
+        var tinyLayers = new GeoJsonLayers(CENTRAL_AREA, new NamedRegion[]{tiny}, RESTAURANTS, DELIVERY_BASE, metrics);
+        var ring = ring(feature(features(tinyLayers, Set.of(GeoJsonLayers.NO_FLY_ZONES), null, 1), "tiny"));
+        // all positions collapse to one, so none is left out
+        assertEquals(positions(3, 3, 3, 3, 3, 3, 3, 3, 3, 3), ring);
+    }
+
+    @Test
+    void convexHullAndBoundingBox() {
+        var features = features(layers, Set.of(GeoJsonLayers.CONVEX_HULL, GeoJsonLayers.BOUNDING_BOX), null, -1);
+        // counter-clockwise from the lowest point, without the inner vertices (4,4) and (7,7) and the collinear (7.001,7)
+        assertEquals(positions(2, 2, 4, 2, 8, 7, 8, 8, 7, 8, 2, 4, 2, 2), ring(features.get(0).getAsJsonObject()));
+        assertEquals(positions(2, 8, 8, 8, 8, 2, 2, 2, 2, 8), ring(features.get(1).getAsJsonObject()));
+    }
+
+    @Test
+    void regionsWithoutVerticesAreSkipped() {
+        var emptyCentralArea = new NamedRegion("central", new LngLat[0]);
+        var emptyZone = new NamedRegion("empty", new LngLat[0]);
+        var nullZone = new NamedRegion("null", null);
+        var sparseLayers = new GeoJsonLayers(emptyCentralArea, new NamedRegion[]{emptyZone, SQUARE, nullZone},
+                RESTAURANTS, DELIVERY_BASE, metrics);
+
+        var features = features(sparseLayers, ALL_LAYERS, null, -1);
+        assertEquals(List.of("Appleton Tower", "square", "west", "east", "No-fly-zones convex hull",
+                "No-fly-zones bounding box"), names(features));
+        assertEquals(positions(2, 2, 4, 2, 4, 4, 2, 4, 2, 2), ring(features.get(4).getAsJsonObject()));
+    }
+
+    @Test
+    void noZones() {
+        var noZoneLayers = new GeoJsonLayers(CENTRAL_AREA, new NamedRegion[]{new NamedRegion("empty", new LngLat[0])},
+                RESTAURANTS, DELIVERY_BASE, metrics);
+        assertEquals(List.of("Appleton Tower", "central", "west", "east"), names(features(noZoneLayers, ALL_LAYERS, null, -1)));
+    }
+
+    private static JsonArray features(GeoJsonLayers layers, Set<String> selected, double[] bbox, int precision) {
+        var body = layers.featureCollection(selected, bbox, precision).body();
+        var collection = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        assertEquals("FeatureCollection", collection.get("type").getAsString());
+        return collection.getAsJsonArray("features");
+    }
+
+    private static List<String> names(JsonArray features) {
+        var names = new ArrayList<String>();
+        for (var feature : features) {
+            names.add(name(feature.getAsJsonObject()));
+        }
+        return names;
+    }
+
+    private static String name(JsonObject feature) {
+        return feature.getAsJsonObject("properties").get("name").getAsString();
+    }
+
+    private static JsonObject feature(JsonArray features, String name) {
+        for (var feature : features) {
+            if (name(feature.getAsJsonObject()).equals(name)) {
+                return feature.getAsJsonObject();
+            }
+        }
+        throw new AssertionError("no feature " + name);
+    }
+
+    private static JsonArray ring(JsonObject feature) {
+        var geometry = feature.getAsJsonObject("geometry");
+        assertEquals("Polygon", geometry.get("type").getAsString());
+        return geometry.getAsJsonArray("coordinates").get(0).getAsJsonArray();
+    }
+
+    private static JsonArray positions(double... coordinates) {
+        var positions = new JsonArray();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            var position = new JsonArray();
+            position.add(coordinates[i]);
+            position.add(coordinates[i + 1]);
+            positions.add(position);
+        }
+        return positions;
+    }
+
+    private static boolean overlaps(JsonObject feature, double[] box) {
+        var geometry = feature.getAsJsonObject("geometry");
+        var positions = new ArrayList<JsonArray>();
+        if (geometry.get("type").getAsString().equals("Point")) {
+            positions.add(geometry.getAsJsonArray("coordinates"));
+        } else {
+            ring(feature).forEach(position -> positions.add(position.getAsJsonArray()));
+        }
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (var position : positions) {
+            minX = Math.min(minX, position.get(0).getAsDouble());
+            maxX = Math.max(maxX, position.get(0).getAsDouble());
+            minY = Math.min(minY, position.get(1).getAsDouble());
+            maxY = Math.max(maxY, position.get(1).getAsDouble());
+        }
+        return maxX >= box[0] && minX <= box[2] && maxY >= box[1] && minY <= box[3];
+    }
+
+    private static NamedRegion region(String name, double... coordinates) {
+        var vertices = new LngLat[coordinates.length / 2];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new LngLat(coordinates[2 * i], coordinates[2 * i + 1]);
+        }
+        return new NamedRegion(name, vertices);
+    }
+}
@@ -0,0 +1,111 @@
+package uk.ac.ed.inf.ilpRestServer.geo;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionIndexTest {
+
+    static final NamedRegion CENTRAL_AREA = region("central", 0, 0, 10, 0, 10, 10, 0, 10);
+
+    /**
+     * zone 0 is a square, zone 1 is concave (an L with its gap around (7, 5))
+     */
+    static final NamedRegion[] NO_FLY_ZONES = {
+            region("square", 2, 2, 4, 2, 4, 4, 2, 4),
+            region("notch", 6, 2, 9, 2, 9, 8, 8, 8, 8, 3, 6, 3)
+    };
+
+    private final RegionIndex index = new RegionIndex(CENTRAL_AREA, NO_FLY_ZONES);
+
+    @Test
+    void centralArea() {
+        assertTrue(index.isInCentralArea(5, 5));
+        assertFalse(index.isInCentralArea(11, 5));
+        assertFalse(index.isInCentralArea(-0.0001, 5));
+        assertFalse(index.isInCentralArea(5, 10.0001));
+    }
+
+    @Test
+    void bordersAndVerticesAreInside() {
+        assertTrue(index.isInCentralArea(10, 5));
+        assertTrue(index.isInCentralArea(5, 0));
+        assertTrue(index.isInCentralArea(0, 0));
+        assertTrue(index.isInCentralArea(10, 10));
+
+        assertEquals(0, index.noFlyZoneAt(2, 3));
+        assertEquals(0, index.noFlyZoneAt(4, 4));
+        assertEquals(1, index.noFlyZoneAt(8, 5));
+        assertEquals(1, index.noFlyZoneAt(7, 3));
+        // the upper corner of the grid extent
+        assertEquals(1, index.noFlyZoneAt(9, 8));
+    }
+
+    @Test
+    void noFlyZones() {
+        assertEquals(2, index.noFlyZoneCount());
+        assertEquals("square", index.noFlyZoneName(0));
+        assertEquals("notch", index.noFlyZoneName(1));
+
+        assertEquals(0, index.noFlyZoneAt(3, 3));
+        assertEquals(1, index.noFlyZoneAt(8.5, 5));
+        // inside the bounding box of the concave zone, but not inside the zone
+        assertEquals(-1, index.noFlyZoneAt(7, 5));
+        assertEquals(-1, index.noFlyZoneAt(1, 1));
+        assertEquals(-1, index.noFlyZoneAt(9, 8.0001));
+        assertEquals(-1, index.noFlyZoneAt(20, 20));
+        assertEquals(-1, index.noFlyZoneAt(-20, -20));
+    }
+
+    @Test
+    void locateBatch() {
+        double[] lng = {3, 7, 8.5, 11};
+        double[] lat = {3, 5, 5, 5};
+        var inCentralArea = new boolean[lng.length];
+        var noFlyZone = new int[lng.length];
+        index.locate(lng, lat, inCentralArea, noFlyZone);
+
+        assertArrayEquals(new boolean[]{true, true, true, false}, inCentralArea);
+        assertArrayEquals(new int[]{0, -1, 1, -1}, noFlyZone);
+    }
+
+    @Test
+    void movesCrossingZones() {
+        // both ends outside, straight through the square
+        assertEquals(0, index.noFlyZoneCrossed(1, 3, 5, 3));
+        // ends inside a zone
+        assertEquals(1, index.noFlyZoneCrossed(5, 5, 8.5, 5));
+        // touches the corner of the square only
+        assertEquals(0, index.noFlyZoneCrossed(0, 4, 4, 0));
+        // runs along an edge
+        assertEquals(0, index.noFlyZoneCrossed(1, 2, 5, 2));
+    }
+
+    @Test
+    void movesMissingZones() {
+        assertEquals(-1, index.noFlyZoneCrossed(1, 1, 1, 5));
+        // the bounding boxes overlap, the move stays in the gap of the concave zone
+        assertEquals(-1, index.noFlyZoneCrossed(7, 4, 7, 7));
+        // passes the corner of the square diagonally
+        assertEquals(-1, index.noFlyZoneCrossed(4.1, 5, 5, 4.1));
+    }
+
+    @Test
+    void withoutNoFlyZones() {
+        var empty = new RegionIndex(CENTRAL_AREA, new NamedRegion[0]);
+        assertEquals(0, empty.noFlyZoneCount());
+        assertEquals(-1, empty.noFlyZoneAt(3, 3));
+        assertEquals(-1, empty.noFlyZoneCrossed(1, 3, 5, 3));
+        assertTrue(empty.isInCentralArea(3, 3));
+    }
+
+    static NamedRegion region(String name, double... coordinates) {
+        var vertices = new LngLat[coordinates.length / 2];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new LngLat(coordinates[2 * i], coordinates[2 * i + 1]);
+        }
+        return new NamedRegion(name, vertices);
+    }
+}
@@ -0,0 +1,43 @@
+package uk.ac.ed.inf.ilpRestServer.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IlpMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IlpMetrics metrics = new IlpMetrics(registry);
+
+    @Test
+    void loadTimeIsRecordedInTheInjectedRegistry() {
+        assertEquals("loaded", metrics.timeLoad("orders", () -> "loaded"));
+        assertEquals("loaded", metrics.timeLoad("orders", () -> "loaded"));
+        assertEquals(2, registry.get("ilp.data.load").tag("data", "orders").timer().count());
+    }
+
+    @Test
+    void cacheAccessesAreCountedPerResult() {
+        metrics.countCacheAccess("routes", true);
+        metrics.countCacheAccess("routes", true);
+        metrics.countCacheAccess("routes", false);
+        metrics.countCacheAccess("analytics", false);
+
+        assertEquals(2, registry.get("ilp.cache.requests").tag("cache", "routes").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("ilp.cache.requests").tag("cache", "routes").tag("result", "miss").counter().count());
+        assertEquals(1, registry.get("ilp.cache.requests").tag("cache", "analytics").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void metersAreCreatedOncePerTag() {
+        assertSame(metrics.serializationTimer("orders"), metrics.serializationTimer("orders"));
+        assertNotSame(metrics.serializationTimer("orders"), metrics.serializationTimer("ordersWithOutcome"));
+
+        metrics.countError(404);
+        metrics.countError(404);
+        metrics.countError(null);
+        assertEquals(2, registry.get("ilp.errors").tag("status", "404").counter().count());
+        assertEquals(1, registry.get("ilp.errors").tag("status", "unknown").counter().count());
+    }
+}
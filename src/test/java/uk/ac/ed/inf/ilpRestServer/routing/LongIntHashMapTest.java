@@ -0,0 +1,52 @@
+package uk.ac.ed.inf.ilpRestServer.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void putAndGet() {
+        var map = new LongIntHashMap(4);
+        map.put(0, 7);
+        map.put(-1, 8);
+        map.put(Long.MIN_VALUE, 9);
+        map.put(Long.MAX_VALUE, 10);
+
+        assertEquals(7, map.get(0));
+        assertEquals(8, map.get(-1));
+        assertEquals(9, map.get(Long.MIN_VALUE));
+        assertEquals(10, map.get(Long.MAX_VALUE));
+        assertEquals(-1, map.get(1));
+    }
+
+    @Test
+    void putReplacesTheValue() {
+        var map = new LongIntHashMap(4);
+        map.put(42, 1);
+        map.put(42, 2);
+        assertEquals(2, map.get(42));
+    }
+
+    @Test
+    void growsBeyondTheExpectedSize() {
+        var map = new LongIntHashMap(1);
+        var expected = new HashMap<Long, Integer>();
+        var random = new Random(1);
+        for (int i = 0; i < 50_000; i++) {
+            // keys like the route planner's: neighbouring positions differ in a few bits only
+            long key = i % 2 == 0 ? ((long) i << 33) ^ ((long) (i / 7) << 1) : random.nextLong();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        for (var entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+        }
+        assertEquals(-1, map.get(3));
+    }
+}
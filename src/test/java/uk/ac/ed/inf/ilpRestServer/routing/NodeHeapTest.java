@@ -0,0 +1,74 @@
+package uk.ac.ed.inf.ilpRestServer.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeHeapTest {
+
+    @Test
+    void popsInPriorityOrder() {
+        var heap = new NodeHeap();
+        heap.push(3.0, 3);
+        heap.push(1.0, 1);
+        heap.push(2.0, 2);
+        heap.push(0.5, 0);
+
+        assertEquals(0, heap.pop());
+        assertEquals(1, heap.pop());
+        assertEquals(2, heap.pop());
+        assertEquals(3, heap.pop());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void growsBeyondTheInitialCapacity() {
+        var heap = new NodeHeap();
+        var random = new Random(1);
+        for (int node = 0; node < 10_000; node++) {
+            // few distinct priorities, so there are many ties
+            heap.push(random.nextInt(100), node);
+        }
+
+        var nodePriorities = new double[10_000];
+        random = new Random(1);
+        for (int node = 0; node < nodePriorities.length; node++) {
+            nodePriorities[node] = random.nextInt(100);
+        }
+
+        double previous = Double.NEGATIVE_INFINITY;
+        var popped = new boolean[nodePriorities.length];
+        for (int i = 0; i < nodePriorities.length; i++) {
+            int node = heap.pop();
+            assertFalse(popped[node]);
+            popped[node] = true;
+            assertTrue(nodePriorities[node] >= previous);
+            previous = nodePriorities[node];
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void interleavedPushAndPop() {
+        var heap = new NodeHeap();
+        var reference = new PriorityQueue<Integer>();
+        var random = new Random(2);
+        for (int i = 0; i < 20_000; i++) {
+            if (reference.isEmpty() || random.nextInt(3) > 0) {
+                // the node is its priority, so the popped node can be compared directly
+                int node = random.nextInt(1_000_000);
+                heap.push(node, node);
+                reference.add(node);
+            } else {
+                assertEquals((int) reference.poll(), heap.pop());
+            }
+        }
+        while (reference.isEmpty() == false) {
+            assertEquals((int) reference.poll(), heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+    }
+}
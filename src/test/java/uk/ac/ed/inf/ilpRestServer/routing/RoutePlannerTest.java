@@ -0,0 +1,86 @@
+package uk.ac.ed.inf.ilpRestServer.routing;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilpRestServer.geo.RegionIndex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutePlannerTest {
+
+    private static final NamedRegion CENTRAL_AREA = region("central", 0, 0, 0.002, 0, 0.002, 0.002, 0, 0.002);
+
+    /**
+     * a wall between the start and the central area
+     */
+    private static final NamedRegion WALL = region("wall", 0.0035, -0.004, 0.004, -0.004, 0.004, 0.004, 0.0035, 0.004);
+
+    /**
+     * a zone inside the central area
+     */
+    private static final NamedRegion BLOCK = region("block", 0.0008, 0.0008, 0.0012, 0.0008, 0.0012, 0.0012, 0.0008, 0.0012);
+
+    private final RegionIndex regionIndex = new RegionIndex(CENTRAL_AREA, new NamedRegion[]{WALL, BLOCK});
+    private final RoutePlanner planner = new RoutePlanner(regionIndex);
+
+    @Test
+    void routeAroundANoFlyZone() {
+        var from = new LngLat(0.006, 0);
+        var to = new LngLat(0.0005, 0.0005);
+        var route = planner.plan("restaurant", from, to);
+
+        assertNotNull(route);
+        assertEquals("restaurant", route.restaurant());
+        assertEquals(route.moveCount(), route.angles().length);
+        assertEquals(route.moveCount() + 1, route.path().length);
+        assertEquals(from, route.path()[0]);
+        assertTrue(distance(route.path()[route.moveCount()], to) < RoutePlanner.CLOSE_DISTANCE);
+        // the straight line would need about 37 moves, going around the wall needs more than 60
+        assertTrue(route.moveCount() > 55);
+
+        boolean entered = false;
+        for (int i = 0; i < route.moveCount(); i++) {
+            var a = route.path()[i];
+            var b = route.path()[i + 1];
+            assertEquals(RoutePlanner.MOVE_DISTANCE, distance(a, b), 1e-12);
+            assertEquals(0, route.angles()[i] % 22.5, 1e-9);
+            assertEquals(-1, regionIndex.noFlyZoneCrossed(a.lng(), a.lat(), b.lng(), b.lat()));
+
+            entered |= regionIndex.isInCentralArea(a.lng(), a.lat());
+            assertFalse(entered && regionIndex.isInCentralArea(b.lng(), b.lat()) == false, "left the central area at move " + i);
+        }
+    }
+
+    @Test
+    void noRouteOutOfTheCentralArea() {
+        // once in the central area the drone must not leave it
+        assertNull(planner.plan("restaurant", new LngLat(0.0005, 0.0005), new LngLat(0.006, 0)));
+    }
+
+    @Test
+    void noRouteIntoANoFlyZone() {
+        assertNull(planner.plan("restaurant", new LngLat(0.0002, 0.0002), new LngLat(0.001, 0.001)));
+    }
+
+    @Test
+    void alreadyAtTheTarget() {
+        var at = new LngLat(0.0005, 0.0005);
+        var route = planner.plan("restaurant", at, new LngLat(0.0005, 0.00055));
+
+        assertEquals(0, route.moveCount());
+        assertArrayEquals(new LngLat[]{at}, route.path());
+    }
+
+    private static double distance(LngLat a, LngLat b) {
+        return Math.hypot(a.lng() - b.lng(), a.lat() - b.lat());
+    }
+
+    private static NamedRegion region(String name, double... coordinates) {
+        var vertices = new LngLat[coordinates.length / 2];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new LngLat(coordinates[2 * i], coordinates[2 * i + 1]);
+        }
+        return new NamedRegion(name, vertices);
+    }
+}
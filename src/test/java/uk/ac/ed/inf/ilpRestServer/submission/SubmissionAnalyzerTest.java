@@ -0,0 +1,213 @@
+package uk.ac.ed.inf.ilpRestServer.submission;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+import uk.ac.ed.inf.ilpRestServer.geo.FlightpathViolation;
+import uk.ac.ed.inf.ilpRestServer.geo.RegionIndex;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionAnalyzerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 9, 1);
+
+    private final RecordingEvents events = new RecordingEvents();
+    private final List<Order> ordersOfDay = orders();
+
+    @Test
+    void matchingDeliveries() {
+        var summary = analyzer(SubmissionAnalyzer.DELIVERIES, """
+                [{"orderNo": "0000000A", "orderStatus": "DELIVERED", "orderValidationCode": "NO_ERROR", "costInPence": %d},
+                 {"orderNo": "0000000B", "orderStatus": "INVALID", "orderValidationCode": "CVV"}]
+                """.formatted(ordersOfDay.get(0).getPriceTotalInPence())).deliveries(ordersOfDay);
+
+        assertEquals(new PartSummary(SubmissionAnalyzer.DELIVERIES, 2, 0, null), summary);
+        assertEquals(List.of(), events.problems(SubmissionAnalyzer.DELIVERIES));
+        assertEquals("progress", events.names.get(events.names.size() - 1));
+    }
+
+    @Test
+    void missingDelivery() {
+        var summary = analyzer(SubmissionAnalyzer.DELIVERIES, """
+                [{"orderNo": "0000000A", "orderStatus": "DELIVERED", "orderValidationCode": "NO_ERROR"}]
+                """).deliveries(ordersOfDay);
+
+        assertEquals(1, summary.problems());
+        assertEquals(List.of(new DeliveryProblem("0000000B", DeliveryProblem.MISSING_DELIVERY, null, null)),
+                events.problems(SubmissionAnalyzer.DELIVERIES));
+    }
+
+    @Test
+    void duplicateAndUnknownDeliveries() {
+        var summary = analyzer(SubmissionAnalyzer.DELIVERIES, """
+                [{"orderNo": "0000000A", "orderStatus": "DELIVERED", "orderValidationCode": "NO_ERROR"},
+                 {"orderNo": "0000000A", "orderStatus": "DELIVERED", "orderValidationCode": "NO_ERROR"},
+                 {"orderNo": "0000000C", "orderStatus": "DELIVERED", "orderValidationCode": "NO_ERROR"},
+                 {"orderStatus": "DELIVERED"},
+                 {"orderNo": "0000000B", "orderStatus": "INVALID", "orderValidationCode": "CVV"}]
+                """).deliveries(ordersOfDay);
+
+        assertEquals(new PartSummary(SubmissionAnalyzer.DELIVERIES, 5, 3, null), summary);
+        assertEquals(List.of(
+                new DeliveryProblem("0000000A", DeliveryProblem.DUPLICATE_ORDER, null, null),
+                new DeliveryProblem("0000000C", DeliveryProblem.UNKNOWN_ORDER, null, null),
+                new DeliveryProblem(null, DeliveryProblem.MISSING_ORDER_NO, null, null)),
+                events.problems(SubmissionAnalyzer.DELIVERIES));
+    }
+
+    @Test
+    void wrongStatusReasonCodeAndCost() {
+        var summary = analyzer(SubmissionAnalyzer.DELIVERIES, """
+                [{"orderNo": "0000000A", "orderStatus": "INVALID", "orderValidationCode": "NO_ERROR", "costInPence": 1},
+                 {"orderNo": "0000000B", "orderStatus": "INVALID", "orderValidationCode": null}]
+                """).deliveries(ordersOfDay);
+
+        assertEquals(3, summary.problems());
+        assertEquals(List.of(
+                new DeliveryProblem("0000000A", DeliveryProblem.WRONG_STATUS, "DELIVERED", "INVALID"),
+                new DeliveryProblem("0000000A", DeliveryProblem.WRONG_COST, Integer.toString(ordersOfDay.get(0).getPriceTotalInPence()), "1"),
+                new DeliveryProblem("0000000B", DeliveryProblem.WRONG_REASON_CODE, "CVV", null)),
+                events.problems(SubmissionAnalyzer.DELIVERIES));
+    }
+
+    @Test
+    void malformedDeliveries() {
+        var summary = analyzer(SubmissionAnalyzer.DELIVERIES, """
+                [{"orderNo": "0000000A", "orderStatus": "DELIVERED", "orderValidationCode": "NO_ERROR"},
+                """).deliveries(ordersOfDay);
+
+        assertEquals(1, summary.items());
+        assertNotNull(summary.error());
+    }
+
+    @Test
+    void onlyTheFirstProblemsAreSent() {
+        var deliveries = new StringBuilder("[");
+        for (int i = 0; i < SubmissionAnalyzer.MAX_REPORTED_PROBLEMS + 10; i++) {
+            deliveries.append(i == 0 ? "" : ",").append("{\"orderNo\": \"X").append(i).append("\"}");
+        }
+        var summary = analyzer(SubmissionAnalyzer.DELIVERIES, deliveries.append("]").toString()).deliveries(ordersOfDay);
+
+        // the unknown deliveries plus the two missing ones
+        assertEquals(SubmissionAnalyzer.MAX_REPORTED_PROBLEMS + 12, summary.problems());
+        assertEquals(SubmissionAnalyzer.MAX_REPORTED_PROBLEMS, events.problems(SubmissionAnalyzer.DELIVERIES).size());
+    }
+
+    @Test
+    void cancelledWhileReading() {
+        var manyOrders = new ArrayList<Order>();
+        var deliveries = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            var order = TestData.order("%08X".formatted(i), DATE, TestData.restaurants()[0].menu()[0]);
+            manyOrders.add(order);
+            // an unknown order after the first check for cancellation
+            var orderNo = i == 2000 ? "UNKNOWN" : order.getOrderNo();
+            deliveries.append(i == 0 ? "" : ",").append("""
+                    {"orderNo": "%s", "orderStatus": "DELIVERED", "orderValidationCode": "NO_ERROR"}""".formatted(orderNo));
+        }
+        var analyzer = analyzer(SubmissionAnalyzer.DELIVERIES, deliveries.append("]").toString());
+        events.cancelled = true;
+
+        assertThrows(CancellationException.class, () -> analyzer.deliveries(manyOrders));
+        // neither the unknown order nor the missing ones nor the final progress were sent
+        assertEquals(List.of(), events.names);
+    }
+
+    @Test
+    void clientGoneWhileSending() {
+        events.failSends = true;
+        var analyzer = analyzer(SubmissionAnalyzer.DELIVERIES, """
+                [{"orderNo": "0000000C"}]
+                """);
+
+        assertThrows(CancellationException.class, () -> analyzer.deliveries(ordersOfDay));
+    }
+
+    @Test
+    void droneLinesAreCheckedAsPaths() {
+        var regionIndex = new RegionIndex(region("central", 0, 0, 10, 0, 10, 10, 0, 10),
+                new NamedRegion[]{region("zone", 2, 2, 4, 2, 4, 4, 2, 4)});
+        var summary = analyzer(SubmissionAnalyzer.DRONE, """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "geometry": {"type": "Point", "coordinates": [3, 3]}},
+                  {"type": "Feature", "geometry": {"type": "Polygon", "coordinates": [[[1, 1], [5, 5], [1, 5], [1, 1]]]}},
+                  {"type": "Feature", "geometry": {"type": "LineString", "coordinates": [[1, 3, 0], [5, 3, 0], [5, 9]]}}
+                ]}
+                """).drone(regionIndex);
+
+        assertEquals(new PartSummary(SubmissionAnalyzer.DRONE, 3, 1, null), summary);
+        var violation = (FlightpathViolation) events.problems(SubmissionAnalyzer.DRONE).get(0);
+        assertEquals(FlightpathViolation.NO_FLY_ZONE, violation.type());
+        assertEquals("zone", violation.noFlyZone());
+        assertEquals(0L, violation.move());
+    }
+
+    private SubmissionAnalyzer analyzer(String part, String content) {
+        var bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new SubmissionAnalyzer(part, new ByteArrayInputStream(bytes), bytes.length, events);
+    }
+
+    private static List<Order> orders() {
+        var restaurant = TestData.restaurants()[0];
+        var delivered = TestData.order("0000000A", DATE, restaurant.menu()[0]);
+        var invalid = TestData.order("0000000B", DATE, restaurant.menu()[0]);
+        invalid.setOrderStatus(OrderStatus.INVALID);
+        invalid.setInvalidOrderReasonCode(InvalidOrderReasonCode.CVV);
+        return List.of(delivered, invalid);
+    }
+
+    private static NamedRegion region(String name, double... coordinates) {
+        var vertices = new LngLat[coordinates.length / 2];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new LngLat(coordinates[2 * i], coordinates[2 * i + 1]);
+        }
+        return new NamedRegion(name, vertices);
+    }
+
+    /**
+     * records the events of an analysis
+     */
+    private static final class RecordingEvents implements SubmissionEvents {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> data = new ArrayList<>();
+        private boolean cancelled;
+        private boolean failSends;
+
+        @Override
+        public void send(String name, Object data) {
+            if (failSends) {
+                throw new CancellationException("the client is gone");
+            }
+            names.add(name);
+            this.data.add(data);
+        }
+
+        @Override
+        public boolean cancelled() {
+            return cancelled;
+        }
+
+        List<Object> problems(String part) {
+            var problems = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).equals(part)) {
+                    problems.add(data.get(i));
+                }
+            }
+            return problems;
+        }
+    }
+}
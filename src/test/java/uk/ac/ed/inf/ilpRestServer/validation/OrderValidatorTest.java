@@ -0,0 +1,96 @@
+package uk.ac.ed.inf.ilpRestServer.validation;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.InvalidOrderReasonCode;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilpRestServer.IlpOrdersSampleDataGenerator;
+import uk.ac.ed.inf.ilpRestServer.TestData;
+import uk.ac.ed.inf.ilpRestServer.data.IlpDataLoader;
+import uk.ac.ed.inf.ilpRestServer.data.MenuIndex;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderValidatorTest {
+
+    // 2023-09-04 is a Monday, Domino's (restaurant 2) is closed
+    private static final LocalDate MONDAY = LocalDate.of(2023, 9, 4);
+
+    private final Restaurant[] restaurants = TestData.restaurants();
+    private final OrderValidator validator = new OrderValidator(new MenuIndex(restaurants));
+
+    @Test
+    void generatedOrdersHaveTheStoredOutcome() {
+        assertGeneratedOrdersValidate(restaurants);
+    }
+
+    @Test
+    void generatedOrdersOfTheBundledRestaurantsHaveTheStoredOutcome() {
+        assertGeneratedOrdersValidate(IlpDataLoader.loadRestaurants());
+    }
+
+    @Test
+    void validOrder() {
+        var result = validator.validate(TestData.order("00000001", MONDAY, restaurants[0].menu()));
+        assertEquals(new OrderValidationResult("00000001", OrderStatus.DELIVERED, InvalidOrderReasonCode.NO_ERROR), result);
+    }
+
+    @Test
+    void orderWithoutDateIsInvalid() {
+        var order = TestData.order("00000001", null, restaurants[0].menu());
+        assertEquals(new OrderValidationResult("00000001", OrderStatus.INVALID, null), validator.validate(order));
+    }
+
+    @Test
+    void closedRestaurant() {
+        var order = TestData.order("00000001", MONDAY, restaurants[2].menu()[0]);
+        assertEquals(InvalidOrderReasonCode.RESTAURANT_CLOSED, validator.validate(order).invalidOrderReasonCode());
+        order.setOrderDate(MONDAY.plusDays(2));
+        assertEquals(InvalidOrderReasonCode.NO_ERROR, validator.validate(order).invalidOrderReasonCode());
+    }
+
+    @Test
+    void cardExpiresAtTheEndOfTheMonth() {
+        var order = TestData.order("00000001", LocalDate.of(2028, 12, 31), restaurants[0].menu()[0]);
+        assertEquals(InvalidOrderReasonCode.NO_ERROR, validator.validate(order).invalidOrderReasonCode());
+        order.setOrderDate(LocalDate.of(2029, 1, 1));
+        assertEquals(InvalidOrderReasonCode.EXPIRY_DATE, validator.validate(order).invalidOrderReasonCode());
+        order.setOrderDate(MONDAY);
+        order.setCreditCardExpiry("13/28");
+        assertEquals(InvalidOrderReasonCode.EXPIRY_DATE, validator.validate(order).invalidOrderReasonCode());
+    }
+
+    @Test
+    void pizzaRules() {
+        var menu = restaurants[0].menu();
+        assertEquals(InvalidOrderReasonCode.MAX_PIZZA_COUNT_EXCEEDED,
+                validator.validate(TestData.order("00000001", MONDAY, menu[0], menu[0], menu[1], menu[1], menu[0])).invalidOrderReasonCode());
+        assertEquals(InvalidOrderReasonCode.PIZZA_NOT_DEFINED,
+                validator.validate(TestData.order("00000001", MONDAY, new Pizza("Pizza-Surprise ", 1000))).invalidOrderReasonCode());
+        assertEquals(InvalidOrderReasonCode.MULTIPLE_RESTAURANTS,
+                validator.validate(TestData.order("00000001", MONDAY, menu[0], restaurants[1].menu()[0])).invalidOrderReasonCode());
+
+        var order = TestData.order("00000001", MONDAY, menu[0]);
+        order.setPriceTotalInPence(order.getPriceTotalInPence() + 1);
+        assertEquals(InvalidOrderReasonCode.TOTAL, validator.validate(order).invalidOrderReasonCode());
+    }
+
+    private static void assertGeneratedOrdersValidate(Restaurant[] restaurants) {
+        var validator = new OrderValidator(new MenuIndex(restaurants));
+        // several weeks, so every restaurant is closed on some of the days
+        for (int day = 0; day < 28; day++) {
+            var orders = IlpOrdersSampleDataGenerator.ordersForDay(IlpOrdersSampleDataGenerator.START_DATE.plusDays(day), 7, 50, restaurants)
+                    .toArray(Order[]::new);
+            var results = validator.validate(orders);
+            for (int i = 0; i < orders.length; i++) {
+                assertEquals(orders[i].getOrderNo(), results[i].orderNo());
+                assertEquals(orders[i].getOrderStatus(), results[i].orderStatus(), orders[i].getOrderNo());
+                assertEquals(orders[i].getInvalidOrderReasonCode(), results[i].invalidOrderReasonCode(), orders[i].getOrderNo());
+            }
+        }
+    }
+}